@@ -0,0 +1,78 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductFilterResponse;
+import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.payload.SuggestionDTO;
+import com.ecommerce.project.service.ProductService;
+import com.ecommerce.project.service.SuggestService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level catalog reads against the seeded H2 database: query, DTO mapping and ProductResponse assembly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogBenchmark {
+
+    private ProductService productService;
+    private SuggestService suggestService;
+
+    @Setup
+    public void setUp(SeededCatalog catalog) {
+        productService = catalog.bean(ProductService.class);
+        suggestService = catalog.bean(SuggestService.class);
+    }
+
+    @Benchmark
+    public ProductResponse allProductsPage() {
+        return productService.getAllProducts(3, 50, "productId", "asc", null);
+    }
+
+    @Benchmark
+    public ProductResponse allProductsPageByPrice() {
+        return productService.getAllProducts(3, 50, "price", "desc", null);
+    }
+
+    @Benchmark
+    public ProductResponse categoryPageByPrice() {
+        return productService.searchByCategory(7L, 2, 50, "price", "asc", null);
+    }
+
+    @Benchmark
+    public ProductResponse categoryPageByName() {
+        return productService.searchByCategory(7L, 2, 50, "productName", "asc", null);
+    }
+
+    @Benchmark
+    public ProductResponse keywordSearch() {
+        return productService.searchProductByKeyword("phone", 0, 50, "productId", "asc", null);
+    }
+
+    @Benchmark
+    public ProductFilterResponse facetFilter() {
+        ProductFilter filter = new ProductFilter(List.of(3L, 7L), List.of("100-250", "250-500"), List.of(), true);
+        return productService.filterProducts(filter, 0, 50, null);
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> suggest() {
+        return suggestService.suggest("wire", 10);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.model.DiscountType;
+import com.ecommerce.project.model.Promotion;
+import com.ecommerce.project.promotion.CompiledPromotions;
+import com.ecommerce.project.promotion.PromotionMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quote-time promotion evaluation against compiled rules, without the database. Rules are spread over products,
+ * categories and the whole catalog, some with coupons, seller conditions and exclusions. Run with
+ * {@code -prof gc} to see the allocation per evaluation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PromotionBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int CATEGORIES = 50;
+    private static final int SELLERS = 20;
+    private static final int LINES = 1024;
+
+    @Param({"1000"})
+    public int rules;
+
+    private CompiledPromotions compiled;
+    private List<Promotion> promotions;
+    private long[] productIds;
+    private Long[] categoryIds;
+    private Long[] sellerIds;
+    private int[] quantities;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        promotions = new ArrayList<>();
+        for (long id = 1; id <= rules; id++) {
+            Promotion promotion = new Promotion();
+            promotion.setPromotionId(id);
+            promotion.setName("Promotion " + id);
+            // Mostly product and category promotions, a few catalog-wide ones
+            int kind = random.nextInt(20);
+            if (kind < 6) {
+                promotion.setProductId(1L + random.nextInt(PRODUCTS));
+            } else if (kind < 19) {
+                promotion.setCategoryId(1L + random.nextInt(CATEGORIES));
+            }
+            if (random.nextInt(5) == 0) {
+                promotion.setSellerId(1L + random.nextInt(SELLERS));
+            }
+            if (random.nextInt(10) == 0) {
+                promotion.setCouponCode("COUPON" + random.nextInt(20));
+            }
+            promotion.setMinQuantity(1 + random.nextInt(3));
+            promotion.setDiscountType(random.nextBoolean() ? DiscountType.PERCENTAGE : DiscountType.ABSOLUTE);
+            promotion.setAmount(1 + random.nextInt(20));
+            promotion.setStackable(random.nextInt(4) != 0);
+            promotion.setActive(true);
+            Set<Long> excluded = new HashSet<>();
+            for (int i = random.nextInt(4); i > 0; i--) {
+                excluded.add(1L + random.nextInt(PRODUCTS));
+            }
+            promotion.setExcludedProductIds(excluded);
+            promotions.add(promotion);
+        }
+        compiled = CompiledPromotions.compile(promotions);
+
+        productIds = new long[LINES];
+        categoryIds = new Long[LINES];
+        sellerIds = new Long[LINES];
+        quantities = new int[LINES];
+        for (int i = 0; i < LINES; i++) {
+            productIds[i] = 1L + random.nextInt(PRODUCTS);
+            categoryIds[i] = 1L + random.nextInt(CATEGORIES);
+            sellerIds[i] = 1L + random.nextInt(SELLERS);
+            quantities[i] = 1 + random.nextInt(4);
+        }
+    }
+
+    @Benchmark
+    public PromotionMatch evaluateLine() {
+        int i = next++ & (LINES - 1);
+        return compiled.evaluate(productIds[i], categoryIds[i], sellerIds[i], quantities[i], 100.0, null);
+    }
+
+    @Benchmark
+    public PromotionMatch evaluateLineWithCoupon() {
+        int i = next++ & (LINES - 1);
+        return compiled.evaluate(productIds[i], categoryIds[i], sellerIds[i], quantities[i], 100.0, "COUPON7");
+    }
+
+    @Benchmark
+    public CompiledPromotions compile() {
+        return CompiledPromotions.compile(promotions);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.campaign;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Campaign repricing settings, bound from {@code project.campaign.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.campaign")
+public class CampaignProperties {
+
+    // Parallel repricing transactions
+    private int threads = 4;
+
+    // Width of the productId range each repricing transaction updates
+    private long chunkSize = 50_000;
+
+    // How often due campaign starts and ends are picked up
+    private long pollMs = 5000;
+}
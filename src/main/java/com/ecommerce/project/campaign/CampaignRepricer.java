@@ -0,0 +1,162 @@
+package com.ecommerce.project.campaign;
+
+import com.ecommerce.project.model.CampaignScope;
+import com.ecommerce.project.model.DiscountCampaign;
+import com.ecommerce.project.model.DiscountType;
+import com.ecommerce.project.outbox.CatalogOutbox;
+import com.ecommerce.project.outbox.OutboxEvent;
+import com.ecommerce.project.outbox.OutboxOperation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Applies and reverts campaign prices without loading entities.
+ * <p>
+ * The productId space is cut into ranges of {@code chunkSize} ids and every range is one {@code UPDATE ... WHERE
+ * product_id BETWEEN} in its own transaction, run {@code threads} at a time. Each statement walks a primary key
+ * range, so transactions stay short, lock disjoint rows and can run in parallel. Both directions only touch rows
+ * still in the expected state, so a run interrupted halfway can simply be repeated. A range that changed any product
+ * writes one campaign event to the outbox in its transaction, in place of an event per product, and is handed to the
+ * caller once committed so in-memory state can follow range by range.
+ */
+@Component
+@EnableConfigurationProperties(CampaignProperties.class)
+public class CampaignRepricer {
+
+    // Product's own price, as computed by ProductServiceImpl
+    private static final String OWN_PRICE = "price - price * discount * 0.01";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CampaignProperties properties;
+
+    @Autowired
+    private CatalogOutbox catalogOutbox;
+
+    private final Map<Long, RepricingProgress> progress = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "campaign-repricing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the campaign price on every product in scope that is not in another campaign, returns the count.
+     */
+    public long apply(DiscountCampaign campaign, Consumer<RepricedRange> committed) {
+        String scopeColumn = campaign.getScope() == CampaignScope.CATEGORY ? "category_id" : "seller_id";
+        String campaignPrice = campaign.getDiscountType() == DiscountType.PERCENTAGE
+                ? "price - price * ? / 100"
+                : "case when price > ? then price - ? else 0 end";
+        String sql = "update products set special_price = " + campaignPrice + ", campaign_id = ?, version = version + 1"
+                + " where product_id between ? and ? and " + scopeColumn + " = ? and campaign_id is null";
+        return reprice(campaign.getCampaignId(), true, (from, to) -> campaign.getDiscountType() == DiscountType.PERCENTAGE
+                ? new Object[]{campaign.getAmount(), campaign.getCampaignId(), from, to, campaign.getScopeId()}
+                : new Object[]{campaign.getAmount(), campaign.getAmount(), campaign.getCampaignId(), from, to, campaign.getScopeId()},
+                sql, committed);
+    }
+
+    /**
+     * Restores the own price of every product the campaign repriced, returns the count.
+     */
+    public long revert(Long campaignId, Consumer<RepricedRange> committed) {
+        String sql = "update products set special_price = " + OWN_PRICE + ", campaign_id = null, version = version + 1"
+                + " where product_id between ? and ? and campaign_id = ?";
+        return reprice(campaignId, false, (from, to) -> new Object[]{from, to, campaignId}, sql, committed);
+    }
+
+    public RepricingProgress progress(Long campaignId) {
+        return progress.get(campaignId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private long reprice(Long campaignId, boolean applied, RangeArguments arguments, String sql,
+                         Consumer<RepricedRange> committed) {
+        long[] bounds = jdbcTemplate.queryForObject("select min(product_id), max(product_id) from products",
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+        if (bounds == null) {
+            progress.put(campaignId, new RepricingProgress(0));
+            return 0;
+        }
+
+        List<Callable<Integer>> ranges = new ArrayList<>();
+        RepricingProgress rangeProgress = new RepricingProgress(
+                (int) ((bounds[1] - bounds[0]) / properties.getChunkSize() + 1));
+        for (long from = bounds[0]; from <= bounds[1]; from += properties.getChunkSize()) {
+            long rangeFrom = from;
+            long rangeTo = Math.min(bounds[1], from + properties.getChunkSize() - 1);
+            Object[] args = arguments.of(rangeFrom, rangeTo);
+            // Each range commits on its own, with its event
+            ranges.add(() -> {
+                RepricedRange repriced = transactionTemplate.execute(status -> {
+                    int count = jdbcTemplate.update(sql, args);
+                    if (count == 0) {
+                        return null;
+                    }
+                    RepricedRange range = new RepricedRange(campaignId, rangeFrom, rangeTo, count, applied);
+                    catalogOutbox.append(OutboxEvent.CAMPAIGN, campaignId, OutboxOperation.UPDATED, range);
+                    return range;
+                });
+                if (repriced == null) {
+                    rangeProgress.rangeDone(0);
+                    return 0;
+                }
+                committed.accept(repriced);
+                rangeProgress.rangeDone(repriced.productsRepriced());
+                return repriced.productsRepriced();
+            });
+        }
+        progress.put(campaignId, rangeProgress);
+
+        long updated = 0;
+        try {
+            for (Future<Integer> range : executor.invokeAll(ranges)) {
+                updated += range.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Repricing of campaign " + campaignId + " was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Repricing of campaign " + campaignId + " failed", e.getCause());
+        }
+        return updated;
+    }
+
+    @FunctionalInterface
+    private interface RangeArguments {
+        Object[] of(long from, long to);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.project.campaign;
+
+/**
+ * Outbox payload for one productId range a campaign repriced: the products in it with the campaign's id got the
+ * campaign price when {@code applied}, or their own price back otherwise.
+ */
+public record RepricedRange(Long campaignId, long fromProductId, long toProductId, int productsRepriced,
+                            boolean applied) {
+}
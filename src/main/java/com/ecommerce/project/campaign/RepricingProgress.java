@@ -0,0 +1,35 @@
+package com.ecommerce.project.campaign;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the current or last apply/revert of one campaign, updated by the repricing threads.
+ */
+public class RepricingProgress {
+
+    private final int rangesTotal;
+    private final AtomicInteger rangesDone = new AtomicInteger();
+    private final AtomicLong productsUpdated = new AtomicLong();
+
+    RepricingProgress(int rangesTotal) {
+        this.rangesTotal = rangesTotal;
+    }
+
+    void rangeDone(int updated) {
+        productsUpdated.addAndGet(updated);
+        rangesDone.incrementAndGet();
+    }
+
+    public int getRangesTotal() {
+        return rangesTotal;
+    }
+
+    public int getRangesDone() {
+        return rangesDone.get();
+    }
+
+    public long getProductsUpdated() {
+        return productsUpdated.get();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.project.cart;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A user's cart. Only accessed while holding the user's stripe lock in {@link CartStore}.
+ */
+public class Cart {
+
+    private final Long userId;
+    private final Map<Long, CartLine> lines = new LinkedHashMap<>();
+    private long version;
+
+    Cart(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public CartLine line(Long productId) {
+        return lines.get(productId);
+    }
+
+    public int size() {
+        return lines.size();
+    }
+
+    public void put(CartLine line) {
+        lines.put(line.productId(), line);
+        version++;
+    }
+
+    public CartLine remove(Long productId) {
+        CartLine removed = lines.remove(productId);
+        if (removed != null) {
+            version++;
+        }
+        return removed;
+    }
+
+    public List<CartLine> lines() {
+        return new ArrayList<>(lines.values());
+    }
+
+    // Recovery and flush copies only, keeps the given version; a null line restores just the version
+    void restore(CartLine line, long version) {
+        if (line != null) {
+            lines.put(line.productId(), line);
+        }
+        this.version = version;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.project.cart;
+
+/**
+ * One product in a cart, with the unit price it was last validated at.
+ */
+public record CartLine(Long productId, int quantity, double unitPrice) {
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.project.cart;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Cart store settings, bound from {@code project.cart.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.cart")
+public class CartProperties {
+
+    // Lock stripes over user ids, rounded up to a power of two
+    private int stripes = 64;
+
+    // Interval of the write-behind flush; changes within one interval are written once
+    private long flushIntervalMs = 500;
+
+    // Carts written per flush transaction
+    private int flushBatchSize = 500;
+
+    // Distinct products one cart may hold
+    private int maxLines = 100;
+}
@@ -0,0 +1,212 @@
+package com.ecommerce.project.cart;
+
+import com.ecommerce.project.exceptions.APIException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The primary store of all carts, in memory, persisted write-behind.
+ * <p>
+ * Operations on a cart hold one of {@code stripes} locks picked by user id, so different users rarely contend and a
+ * cart is never seen half-changed. A change only marks the user dirty; the flush takes the dirty set, copies each cart
+ * under its lock and rewrites the carts' rows with JDBC batches, so any number of changes to a cart within one
+ * interval cost a single write. A cart changed again while it is written is simply dirty for the next flush. A batch
+ * that violates a constraint is halved until the offending carts are found; those are set aside, kept in memory
+ * only, until they change again, and the rest are written. The tables are read once on startup to recover the carts.
+ */
+@Component
+@EnableConfigurationProperties(CartProperties.class)
+public class CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Cart> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Carts whose last write was rejected by the database
+    private final Set<Long> quarantined = ConcurrentHashMap.newKeySet();
+    private Object[] stripes;
+
+    private volatile boolean ready;
+
+    @Autowired
+    private CartProperties properties;
+
+    @PostConstruct
+    public void start() {
+        int count = Integer.highestOneBit(Math.max(1, properties.getStripes() * 2 - 1));
+        stripes = new Object[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Runs the function on the user's cart under its lock and schedules the cart to be written.
+     */
+    public <T> T update(Long userId, Function<Cart, T> change) {
+        checkReady();
+        synchronized (stripe(userId)) {
+            Cart cart = carts.computeIfAbsent(userId, Cart::new);
+            long version = cart.getVersion();
+            T result = change.apply(cart);
+            if (cart.getVersion() != version) {
+                dirty.add(userId);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Runs the function on the user's cart, or on an empty one, under its lock.
+     */
+    public <T> T read(Long userId, Function<Cart, T> view) {
+        checkReady();
+        synchronized (stripe(userId)) {
+            return view.apply(carts.getOrDefault(userId, new Cart(userId)));
+        }
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    public int pending() {
+        return dirty.size();
+    }
+
+    public int quarantined() {
+        return quarantined.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        Map<Long, Cart> recovered = new ConcurrentHashMap<>();
+        jdbcTemplate.query("select c.user_id, c.version, i.product_id, i.quantity, i.unit_price"
+                + " from carts c left join cart_items i on i.user_id = c.user_id", rs -> {
+            Cart cart = recovered.computeIfAbsent(rs.getLong(1), Cart::new);
+            long productId = rs.getLong(3);
+            // An emptied cart keeps its row, so its version survives a restart
+            cart.restore(rs.wasNull() ? null : new CartLine(productId, rs.getInt(4), rs.getDouble(5)), rs.getLong(2));
+        });
+        carts.clear();
+        carts.putAll(recovered);
+        dirty.clear();
+        ready = true;
+        logger.info("Recovered {} carts", recovered.size());
+    }
+
+    /**
+     * Writes the carts changed since the last flush. Serialized with the shutdown flush.
+     */
+    @Scheduled(fixedDelayString = "${project.cart.flush-interval-ms}")
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(dirty);
+        // Cleared before the copies are taken, so a change racing the flush marks its cart dirty again
+        dirty.removeAll(userIds);
+        for (int from = 0; from < userIds.size(); from += properties.getFlushBatchSize()) {
+            List<Long> chunk = userIds.subList(from, Math.min(userIds.size(), from + properties.getFlushBatchSize()));
+            writeOrSplit(snapshot(chunk));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private List<Cart> snapshot(List<Long> userIds) {
+        List<Cart> copies = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            synchronized (stripe(userId)) {
+                Cart cart = carts.get(userId);
+                Cart copy = new Cart(userId);
+                if (cart != null) {
+                    copy.restore(null, cart.getVersion());
+                    cart.lines().forEach(line -> copy.restore(line, cart.getVersion()));
+                }
+                copies.add(copy);
+            }
+        }
+        return copies;
+    }
+
+    private void writeOrSplit(List<Cart> copies) {
+        try {
+            write(copies);
+            copies.forEach(cart -> quarantined.remove(cart.getUserId()));
+        } catch (DataIntegrityViolationException e) {
+            if (copies.size() == 1) {
+                Long userId = copies.get(0).getUserId();
+                quarantined.add(userId);
+                logger.error("Cart of user {} was rejected, keeping it in memory until it changes", userId, e);
+                return;
+            }
+            int half = copies.size() / 2;
+            writeOrSplit(copies.subList(0, half));
+            writeOrSplit(copies.subList(half, copies.size()));
+        } catch (RuntimeException e) {
+            copies.forEach(cart -> dirty.add(cart.getUserId()));
+            logger.error("Writing {} carts failed, retrying on the next flush", copies.size(), e);
+        }
+    }
+
+    private void write(List<Cart> copies) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> userIds = new ArrayList<>();
+        List<Object[]> cartRows = new ArrayList<>();
+        List<Object[]> itemRows = new ArrayList<>();
+        for (Cart cart : copies) {
+            userIds.add(new Object[]{cart.getUserId()});
+            cartRows.add(new Object[]{cart.getUserId(), cart.getVersion(), now});
+            for (CartLine line : cart.lines()) {
+                itemRows.add(new Object[]{cart.getUserId(), line.productId(), line.quantity(), line.unitPrice()});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Items go with their cart through on delete cascade
+            jdbcTemplate.batchUpdate("delete from carts where user_id = ?", userIds);
+            jdbcTemplate.batchUpdate("insert into carts (user_id, version, updated_at) values (?, ?, ?)", cartRows);
+            jdbcTemplate.batchUpdate("insert into cart_items (user_id, product_id, quantity, unit_price)"
+                    + " values (?, ?, ?, ?)", itemRows);
+        });
+    }
+
+    private Object stripe(Long userId) {
+        return stripes[Long.hashCode(userId * 0x9E3779B97F4A7C15L) & (stripes.length - 1)];
+    }
+
+    private void checkReady() {
+        if (!ready) {
+            throw new APIException("Carts are still loading, please retry shortly");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce.project.category;
+
+import com.ecommerce.project.index.SuggestIndex;
+import com.ecommerce.project.job.JobChunk;
+import com.ecommerce.project.job.JobHandler;
+import com.ecommerce.project.outbox.CatalogOutbox;
+import com.ecommerce.project.outbox.OutboxEvent;
+import com.ecommerce.project.outbox.OutboxOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Removes a deleted category with its products and product images, as a background job with the categoryId as
+ * payload.
+ * <p>
+ * A category is first marked deleted, which hides it and its products from every JPA read. Each chunk then deletes
+ * the next {@code chunkSize} products, writes a product DELETED event for each of them to the outbox and, once
+ * committed, removes the image files no remaining product refers to. The last chunk deletes the category row. A
+ * purge cannot be cancelled, the category would stay hidden without ever being removed.
+ */
+@Component
+@EnableConfigurationProperties(PurgeProperties.class)
+public class CategoryPurger implements JobHandler {
+
+    public static final String TYPE = "category-purge";
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryPurger.class);
+
+    // Shared by every product created without an image
+    private static final String DEFAULT_IMAGE = "default.png";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PurgeProperties properties;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private CatalogOutbox catalogOutbox;
+
+    @Value("${project.image}")
+    private String path;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public boolean cancellable() {
+        return false;
+    }
+
+    @Override
+    public Long total(String payload) {
+        return jdbcTemplate.queryForObject("select count(*) from products where category_id = ?", Long.class,
+                Long.valueOf(payload));
+    }
+
+    @Override
+    public JobChunk process(String payload, String checkpoint) {
+        Long categoryId = Long.valueOf(payload);
+        long after = checkpoint == null ? Long.MIN_VALUE : Long.parseLong(checkpoint);
+
+        List<String> images = new ArrayList<>();
+        Map<Long, PurgedProduct> purged = new LinkedHashMap<>();
+        long[] lastId = {after};
+        jdbcTemplate.query("select product_id, image from products where category_id = ? and product_id > ?"
+                        + " order by product_id fetch first " + properties.getChunkSize() + " rows only",
+                rs -> {
+                    lastId[0] = rs.getLong(1);
+                    images.add(rs.getString(2));
+                    purged.put(lastId[0], new PurgedProduct(lastId[0], categoryId));
+                }, categoryId, after);
+        int deleted = images.isEmpty() ? 0
+                // The ids just read, as one range of the (category_id, product_id) order
+                : jdbcTemplate.update("delete from products where category_id = ? and product_id > ? and product_id <= ?",
+                categoryId, after, lastId[0]);
+        catalogOutbox.appendAll(OutboxEvent.PRODUCT, OutboxOperation.DELETED, purged);
+        deleteOrphanedImagesAfterCommit(images);
+
+        if (images.size() == properties.getChunkSize()) {
+            return JobChunk.next(String.valueOf(lastId[0]), deleted);
+        }
+        jdbcTemplate.update("delete from categories where category_id = ? and deleted_at is not null", categoryId);
+        suggestIndex.markDirty();
+        logger.info("Purged category {}", categoryId);
+        return JobChunk.done(deleted);
+    }
+
+    /**
+     * Outbox payload of a product deleted with its category.
+     */
+    public record PurgedProduct(Long productId, Long categoryId) {
+    }
+
+    // Files go only once the products that used them are committed away
+    private void deleteOrphanedImagesAfterCommit(List<String> images) {
+        Set<String> candidates = new HashSet<>();
+        for (String image : images) {
+            if (image != null && !image.isBlank() && !image.equals(DEFAULT_IMAGE)) {
+                candidates.add(image);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteOrphanedImages(candidates);
+            }
+        });
+    }
+
+    private void deleteOrphanedImages(Set<String> candidates) {
+        candidates.removeAll(jdbcTemplate.queryForList("select distinct image from products where image in ("
+                + String.join(", ", Collections.nCopies(candidates.size(), "?")) + ")", String.class, candidates.toArray()));
+
+        for (String image : candidates) {
+            Path file = Paths.get(path).resolve(image).normalize();
+            // Only file names are stored, never follow one out of the image directory
+            if (!file.startsWith(Paths.get(path).normalize())) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete image {}", file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.project.category;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Deleted category cleanup settings, bound from {@code project.purge.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.purge")
+public class PurgeProperties {
+
+    // Products deleted per transaction
+    private int chunkSize = 1000;
+}
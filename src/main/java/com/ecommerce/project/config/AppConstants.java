@@ -1,5 +1,7 @@
 package com.ecommerce.project.config;
 
+import java.util.Set;
+
 public class AppConstants {
     public static final String PAGE_NUMBER = "0";
     public static final String PAGE_SIZE = "50";
@@ -7,4 +9,19 @@ public class AppConstants {
 
     public static final String SORT_DIR = "asc";
     public static final String SORT_PRODUCTS_BY = "productId";
+    public static final String SUGGEST_LIMIT = "10";
+
+    // Items accepted by one PATCH /api/admin/products, and products loaded and written per IN query and JDBC batch
+    public static final int MAX_BATCH_UPDATE = 10_000;
+    public static final int BATCH_LOAD_CHUNK = 1_000;
+
+    // Lines accepted by one POST /api/public/quote
+    public static final int MAX_QUOTE_ITEMS = 500;
+
+    // Products accepted by one order
+    public static final int MAX_ORDER_ITEMS = 100;
+
+    // Only orderings backed by an index in db/migration may be requested
+    public static final Set<String> PRODUCT_SORT_FIELDS = Set.of("productId", "productName", "price", "specialPrice", "discount");
+    public static final Set<String> CATEGORY_SORT_FIELDS = Set.of("categoryId", "categoryName");
 }
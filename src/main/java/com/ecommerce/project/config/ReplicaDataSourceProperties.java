@@ -0,0 +1,23 @@
+package com.ecommerce.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection settings of the read replica, bound from {@code project.datasource.replica.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.datasource.replica")
+public class ReplicaDataSourceProperties {
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private int maximumPoolSize = 10;
+
+    // Route reads that follow a write in the same HTTP request to the primary
+    private boolean readYourWrites = true;
+
+    // Run the Flyway migrations against the replica as well, for local setups without real replication
+    private boolean migrate = false;
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.project.config;
+
+/**
+ * Per-thread read-your-writes pin. Once the current request has written to the primary, its later read-only
+ * transactions are routed to the primary too, so they cannot miss that write because of replication lag.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+}
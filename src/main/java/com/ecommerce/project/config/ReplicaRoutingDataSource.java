@@ -0,0 +1,35 @@
+package com.ecommerce.project.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Sends connections of {@code @Transactional(readOnly = true)} work to the replica and everything else to the
+ * primary. Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only bound after the transaction
+ * manager asked for a connection, so the lookup has to wait for the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final boolean readYourWrites;
+
+    public ReplicaRoutingDataSource(boolean readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return readYourWrites && ReplicaRoutingContext.isPinnedToPrimary() ? PRIMARY : REPLICA;
+        }
+        // Only request threads are pinned; ReadYourWritesFilter clears the pin when the request completes
+        if (readYourWrites && TransactionSynchronizationManager.isActualTransactionActive()
+                && RequestContextHolder.getRequestAttributes() != null) {
+            ReplicaRoutingContext.pinToPrimary();
+        }
+        return PRIMARY;
+    }
+}
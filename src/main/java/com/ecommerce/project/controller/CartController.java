@@ -0,0 +1,48 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.service.CartService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+public class CartController {
+
+    @Autowired
+    private CartService cartService;
+
+    @GetMapping("/carts/users/cart")
+    public ResponseEntity<CartDTO> getCart() {
+        CartDTO cartDTO = cartService.getCart();
+        return new ResponseEntity<>(cartDTO, HttpStatus.OK);
+    }
+
+    @PostMapping("/carts/products/{productId}/quantity/{quantity}")
+    public ResponseEntity<CartDTO> addProductToCart(@PathVariable Long productId,
+                                                    @PathVariable Integer quantity) {
+        CartDTO cartDTO = cartService.addProduct(productId, quantity);
+        return new ResponseEntity<>(cartDTO, HttpStatus.CREATED);
+    }
+
+    @PutMapping("/carts/products/{productId}/quantity/{quantity}")
+    public ResponseEntity<CartDTO> updateCartProduct(@PathVariable Long productId,
+                                                     @PathVariable Integer quantity) {
+        CartDTO cartDTO = cartService.updateProductQuantity(productId, quantity);
+        return new ResponseEntity<>(cartDTO, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/carts/products/{productId}")
+    public ResponseEntity<CartDTO> deleteProductFromCart(@PathVariable Long productId) {
+        CartDTO cartDTO = cartService.removeProduct(productId);
+        return new ResponseEntity<>(cartDTO, HttpStatus.OK);
+    }
+}
@@ -2,18 +2,23 @@ package com.ecommerce.project.controller;
 
 
 import com.ecommerce.project.config.AppConstants;
+import com.ecommerce.project.idempotency.ResponseReplayCache;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.JobDTO;
 import com.ecommerce.project.service.CategoryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
@@ -23,6 +28,9 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private ResponseReplayCache replayCache;
+
     @GetMapping("/echo")
     public ResponseEntity<String> echoMessage(@RequestParam(name = "message") String message){
         return new ResponseEntity<>("Echoed Message" + message, HttpStatus.OK);
@@ -45,26 +53,49 @@ public class CategoryController {
 
     @PostMapping("/public/categories")
     //@RequestMapping(value = "/public/categories", method = RequestMethod.POST)
-    public ResponseEntity<CategoryDTO> createCategory(@Valid @RequestBody CategoryDTO categoryDTO) {
-        CategoryDTO savedCategoryDTO = categoryService.createCategory(categoryDTO);
-        return new ResponseEntity<>(savedCategoryDTO, HttpStatus.CREATED);
+    public ResponseEntity<CategoryDTO> createCategory(@Valid @RequestBody CategoryDTO categoryDTO,
+                                                      @RequestHeader(name = ResponseReplayCache.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        // A retried create gets the first response instead of a duplicate-name error
+        return replayCache.execute(idempotencyKey, "createCategory", categoryDTO, () -> {
+            CategoryDTO savedCategoryDTO = categoryService.createCategory(categoryDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedCategoryDTO.getVersion())).body(savedCategoryDTO);
+        });
+    }
+
+    @GetMapping("/public/categories/{categoryId}")
+    public ResponseEntity<CategoryDTO> getCategory(@PathVariable Long categoryId, WebRequest request) {
+        CategoryDTO categoryDTO = categoryService.getCategory(categoryId);
+        String eTag = ETags.of(categoryDTO.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(categoryDTO);
     }
 
     @DeleteMapping("/admin/categories/{categoryId}")
     //@RequestMapping(value = "/admin/categories/{categoryId}", method = RequestMethod.DELETE)
-    public ResponseEntity<CategoryDTO> deleteCategory(@PathVariable Long categoryId){
-        CategoryDTO deletedCategory = categoryService.deleteCategory(categoryId);
-        return new ResponseEntity<>(deletedCategory, HttpStatus.OK);
+    public ResponseEntity<CategoryDTO> deleteCategory(@PathVariable Long categoryId,
+                                                      @RequestHeader(name = ResponseReplayCache.IDEMPOTENCY_KEY, required = false) String idempotencyKey){
+        return replayCache.execute(idempotencyKey, "deleteCategory", categoryId, () -> {
+            CategoryDTO deletedCategory = categoryService.deleteCategory(categoryId);
+            return new ResponseEntity<>(deletedCategory, HttpStatus.OK);
+        });
+    }
 
+    @GetMapping("/admin/categories/{categoryId}/purge")
+    public ResponseEntity<JobDTO> getPurgeStatus(@PathVariable Long categoryId) {
+        JobDTO purgeDTO = categoryService.getPurgeStatus(categoryId);
+        return new ResponseEntity<>(purgeDTO, HttpStatus.OK);
     }
 
     @PutMapping("/public/categories/{categoryId}")
     //@RequestMapping(value = "/public/categories/{categoryId}", method = RequestMethod.PUT)
-    public ResponseEntity<CategoryDTO> updateCategory(@Valid @RequestBody CategoryDTO categoryDTO, @PathVariable long categoryId) {
-
-
-            CategoryDTO savedCategoryDTO = categoryService.updateCategory(categoryDTO, categoryId);
-            return new ResponseEntity<>(savedCategoryDTO, HttpStatus.OK);
-
+    public ResponseEntity<CategoryDTO> updateCategory(@Valid @RequestBody CategoryDTO categoryDTO, @PathVariable long categoryId,
+                                                      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @RequestHeader(name = ResponseReplayCache.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return replayCache.execute(idempotencyKey, "updateCategory", Arrays.asList(categoryId, ifMatch, categoryDTO), () -> {
+            CategoryDTO savedCategoryDTO = categoryService.updateCategory(categoryDTO, categoryId, ETags.requiredVersion(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(savedCategoryDTO.getVersion())).body(savedCategoryDTO);
+        });
     }
 }
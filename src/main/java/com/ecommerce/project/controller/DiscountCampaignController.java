@@ -0,0 +1,47 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.DiscountCampaignDTO;
+import com.ecommerce.project.service.DiscountCampaignService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class DiscountCampaignController {
+
+    @Autowired
+    private DiscountCampaignService discountCampaignService;
+
+    @PostMapping("/admin/campaigns")
+    public ResponseEntity<DiscountCampaignDTO> createCampaign(@RequestBody DiscountCampaignDTO campaignDTO) {
+        DiscountCampaignDTO savedCampaignDTO = discountCampaignService.createCampaign(campaignDTO);
+        return new ResponseEntity<>(savedCampaignDTO, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/admin/campaigns")
+    public ResponseEntity<List<DiscountCampaignDTO>> getCampaigns() {
+        List<DiscountCampaignDTO> campaigns = discountCampaignService.getCampaigns();
+        return new ResponseEntity<>(campaigns, HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/campaigns/{campaignId}")
+    public ResponseEntity<DiscountCampaignDTO> getCampaign(@PathVariable Long campaignId) {
+        DiscountCampaignDTO campaignDTO = discountCampaignService.getCampaign(campaignId);
+        return new ResponseEntity<>(campaignDTO, HttpStatus.OK);
+    }
+
+    @PostMapping("/admin/campaigns/{campaignId}/end")
+    public ResponseEntity<DiscountCampaignDTO> endCampaign(@PathVariable Long campaignId) {
+        DiscountCampaignDTO campaignDTO = discountCampaignService.endCampaign(campaignId);
+        return new ResponseEntity<>(campaignDTO, HttpStatus.OK);
+    }
+}
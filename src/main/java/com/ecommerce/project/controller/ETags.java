@@ -0,0 +1,39 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.exceptions.PreconditionFailedException;
+import com.ecommerce.project.exceptions.PreconditionRequiredException;
+
+/**
+ * Strong ETags over entity versions, {@code "3"} for version 3.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The version an If-Match header asks for, or null for {@code *} (any current version).
+     */
+    static Long requiredVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new PreconditionRequiredException("Updates require an If-Match header with the ETag of the resource");
+        }
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        // Weak tags never match for If-Match
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not one of our tags, cannot match
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + value + " does not match the current version");
+    }
+}
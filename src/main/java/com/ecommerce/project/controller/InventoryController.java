@@ -0,0 +1,39 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.ReservationDTO;
+import com.ecommerce.project.service.InventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+public class InventoryController {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @PostMapping("/products/{productId}/reservations")
+    public ResponseEntity<ReservationDTO> reserve(@PathVariable Long productId,
+                                                  @RequestParam(name = "quantity", defaultValue = "1") Integer quantity) {
+        ReservationDTO reservationDTO = inventoryService.reserve(productId, quantity);
+        return new ResponseEntity<>(reservationDTO, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<ReservationDTO> release(@PathVariable String reservationId) {
+        ReservationDTO reservationDTO = inventoryService.release(reservationId);
+        return new ResponseEntity<>(reservationDTO, HttpStatus.OK);
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ResponseEntity<ReservationDTO> commit(@PathVariable String reservationId) {
+        ReservationDTO reservationDTO = inventoryService.commit(reservationId);
+        return new ResponseEntity<>(reservationDTO, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.JobDTO;
+import com.ecommerce.project.service.JobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+public class JobController {
+
+    @Autowired
+    private JobService jobService;
+
+    @GetMapping("/admin/jobs/{jobId}")
+    public ResponseEntity<JobDTO> getJob(@PathVariable Long jobId) {
+        JobDTO jobDTO = jobService.getJob(jobId);
+        return new ResponseEntity<>(jobDTO, HttpStatus.OK);
+    }
+
+    @PostMapping("/admin/jobs/{jobId}/cancel")
+    public ResponseEntity<JobDTO> cancelJob(@PathVariable Long jobId) {
+        JobDTO jobDTO = jobService.cancelJob(jobId);
+        return new ResponseEntity<>(jobDTO, HttpStatus.OK);
+    }
+}
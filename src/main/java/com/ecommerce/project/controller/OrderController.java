@@ -0,0 +1,39 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderRequest;
+import com.ecommerce.project.service.OrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api")
+public class OrderController {
+
+    @Autowired
+    private OrderService orderService;
+
+    // Completes asynchronously once the order's batch has committed; a retry returns the same order
+    @PostMapping("/orders")
+    public CompletableFuture<ResponseEntity<OrderDTO>> placeOrder(@RequestHeader("Idempotency-Key") String idempotencyKey,
+                                                                  @RequestBody OrderRequest orderRequest) {
+        return orderService.placeOrder(idempotencyKey, orderRequest)
+                .thenApply(orderDTO -> new ResponseEntity<>(orderDTO, HttpStatus.CREATED));
+    }
+
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<OrderDTO> getOrder(@PathVariable Long orderId) {
+        OrderDTO orderDTO = orderService.getOrder(orderId);
+        return new ResponseEntity<>(orderDTO, HttpStatus.OK);
+    }
+}
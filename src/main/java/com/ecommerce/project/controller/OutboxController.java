@@ -0,0 +1,31 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.OutboxSubscriberDTO;
+import com.ecommerce.project.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class OutboxController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @GetMapping("/admin/outbox/subscribers")
+    public ResponseEntity<List<OutboxSubscriberDTO>> getSubscribers() {
+        List<OutboxSubscriberDTO> subscribers = outboxService.getSubscribers();
+        return new ResponseEntity<>(subscribers, HttpStatus.OK);
+    }
+
+    @PostMapping("/admin/outbox/subscribers/{subscriber}/replay")
+    public ResponseEntity<OutboxSubscriberDTO> replay(@PathVariable String subscriber,
+                                                      @RequestParam(name = "offset") Long offset) {
+        OutboxSubscriberDTO subscriberDTO = outboxService.replay(subscriber, offset);
+        return new ResponseEntity<>(subscriberDTO, HttpStatus.OK);
+    }
+}
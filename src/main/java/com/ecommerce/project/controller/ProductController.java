@@ -2,16 +2,30 @@ package com.ecommerce.project.controller;
 
 
 import com.ecommerce.project.config.AppConstants;
+import com.ecommerce.project.feed.ProductChangeFeed;
+import com.ecommerce.project.idempotency.ResponseReplayCache;
+import com.ecommerce.project.payload.ProductBatchResponse;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFields;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductFilterResponse;
+import com.ecommerce.project.payload.ProductPatch;
 import com.ecommerce.project.payload.ProductResponse;
 import com.ecommerce.project.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api")
@@ -20,12 +34,36 @@ public class ProductController {
     @Autowired
     ProductService productService;
 
+    @Autowired
+    ResponseReplayCache replayCache;
+
+    @Autowired
+    ProductChangeFeed productChangeFeed;
 
     @PostMapping("/admin/categories/{categoryId}/product")
-    public ResponseEntity<ProductDTO> addProduct(@RequestBody ProductDTO productDTO, @PathVariable Long categoryId) {
+    public ResponseEntity<ProductDTO> addProduct(@RequestBody ProductDTO productDTO, @PathVariable Long categoryId,
+                                                 @RequestHeader(name = ResponseReplayCache.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return replayCache.execute(idempotencyKey, "addProduct", Arrays.asList(categoryId, productDTO), () -> {
+            ProductDTO savedproductDTO = productService.addProduct(categoryId, productDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedproductDTO.getVersion())).body(savedproductDTO);
+        });
+    }
+
+    @GetMapping("/public/products/{productId}")
+    public ResponseEntity<ProductDTO> getProduct(@PathVariable Long productId,
+                                                 @RequestParam(name = "fields", required = false) String fields,
+                                                 WebRequest request) {
+        ProductDTO productDTO = productService.getProduct(productId, ProductFields.parse(fields));
+        String eTag = ETags.of(productDTO.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productDTO);
+    }
 
-        ProductDTO savedproductDTO = productService.addProduct(categoryId, productDTO);
-        return new ResponseEntity<>(savedproductDTO, HttpStatus.CREATED);
+    @GetMapping(value = "/public/products/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getProductChanges(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return productChangeFeed.subscribe(lastEventId);
     }
 
     @GetMapping("/public/products")
@@ -33,8 +71,9 @@ public class ProductController {
             @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
             @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-            @RequestParam(name = "sortDir", defaultValue = AppConstants.SORT_DIR, required = false) String sortDir){
-          ProductResponse productResponse = productService.getAllProducts(pageNumber, pageSize, sortBy, sortDir);
+            @RequestParam(name = "sortDir", defaultValue = AppConstants.SORT_DIR, required = false) String sortDir,
+            @RequestParam(name = "fields", required = false) String fields){
+          ProductResponse productResponse = productService.getAllProducts(pageNumber, pageSize, sortBy, sortDir, ProductFields.parse(fields));
           return new ResponseEntity<>(productResponse, HttpStatus.OK);
     }
 
@@ -43,8 +82,9 @@ public class ProductController {
                                                                  @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
                                                                  @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
                                                                  @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-                                                                 @RequestParam(name = "sortDir", defaultValue = AppConstants.SORT_DIR, required = false) String sortDir){
-        ProductResponse productResponse =  productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortDir);
+                                                                 @RequestParam(name = "sortDir", defaultValue = AppConstants.SORT_DIR, required = false) String sortDir,
+                                                                 @RequestParam(name = "fields", required = false) String fields){
+        ProductResponse productResponse =  productService.searchByCategory(categoryId, pageNumber, pageSize, sortBy, sortDir, ProductFields.parse(fields));
         return new ResponseEntity<>(productResponse, HttpStatus.OK);
     }
 
@@ -53,27 +93,71 @@ public class ProductController {
                                                                @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
                                                                @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
                                                                @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_PRODUCTS_BY, required = false) String sortBy,
-                                                               @RequestParam(name = "sortDir", defaultValue = AppConstants.SORT_DIR, required = false) String sortDir){
-          ProductResponse productResponse = productService.searchProductByKeyword(keyword, pageNumber, pageSize, sortBy, sortDir);
+                                                               @RequestParam(name = "sortDir", defaultValue = AppConstants.SORT_DIR, required = false) String sortDir,
+                                                               @RequestParam(name = "fields", required = false) String fields){
+          ProductResponse productResponse = productService.searchProductByKeyword(keyword, pageNumber, pageSize, sortBy, sortDir, ProductFields.parse(fields));
           return new ResponseEntity<>(productResponse,HttpStatus.FOUND);
     }
 
+    @GetMapping("/public/products/filter")
+    public ResponseEntity<ProductFilterResponse> filterProducts(
+            @RequestParam(name = "categoryId", required = false) List<Long> categoryIds,
+            @RequestParam(name = "price", required = false) List<String> priceRanges,
+            @RequestParam(name = "discount", required = false) List<String> discountRanges,
+            @RequestParam(name = "inStock", required = false) Boolean inStock,
+            @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER, required = false) Integer pageNumber,
+            @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = "fields", required = false) String fields){
+        ProductFilter filter = new ProductFilter(categoryIds, priceRanges, discountRanges, inStock);
+        ProductFilterResponse filterResponse = productService.filterProducts(filter, pageNumber, pageSize, ProductFields.parse(fields));
+        return new ResponseEntity<>(filterResponse, HttpStatus.OK);
+    }
+
     @PutMapping("/admin/products/{productId}")
-    public ResponseEntity<ProductDTO> updateProduct(@RequestBody ProductDTO productDTO, @PathVariable Long productId) {
-        ProductDTO updatedProductDTO =  productService.updateProduct(productDTO, productId);
-        return new ResponseEntity<>(updatedProductDTO, HttpStatus.OK);
+    public ResponseEntity<ProductDTO> updateProduct(@RequestBody ProductDTO productDTO, @PathVariable Long productId,
+                                                    @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @RequestHeader(name = ResponseReplayCache.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        // A retry carries the If-Match of the first attempt and gets its response, not a 412
+        return replayCache.execute(idempotencyKey, "updateProduct", Arrays.asList(productId, ifMatch, productDTO), () -> {
+            ProductDTO updatedProductDTO =  productService.updateProduct(productDTO, productId, ETags.requiredVersion(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedProductDTO.getVersion())).body(updatedProductDTO);
+        });
+    }
+
+    @PatchMapping("/admin/products")
+    public ResponseEntity<ProductBatchResponse> updateProducts(@RequestBody List<ProductPatch> patches,
+                                                               @RequestHeader(name = ResponseReplayCache.IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return replayCache.execute(idempotencyKey, "updateProducts", patches, () -> {
+            ProductBatchResponse batchResponse = productService.updateProducts(patches);
+            return new ResponseEntity<>(batchResponse, HttpStatus.OK);
+        });
     }
 
     @DeleteMapping("/admin/products/{productId}")
-    public ResponseEntity<ProductDTO> deleteProduct(@PathVariable Long productId){
-        ProductDTO deletedProduct = productService.deleteProduct(productId);
-        return new ResponseEntity<>(deletedProduct, HttpStatus.OK);
+    public ResponseEntity<ProductDTO> deleteProduct(@PathVariable Long productId,
+                                                    @RequestHeader(name = ResponseReplayCache.IDEMPOTENCY_KEY, required = false) String idempotencyKey){
+        return replayCache.execute(idempotencyKey, "deleteProduct", productId, () -> {
+            ProductDTO deletedProduct = productService.deleteProduct(productId);
+            return new ResponseEntity<>(deletedProduct, HttpStatus.OK);
+        });
     }
 
     @PutMapping("/products/{productId}/image")
-    public ResponseEntity<ProductDTO> updateProductImage(@PathVariable Long productId, @RequestParam("image")MultipartFile image) throws IOException {
-        ProductDTO updatedProductDTO = productService.updateProductImage(productId, image);
-        return new ResponseEntity<>(updatedProductDTO, HttpStatus.OK);
+    public ResponseEntity<ProductDTO> updateProductImage(@PathVariable Long productId, @RequestParam("image")MultipartFile image,
+                                                         @RequestHeader(name = ResponseReplayCache.IDEMPOTENCY_KEY, required = false) String idempotencyKey) throws IOException {
+        Object request = idempotencyKey == null ? null : Arrays.asList(productId, image.getOriginalFilename(), image.getBytes());
+        try {
+            return replayCache.execute(idempotencyKey, "updateProductImage", request, () -> {
+                try {
+                    ProductDTO updatedProductDTO = productService.updateProductImage(productId, image);
+                    return new ResponseEntity<>(updatedProductDTO, HttpStatus.OK);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
 }
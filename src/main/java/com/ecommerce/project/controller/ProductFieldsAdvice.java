@@ -0,0 +1,37 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.ProductFields;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Writes only the products' requested {@code fields} in responses of {@link ProductController}, the way
+ * {@code @JsonView} narrows a response. Page and facet properties around the products are kept.
+ */
+@ControllerAdvice(assignableTypes = ProductController.class)
+public class ProductFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        // Already validated by the handler
+        ProductFields fields = ProductFields.parse(servletRequest.getServletRequest().getParameter("fields"));
+        if (fields != null) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(ProductFields.FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields.names()))
+                    .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+        }
+    }
+}
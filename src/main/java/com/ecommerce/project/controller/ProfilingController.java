@@ -0,0 +1,72 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.RecordingDTO;
+import com.ecommerce.project.service.ProfilingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api")
+public class ProfilingController {
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @PostMapping("/admin/profiling/recording/start")
+    public ResponseEntity<RecordingDTO> startRecording(
+            @RequestParam(name = "maxAgeSeconds", required = false) Long maxAgeSeconds,
+            @RequestParam(name = "maxSizeMb", required = false) Long maxSizeMb,
+            @RequestParam(name = "settings", defaultValue = "default", required = false) String settings) {
+        RecordingDTO recordingDTO = profilingService.startRecording(maxAgeSeconds, maxSizeMb, settings);
+        return new ResponseEntity<>(recordingDTO, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/admin/profiling/recording/stop")
+    public ResponseEntity<RecordingDTO> stopRecording() {
+        RecordingDTO recordingDTO = profilingService.stopRecording();
+        return new ResponseEntity<>(recordingDTO, HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/profiling/recording")
+    public ResponseEntity<RecordingDTO> getRecording() {
+        RecordingDTO recordingDTO = profilingService.getRecording();
+        return new ResponseEntity<>(recordingDTO, HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/profiling/recording/dump")
+    public ResponseEntity<StreamingResponseBody> dumpRecording() throws IOException {
+        Path file = profilingService.dumpRecording();
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sb-ecom.jfr\"")
+                .contentLength(size)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+}
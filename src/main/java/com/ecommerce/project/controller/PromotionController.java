@@ -0,0 +1,58 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.PromotionDTO;
+import com.ecommerce.project.payload.QuoteRequest;
+import com.ecommerce.project.payload.QuoteResponse;
+import com.ecommerce.project.service.PromotionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class PromotionController {
+
+    @Autowired
+    private PromotionService promotionService;
+
+    @PostMapping("/admin/promotions")
+    public ResponseEntity<PromotionDTO> createPromotion(@RequestBody PromotionDTO promotionDTO) {
+        PromotionDTO savedPromotionDTO = promotionService.createPromotion(promotionDTO);
+        return new ResponseEntity<>(savedPromotionDTO, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/admin/promotions")
+    public ResponseEntity<List<PromotionDTO>> getPromotions() {
+        List<PromotionDTO> promotions = promotionService.getPromotions();
+        return new ResponseEntity<>(promotions, HttpStatus.OK);
+    }
+
+    @PutMapping("/admin/promotions/{promotionId}")
+    public ResponseEntity<PromotionDTO> updatePromotion(@RequestBody PromotionDTO promotionDTO,
+                                                        @PathVariable Long promotionId) {
+        PromotionDTO updatedPromotionDTO = promotionService.updatePromotion(promotionDTO, promotionId);
+        return new ResponseEntity<>(updatedPromotionDTO, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/admin/promotions/{promotionId}")
+    public ResponseEntity<PromotionDTO> deletePromotion(@PathVariable Long promotionId) {
+        PromotionDTO deletedPromotionDTO = promotionService.deletePromotion(promotionId);
+        return new ResponseEntity<>(deletedPromotionDTO, HttpStatus.OK);
+    }
+
+    @PostMapping("/public/quote")
+    public ResponseEntity<QuoteResponse> quote(@RequestBody QuoteRequest quoteRequest) {
+        QuoteResponse quoteResponse = promotionService.quote(quoteRequest);
+        return new ResponseEntity<>(quoteResponse, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.config.AppConstants;
+import com.ecommerce.project.payload.SuggestionDTO;
+import com.ecommerce.project.service.SuggestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class SuggestController {
+
+    @Autowired
+    private SuggestService suggestService;
+
+    @GetMapping("/public/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam(name = "q") String query,
+                                                       @RequestParam(name = "limit", defaultValue = AppConstants.SUGGEST_LIMIT, required = false) Integer limit) {
+        List<SuggestionDTO> suggestions = suggestService.suggest(query, limit);
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.project.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
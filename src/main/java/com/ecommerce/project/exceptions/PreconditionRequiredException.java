@@ -0,0 +1,10 @@
+package com.ecommerce.project.exceptions;
+
+public class PreconditionRequiredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
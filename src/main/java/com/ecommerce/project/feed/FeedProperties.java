@@ -0,0 +1,33 @@
+package com.ecommerce.project.feed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Product change feed settings, bound from {@code project.feed.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.feed")
+public class FeedProperties {
+
+    // Events kept for Last-Event-ID resumes and slow subscribers, a power of two
+    private int bufferSize = 4096;
+
+    // Changes to one product within this window go out as one event
+    private long coalesceMs = 250;
+
+    // Open streams at most, further subscribers are turned away
+    private int maxSubscribers = 1000;
+
+    // Threads writing to subscribers; a slow one only holds up its own stream
+    private int senderThreads = 4;
+
+    // A subscriber whose delivery is still being written after this long is dropped and its sender replaced
+    private long sendTimeoutMs = 5_000;
+
+    // Comment sent on idle streams so dead connections are noticed
+    private long heartbeatMs = 15_000;
+
+    // Streams are closed after this long, clients reconnect with Last-Event-ID
+    private long streamTimeoutMs = 30 * 60_000;
+}
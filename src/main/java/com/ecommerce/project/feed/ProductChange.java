@@ -0,0 +1,46 @@
+package com.ecommerce.project.feed;
+
+import com.ecommerce.project.model.Product;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Price and stock state of a product after a change. Fields that did not change are null, a deleted product only
+ * carries its id.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductChange(Long productId, Double price, Double discount, Double specialPrice, Integer quantity,
+                            Long version, Boolean deleted) {
+
+    public static ProductChange of(Product product) {
+        return new ProductChange(product.getProductId(), product.getPrice(), product.getDiscount(),
+                product.getSpecialPrice(), product.getQuantity(), product.getVersion(), null);
+    }
+
+    public static ProductChange specialPrice(Long productId, double specialPrice) {
+        return new ProductChange(productId, null, null, specialPrice, null, null, null);
+    }
+
+    public static ProductChange stock(Long productId, long quantity) {
+        return new ProductChange(productId, null, null, null, (int) Math.min(Integer.MAX_VALUE, quantity), null, null);
+    }
+
+    public static ProductChange deleted(Long productId) {
+        return new ProductChange(productId, null, null, null, null, null, true);
+    }
+
+    /**
+     * This change followed by a later one to the same product.
+     */
+    ProductChange then(ProductChange later) {
+        if (Boolean.TRUE.equals(later.deleted) || Boolean.TRUE.equals(deleted)) {
+            return later;
+        }
+        return new ProductChange(productId,
+                later.price != null ? later.price : price,
+                later.discount != null ? later.discount : discount,
+                later.specialPrice != null ? later.specialPrice : specialPrice,
+                later.quantity != null ? later.quantity : quantity,
+                later.version != null ? later.version : version,
+                null);
+    }
+}
@@ -0,0 +1,344 @@
+package com.ecommerce.project.feed;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process bus for product price and stock changes, streamed to subscribers as server-sent events.
+ * <p>
+ * Published changes wait in a map keyed by product for {@code coalesceMs}, so a burst of updates to one product goes
+ * out as a single event. Events are numbered and kept in a ring of the last {@code bufferSize}; every subscriber is
+ * only a cursor into that ring, written to by a small sender pool with at most one delivery per subscriber in flight.
+ * Publishers therefore never wait for subscribers. A subscriber that falls a whole ring behind, or resumes from an
+ * event no longer in the ring, gets a {@code reset} event and continues from the newest one; it has to reload the
+ * products it shows.
+ * <p>
+ * A subscriber whose delivery is still being written after {@code sendTimeoutMs} is dropped, and an extra sender
+ * stands in for the blocked one until the write returns; the stream is then completed and the client resumes with
+ * Last-Event-ID. Clients that stop reading thus cannot hold up the others.
+ * <p>
+ * Event ids are {@code <epoch>:<sequence>}, the epoch changing with every start, so a Last-Event-ID from before a
+ * restart is recognised as unknown.
+ */
+@Component
+@EnableConfigurationProperties(FeedProperties.class)
+public class ProductChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    // Events sent in one delivery before the sender moves on to other subscribers
+    private static final int MAX_EVENTS_PER_DELIVERY = 256;
+
+    @Autowired
+    private FeedProperties properties;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // productId -> changes not yet numbered, merged
+    private final Map<Long, ProductChange> pending = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private Event[] ring;
+    private int mask;
+
+    // Sequence of the newest event in the ring, 0 before the first one
+    private volatile long newest;
+
+    private ScheduledExecutorService flusher;
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    public void start() {
+        int size = properties.getBufferSize();
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("project.feed.buffer-size must be a power of two, was " + size);
+        }
+        ring = new Event[size];
+        mask = size - 1;
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-feed-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, properties.getCoalesceMs(), properties.getCoalesceMs(),
+                TimeUnit.MILLISECONDS);
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(1, properties.getSenderThreads());
+        senders = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-feed-send-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public void publish(ProductChange change) {
+        pending.merge(change.productId(), change, ProductChange::then);
+    }
+
+    /**
+     * Publishes once the current transaction commits, so subscribers never see a change that is rolled back.
+     */
+    public void publishAfterCommit(ProductChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(change);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<ProductChange> changes = (List<ProductChange>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            // One synchronization per transaction, however many products it changes
+            List<ProductChange> collected = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, collected);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeFeed.this);
+                    if (status == STATUS_COMMITTED) {
+                        collected.forEach(ProductChangeFeed.this::publish);
+                    }
+                }
+            });
+            changes = collected;
+        }
+        changes.add(change);
+    }
+
+    /**
+     * Opens a stream of the changes after {@code lastEventId}, or of new changes only when it is null.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(properties.getStreamTimeoutMs()), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers");
+        }
+        long current = newest;
+        Subscriber subscriber = new Subscriber(emitter, current);
+        if (lastEventId != null) {
+            long resumeAfter = sequenceOf(lastEventId);
+            if (resumeAfter >= 0 && resumeAfter <= current && resumeAfter >= current - ring.length) {
+                subscriber.cursor = resumeAfter;
+            } else {
+                subscriber.reset = true;
+            }
+        }
+        // Commits the response at once instead of with the first change
+        subscriber.heartbeat = true;
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // Runs on the flusher thread only, the single writer of the ring
+    private void flush() {
+        try {
+            if (!pending.isEmpty()) {
+                for (Long productId : pending.keySet()) {
+                    ProductChange change = pending.remove(productId);
+                    if (change != null) {
+                        long sequence = newest + 1;
+                        ring[(int) (sequence & mask)] = new Event(sequence, change);
+                        newest = sequence;
+                    }
+                }
+                subscribers.forEach(this::schedule);
+            }
+            long now = System.nanoTime();
+            long idleSince = now - TimeUnit.MILLISECONDS.toNanos(properties.getHeartbeatMs());
+            long stalledSince = now - TimeUnit.MILLISECONDS.toNanos(properties.getSendTimeoutMs());
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.dropIfStalled(stalledSince)) {
+                    logger.warn("Dropped a change feed subscriber, its delivery was pending for over {} ms",
+                            properties.getSendTimeoutMs());
+                    close(subscriber);
+                    resizeSenders(1);
+                } else if (subscriber.lastSentAt < idleSince) {
+                    subscriber.heartbeat = true;
+                    schedule(subscriber);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Publishing product changes failed", e);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> deliver(subscriber));
+        }
+    }
+
+    private void deliver(Subscriber subscriber) {
+        subscriber.startDelivery();
+        try {
+            if (subscriber.reset) {
+                subscriber.reset = false;
+                resetTo(subscriber, newest);
+            }
+            int sent = 0;
+            while (subscriber.cursor < newest && sent < MAX_EVENTS_PER_DELIVERY) {
+                long next = subscriber.cursor + 1;
+                Event event = ring[(int) (next & mask)];
+                // Overwritten while this subscriber was behind
+                if (event == null || event.sequence() != next) {
+                    resetTo(subscriber, newest);
+                    continue;
+                }
+                send(subscriber, SseEmitter.event().id(id(next)).name("product")
+                        .data(event.change(), MediaType.APPLICATION_JSON));
+                subscriber.cursor = next;
+                sent++;
+            }
+            if (sent > 0) {
+                subscriber.lastSentAt = System.nanoTime();
+            } else if (subscriber.heartbeat) {
+                send(subscriber, SseEmitter.event().comment("heartbeat"));
+                subscriber.lastSentAt = System.nanoTime();
+            }
+            subscriber.heartbeat = false;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, the container completes the emitter
+            close(subscriber);
+            return;
+        } finally {
+            if (subscriber.endDelivery()) {
+                // Not completed by the container, the client only reconnects once the stream is ended here
+                subscriber.emitter.complete();
+                resizeSenders(-1);
+            }
+            subscriber.scheduled.set(false);
+        }
+        if ((subscriber.cursor < newest || subscriber.reset) && !subscriber.closed) {
+            schedule(subscriber);
+        }
+    }
+
+    private void resetTo(Subscriber subscriber, long sequence) throws IOException {
+        send(subscriber, SseEmitter.event().id(id(sequence)).name("reset").data("{}", MediaType.APPLICATION_JSON));
+        subscriber.cursor = sequence;
+    }
+
+    // Once the container has completed an emitter its response may already serve another request, so nothing may be
+    // written to it any more
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        if (subscriber.closed) {
+            throw new IOException("Subscriber closed");
+        }
+        subscriber.emitter.send(event);
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    // Shrinking waits for a sender to go idle, growing starts one for the queued deliveries at once
+    private synchronized void resizeSenders(int delta) {
+        int size = senders.getCorePoolSize() + delta;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    private String id(long sequence) {
+        return epoch + ":" + sequence;
+    }
+
+    // -1 for ids of another epoch or that are not ours
+    private long sequenceOf(String eventId) {
+        int separator = eventId.indexOf(':');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Event(long sequence, ProductChange change) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // Sequence of the last event sent, only touched by the delivery in flight
+        volatile long cursor;
+        volatile boolean reset;
+        volatile boolean heartbeat;
+        volatile boolean closed;
+        volatile long lastSentAt = System.nanoTime();
+        // Guarded by this
+        private boolean delivering;
+        private long deliveringSince;
+        private boolean dropped;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        synchronized void startDelivery() {
+            delivering = true;
+            deliveringSince = System.nanoTime();
+        }
+
+        // True when the delivery was dropped while it was pending
+        synchronized boolean endDelivery() {
+            delivering = false;
+            return dropped;
+        }
+
+        synchronized boolean dropIfStalled(long stalledSince) {
+            if (!delivering || dropped || deliveringSince - stalledSince >= 0) {
+                return false;
+            }
+            dropped = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.project.generator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Size and shape of the synthetic data set, bound from {@code project.generator.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.generator")
+public class DataGeneratorProperties {
+    private int categories = 200;
+    private long products = 100_000;
+    private int users = 1_000;
+
+    // Share of users that are also sellers; every product is listed by one of them
+    private double sellerRatio = 0.05;
+
+    // Zipf exponent of the category sizes, 0 spreads products evenly
+    private double categorySkew = 1.1;
+
+    private int maxAddressesPerUser = 2;
+
+    // Every generated user logs in with this password
+    private String password = "password";
+
+    private int batchSize = 5_000;
+    private long seed = 42;
+
+    // Stop the application once the data is written, for use as a command line tool
+    private boolean exitWhenDone = false;
+}
@@ -0,0 +1,324 @@
+package com.ecommerce.project.generator;
+
+import com.ecommerce.project.model.AppRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the database with a large synthetic catalog and user base for scale testing, activated by the
+ * {@code generate-data} profile:
+ * <pre>
+ * java -jar sb-ecom.jar --spring.profiles.active=generate-data --project.generator.products=10000000
+ * </pre>
+ * Rows are appended after the ids already present and written with batched JDBC, one transaction per batch,
+ * so memory use does not grow with the data set. Runs before the in-memory indexes load on ApplicationReadyEvent.
+ */
+@Component
+@Profile("generate-data")
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] DEPARTMENTS = {"Electronics", "Home", "Kitchen", "Garden", "Sports", "Toys",
+            "Books", "Fashion", "Beauty", "Automotive", "Office", "Pets", "Health", "Music", "Outdoors", "Baby"};
+    private static final String[] SECTIONS = {"Essentials", "Accessories", "Premium", "Deals", "Classics", "Gear",
+            "Basics", "Pro", "Kids", "Travel", "Smart", "Vintage"};
+    private static final String[] BRANDS = {"Acme", "Northwind", "Globex", "Initech", "Umbrella", "Stark", "Wayne",
+            "Contoso", "Fabrikam", "Tailspin", "Litware", "Proseware", "Adatum", "Wingtip", "Lucerne", "Humongous"};
+    private static final String[] ADJECTIVES = {"Wireless", "Smart", "Compact", "Premium", "Classic", "Portable",
+            "Ultra", "Eco", "Deluxe", "Mini", "Heavy Duty", "Foldable", "Ergonomic", "Waterproof", "Digital", "Organic"};
+    private static final String[] NOUNS = {"Phone", "Speaker", "Kettle", "Backpack", "Lamp", "Watch", "Blender",
+            "Headphones", "Chair", "Jacket", "Camera", "Drill", "Mug", "Tent", "Keyboard", "Bottle", "Charger",
+            "Sneakers", "Pillow", "Monitor", "Toaster", "Router", "Grill", "Stroller"};
+    private static final String[] COLORS = {"Black", "White", "Silver", "Blue", "Red", "Green", "Grey", "Gold"};
+    private static final String[] CITIES = {"Mumbai", "Pune", "Delhi", "Bengaluru", "Chennai", "Kolkata",
+            "Hyderabad", "Jaipur", "Austin", "Seattle", "Berlin", "Madrid", "Toronto", "Sydney", "Dublin", "Lisbon"};
+    private static final String[] STATES = {"MH", "DL", "KA", "TN", "WB", "TS", "RJ", "TX", "WA", "BE", "MD", "ON"};
+    private static final String[] COUNTRIES = {"India", "USA", "Germany", "Spain", "Canada", "Australia", "Ireland"};
+    private static final String[] STREETS = {"Main Street", "Station Road", "Park Avenue", "Lake View Road",
+            "Market Lane", "Church Street", "Hill Road", "Ring Road"};
+
+    private static final int[] DISCOUNTS = {5, 10, 15, 20, 25, 30, 40, 50};
+
+    @Autowired
+    private DataGeneratorProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(String... args) {
+        if (properties.getProducts() > 0 && properties.getCategories() <= 0) {
+            throw new IllegalStateException("project.generator.categories must be positive to generate products");
+        }
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+
+        Map<AppRole, Integer> roleIds = ensureRoles();
+        long firstCategoryId = nextId("select max(category_id) from categories");
+        long firstUserId = nextId("select max(user_id) from users");
+        long firstAddressId = nextId("select max(address_id) from addresses");
+        long firstProductId = nextId("select max(product_id) from products");
+
+        generateCategories(firstCategoryId);
+        long[] sellerIds = generateUsers(firstUserId, firstAddressId, roleIds, random.split());
+        Map<String, String> productIndexes = dropProductIndexes();
+        try {
+            generateProducts(firstProductId, firstCategoryId, sellerIds, random.split());
+        } finally {
+            createIndexes(productIndexes);
+        }
+
+        // Explicit ids bypass the generators, move them past the new rows
+        jdbcTemplate.execute("alter table categories alter column category_id restart with "
+                + nextId("select max(category_id) from categories"));
+        jdbcTemplate.execute("alter table users alter column user_id restart with "
+                + nextId("select max(user_id) from users"));
+        jdbcTemplate.execute("alter table addresses alter column address_id restart with "
+                + nextId("select max(address_id) from addresses"));
+        // products_seq hands out blocks of 50 ending at the returned value
+        jdbcTemplate.execute("alter sequence products_seq restart with "
+                + (nextId("select max(product_id) from products") + 100));
+
+        logger.info("Generated {} categories, {} users and {} products in {}s", properties.getCategories(),
+                properties.getUsers(), properties.getProducts(), (System.nanoTime() - started) / 1_000_000_000);
+
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private void generateCategories(long firstId) {
+        String[] names = new String[properties.getCategories()];
+        for (int i = 0; i < names.length; i++) {
+            int series = i / (DEPARTMENTS.length * SECTIONS.length);
+            names[i] = DEPARTMENTS[i % DEPARTMENTS.length] + " " + SECTIONS[(i / DEPARTMENTS.length) % SECTIONS.length]
+                    + (series > 0 ? " " + (series + 1) : "");
+        }
+        insert("categories", "insert into categories (category_id, category_name) values (?, ?)", names.length,
+                (ps, i) -> {
+                    ps.setLong(1, firstId + i);
+                    ps.setString(2, names[(int) i]);
+                });
+    }
+
+    private long[] generateUsers(long firstUserId, long firstAddressId, Map<AppRole, Integer> roleIds,
+                                 SplittableRandom random) {
+        int users = properties.getUsers();
+        // BCrypt is deliberately slow, all users share one hash
+        String passwordHash = passwordEncoder.encode(properties.getPassword());
+        int sellerCount = (int) Math.ceil(users * properties.getSellerRatio());
+        long[] sellerIds = new long[Math.min(sellerCount, users)];
+        for (int i = 0; i < sellerIds.length; i++) {
+            sellerIds[i] = firstUserId + i;
+        }
+
+        insert("users", "insert into users (user_id, username, email, password) values (?, ?, ?, ?)", users,
+                (ps, i) -> {
+                    long userId = firstUserId + i;
+                    ps.setLong(1, userId);
+                    ps.setString(2, "gen" + userId);
+                    ps.setString(3, "gen" + userId + "@example.com");
+                    ps.setString(4, passwordHash);
+                });
+
+        insert("user roles", "insert into user_role (user_id, role_id) values (?, ?)", users + sellerIds.length,
+                (ps, i) -> {
+                    boolean seller = i >= users;
+                    ps.setLong(1, firstUserId + (seller ? i - users : i));
+                    ps.setInt(2, roleIds.get(seller ? AppRole.ROLE_SELLER : AppRole.ROLE_USER));
+                });
+
+        // Users get between 0 and maxAddressesPerUser addresses, addressOwners[k] is the owner of address k
+        int[] addressCounts = random.ints(users, 0, properties.getMaxAddressesPerUser() + 1).toArray();
+        long[] addressOwners = new long[Arrays.stream(addressCounts).sum()];
+        for (int user = 0, k = 0; user < users; user++) {
+            for (int a = 0; a < addressCounts[user]; a++) {
+                addressOwners[k++] = firstUserId + user;
+            }
+        }
+        insert("addresses", "insert into addresses (address_id, street, building, city, state, country, pincode) "
+                + "values (?, ?, ?, ?, ?, ?, ?)", addressOwners.length, (ps, i) -> {
+            ps.setLong(1, firstAddressId + i);
+            ps.setString(2, (1 + random.nextInt(300)) + " " + pick(random, STREETS));
+            ps.setString(3, "Building " + (1 + random.nextInt(90)));
+            ps.setString(4, pick(random, CITIES));
+            ps.setString(5, pick(random, STATES));
+            ps.setString(6, pick(random, COUNTRIES));
+            ps.setString(7, String.valueOf(100_000 + random.nextInt(900_000)));
+        });
+        insert("user addresses", "insert into user_address (user_id, address_id) values (?, ?)", addressOwners.length,
+                (ps, i) -> {
+                    ps.setLong(1, addressOwners[(int) i]);
+                    ps.setLong(2, firstAddressId + i);
+                });
+        return sellerIds;
+    }
+
+    private void generateProducts(long firstProductId, long firstCategoryId, long[] sellerIds, SplittableRandom random) {
+        CategorySampler categories = new CategorySampler(properties.getCategories(), properties.getCategorySkew(),
+                random.split());
+        insert("products", "insert into products (product_id, product_name, description, image, quantity, price, "
+                + "discount, special_price, category_id, seller_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                properties.getProducts(), (ps, i) -> {
+                    String brand = pick(random, BRANDS);
+                    String noun = pick(random, NOUNS);
+                    // Log-normal prices: many cheap products, a long tail of expensive ones
+                    double price = Math.min(10_000, Math.max(1, Math.round(Math.exp(3.7 + 1.1 * random.nextGaussian()))) - 0.01);
+                    double discount = random.nextInt(10) < 6 ? 0 : DISCOUNTS[random.nextInt(DISCOUNTS.length)];
+                    int quantity = random.nextInt(10) == 0 ? 0 : 1 + (int) Math.min(500, -Math.log(1 - random.nextDouble()) * 40);
+
+                    ps.setLong(1, firstProductId + i);
+                    ps.setString(2, brand + " " + pick(random, ADJECTIVES) + " " + noun + " " + pick(random, COLORS));
+                    ps.setString(3, "The " + noun.toLowerCase() + " from " + brand + ", model "
+                            + Long.toString(firstProductId + i, 36).toUpperCase());
+                    ps.setString(4, "default.png");
+                    ps.setInt(5, quantity);
+                    ps.setDouble(6, price);
+                    ps.setDouble(7, discount);
+                    ps.setDouble(8, price - ((discount * 0.01) * price));
+                    ps.setLong(9, firstCategoryId + categories.next());
+                    if (sellerIds.length == 0) {
+                        ps.setNull(10, Types.BIGINT);
+                    } else {
+                        ps.setLong(10, sellerIds[random.nextInt(sellerIds.length)]);
+                    }
+                });
+    }
+
+    private Map<AppRole, Integer> ensureRoles() {
+        Map<AppRole, Integer> roleIds = new HashMap<>();
+        for (AppRole role : AppRole.values()) {
+            jdbcTemplate.update("insert into roles (role_name) select cast(? as varchar(20)) where not exists "
+                    + "(select 1 from roles where role_name = ?)", role.name(), role.name());
+            roleIds.put(role, jdbcTemplate.queryForObject("select min(role_id) from roles where role_name = ?",
+                    Integer.class, role.name()));
+        }
+        return roleIds;
+    }
+
+    /**
+     * Drops the secondary indexes from db/migration on products, maintaining them row by row costs far more than
+     * building them once after the load. Returns the dropped index definitions by name.
+     */
+    private Map<String, String> dropProductIndexes() {
+        Map<String, String> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query("select index_name, column_name from information_schema.index_columns "
+                + "where table_name = 'PRODUCTS' and index_name like 'IDX\\_PRODUCTS\\_%' "
+                + "order by index_name, ordinal_position", rs -> {
+            indexes.merge(rs.getString("index_name"), rs.getString("column_name"), (a, b) -> a + ", " + b);
+        });
+        indexes.keySet().forEach(index -> jdbcTemplate.execute("drop index " + index));
+        return indexes;
+    }
+
+    private void createIndexes(Map<String, String> indexes) {
+        indexes.forEach((index, columns) -> {
+            long started = System.nanoTime();
+            jdbcTemplate.execute("create index " + index + " on products (" + columns + ")");
+            logger.info("Rebuilt index {} in {}ms", index, (System.nanoTime() - started) / 1_000_000);
+        });
+    }
+
+    private long nextId(String maxQuery) {
+        Long max = jdbcTemplate.queryForObject(maxQuery, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private void insert(String what, String sql, long rows, RowWriter writer) {
+        int batchSize = properties.getBatchSize();
+        long started = System.nanoTime();
+        for (long offset = 0; offset < rows; offset += batchSize) {
+            long batchStart = offset;
+            int size = (int) Math.min(batchSize, rows - offset);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql,
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            writer.write(ps, batchStart + i);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return size;
+                        }
+                    }));
+            long written = offset + size;
+            if (written % (batchSize * 100L) == 0 || written == rows) {
+                double seconds = Math.max(1, System.nanoTime() - started) / 1e9;
+                logger.info("Inserted {}/{} {} ({} rows/s)", written, rows, what, (long) (written / seconds));
+            }
+        }
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement ps, long row) throws SQLException;
+    }
+
+    /**
+     * Draws category offsets with Zipf distributed sizes. Ranks are shuffled so the large categories are not
+     * simply the first ids.
+     */
+    private static class CategorySampler {
+        private final double[] cumulative;
+        private final int[] categoryOfRank;
+        private final SplittableRandom random;
+
+        CategorySampler(int categories, double skew, SplittableRandom random) {
+            this.random = random;
+            cumulative = new double[categories];
+            double total = 0;
+            for (int rank = 0; rank < categories; rank++) {
+                total += 1 / Math.pow(rank + 1, skew);
+                cumulative[rank] = total;
+            }
+            categoryOfRank = new int[categories];
+            for (int i = 0; i < categories; i++) {
+                int j = random.nextInt(i + 1);
+                categoryOfRank[i] = categoryOfRank[j];
+                categoryOfRank[j] = i;
+            }
+        }
+
+        int next() {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int rank = Arrays.binarySearch(cumulative, target);
+            return categoryOfRank[rank < 0 ? -rank - 1 : rank];
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.project.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Response replay settings for the catalog write endpoints, bound from {@code project.idempotency.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.idempotency")
+public class IdempotencyProperties {
+
+    // How long a completed response is replayed for its key
+    private long ttlSeconds = 3600;
+
+    // Keys remembered at most, the oldest completed ones are dropped first
+    private int maxEntries = 10_000;
+}
@@ -0,0 +1,199 @@
+package com.ecommerce.project.idempotency;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.IdempotencyKeyReusedException;
+import com.ecommerce.project.security.services.UserDetailsImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per {@code Idempotency-Key}. The first request executes; duplicates arriving while it
+ * runs wait for its outcome, later ones get its response replayed with an {@code Idempotent-Replayed} header until
+ * the entry expires. Only successful responses are kept, a failed write may be retried with the same key.
+ * <p>
+ * Keys are scoped by the signed-in user, or by the client address for anonymous requests, so callers picking the
+ * same key never see each other's responses. Within its scope a key belongs to one operation and request: reusing
+ * it for anything else is rejected with {@link IdempotencyKeyReusedException}.
+ * <p>
+ * When {@code maxEntries} are held the oldest completed entry makes room. A write still running is never dropped,
+ * since a duplicate would then run it again; when all entries are running the write is refused with a 503.
+ */
+@Component
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class ResponseReplayCache {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // scope and key -> first execution, oldest first
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Executes the write, or answers with the outcome of the first execution under the same key. Without a key the
+     * write simply runs.
+     *
+     * @param operation names the endpoint, the same key on another endpoint counts as reuse
+     * @param request   everything the write depends on, compared by its JSON form
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String operation, Object request,
+                                         Supplier<ResponseEntity<T>> write) {
+        if (idempotencyKey == null) {
+            return write.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new APIException(IDEMPOTENCY_KEY + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(operation, request);
+        String scopedKey = scope() + " " + idempotencyKey;
+
+        CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+        Entry first;
+        synchronized (entries) {
+            long now = System.nanoTime();
+            expire(now);
+            first = entries.get(scopedKey);
+            if (first == null) {
+                if (entries.size() >= properties.getMaxEntries() && !evictCompleted()) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Too many writes in progress, please retry shortly");
+                }
+                entries.put(scopedKey, new Entry(fingerprint, result, now));
+            }
+        }
+        if (first != null) {
+            if (!first.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            return (ResponseEntity<T>) replay(first.result());
+        }
+
+        try {
+            ResponseEntity<T> response = write.get();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                forget(scopedKey, result);
+            }
+            result.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            forget(scopedKey, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Duplicates see the first execution's exception as if they had run it
+    private static ResponseEntity<?> replay(CompletableFuture<ResponseEntity<?>> first) {
+        ResponseEntity<?> response;
+        try {
+            response = first.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(headers -> {
+                    headers.addAll(response.getHeaders());
+                    headers.set(REPLAYED, "true");
+                })
+                .body(response.getBody());
+    }
+
+    private void forget(String scopedKey, CompletableFuture<ResponseEntity<?>> result) {
+        synchronized (entries) {
+            Entry entry = entries.get(scopedKey);
+            if (entry != null && entry.result() == result) {
+                entries.remove(scopedKey);
+            }
+        }
+    }
+
+    // Drops the oldest completed entry, false when every entry is still running
+    private boolean evictCompleted() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().result().isDone()) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String scope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getPrincipal() instanceof UserDetailsImpl user
+                    ? "user:" + user.getId()
+                    : "user:" + authentication.getName();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return "client:" + attributes.getRequest().getRemoteAddr();
+        }
+        return "";
+    }
+
+    // Entries are in insertion order, so the expired ones are at the head
+    private void expire(long now) {
+        long ttlNanos = properties.getTtlSeconds() * 1_000_000_000L;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (now - entry.createdAt() < ttlNanos) {
+                return;
+            }
+            // A write still running keeps its key however long it takes
+            if (entry.result().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<ResponseEntity<?>> result, long createdAt) {
+    }
+}
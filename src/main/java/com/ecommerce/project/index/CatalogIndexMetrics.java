@@ -0,0 +1,39 @@
+package com.ecommerce.project.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entry counts of the in-memory catalog indexes, so a drift from the database or a failed load shows up as a gauge.
+ */
+@Component
+public class CatalogIndexMetrics implements MeterBinder {
+
+    @Autowired
+    private CategoryProductIndex categoryProductIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.index.entries", categoryProductIndex, CategoryProductIndex::size)
+                .tag("index", "category")
+                .description("Products in the per-category ordering index")
+                .register(registry);
+        Gauge.builder("catalog.index.entries", productFacetIndex, ProductFacetIndex::size)
+                .tag("index", "facet")
+                .description("Products in the facet bitmap index")
+                .register(registry);
+        Gauge.builder("catalog.index.entries", suggestIndex, SuggestIndex::size)
+                .tag("index", "suggest")
+                .description("Terms in the typeahead snapshot")
+                .register(registry);
+    }
+}
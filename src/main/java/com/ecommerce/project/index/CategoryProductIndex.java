@@ -0,0 +1,161 @@
+package com.ecommerce.project.index;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Per-category product ordering by productId, price, specialPrice and discount.
+ * <p>
+ * Loaded once the application is ready and then maintained by the product writes in the service layer. A write
+ * made inside a transaction is applied once that transaction commits, so a rolled back change never shows up.
+ * Reads are lock-free. Writes to one category are serialized by the map; writes to different categories run
+ * in parallel and only the load excludes them, so a write racing the load is never lost.
+ * Until the load finishes {@link #page} returns {@code null} and callers fall back to the database.
+ */
+@Component
+public class CategoryProductIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryProductIndex.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private volatile Map<Long, CategorySlice> slices = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    // Writes share it, the load takes it exclusively
+    private final ReadWriteLock loadLock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        loadLock.writeLock().lock();
+        try {
+            List<ProductIndexRow> rows = productRepository.findIndexRows();
+            Map<Long, List<ProductIndexRow>> byCategory = rows.stream()
+                    .collect(Collectors.groupingBy(ProductIndexRow::getCategoryId));
+
+            Map<Long, CategorySlice> rebuilt = new ConcurrentHashMap<>(byCategory.size());
+            byCategory.forEach((categoryId, categoryRows) -> rebuilt.put(categoryId, CategorySlice.build(categoryRows)));
+
+            slices = rebuilt;
+            ready = true;
+            logger.info("Category product index loaded {} products in {} categories", rows.size(), rebuilt.size());
+        } finally {
+            loadLock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(Product product) {
+        ProductIndexRow row = ProductIndexRow.of(product);
+        if (row.getCategoryId() == null) {
+            return;
+        }
+        write(() -> slices.compute(row.getCategoryId(),
+                (categoryId, slice) -> (slice == null ? CategorySlice.EMPTY : slice).with(row)));
+    }
+
+    /**
+     * Applies a batch of writes with one slice update per category instead of one per product.
+     */
+    public void upsertAll(Collection<Product> products) {
+        Map<Long, List<ProductIndexRow>> byCategory = products.stream()
+                .map(ProductIndexRow::of)
+                .filter(row -> row.getCategoryId() != null)
+                .collect(Collectors.groupingBy(ProductIndexRow::getCategoryId));
+        write(() -> byCategory.forEach((categoryId, rows) -> slices.compute(categoryId,
+                (id, slice) -> (slice == null ? CategorySlice.EMPTY : slice).withAll(rows))));
+    }
+
+    /**
+     * Reloads the rows {@code loader} returns, such as the products a campaign just repriced. Writes wait for the
+     * load, so none of them is overwritten by an older row; reads carry on. Returns the rows.
+     */
+    public List<ProductIndexRow> reload(Supplier<List<ProductIndexRow>> loader) {
+        loadLock.writeLock().lock();
+        try {
+            List<ProductIndexRow> rows = loader.get();
+            rows.stream()
+                    .filter(row -> row.getCategoryId() != null)
+                    .collect(Collectors.groupingBy(ProductIndexRow::getCategoryId))
+                    .forEach((categoryId, categoryRows) -> slices.compute(categoryId,
+                            (id, slice) -> (slice == null ? CategorySlice.EMPTY : slice).withAll(categoryRows)));
+            return rows;
+        } finally {
+            loadLock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Product product) {
+        if (product.getCategory() == null) {
+            return;
+        }
+        Long categoryId = product.getCategory().getCategoryId();
+        Long productId = product.getProductId();
+        write(() -> slices.computeIfPresent(categoryId, (id, slice) -> slice.without(productId)));
+    }
+
+    public void removeCategory(Long categoryId) {
+        write(() -> slices.remove(categoryId));
+    }
+
+    private void write(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(update);
+            }
+        });
+    }
+
+    private void apply(Runnable update) {
+        loadLock.readLock().lock();
+        try {
+            update.run();
+        } finally {
+            loadLock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        return slices.values().stream().mapToLong(CategorySlice::size).sum();
+    }
+
+    /**
+     * Returns the requested page of product ids, or {@code null} when the index cannot answer the request
+     * (not loaded yet, or the sort field is not one of {@link ProductSortKey}).
+     */
+    public IndexedPage page(Long categoryId, String sortBy, boolean ascending, int pageNumber, int pageSize) {
+        ProductSortKey key = ProductSortKey.fromField(sortBy);
+        if (!ready || key == null) {
+            return null;
+        }
+        CategorySlice slice = slices.getOrDefault(categoryId, CategorySlice.EMPTY);
+        long offset = (long) pageNumber * pageSize;
+        long[] ids = offset > Integer.MAX_VALUE
+                ? new long[0]
+                : slice.page(key, ascending, (int) offset, pageSize);
+        return new IndexedPage(ids, slice.size());
+    }
+}
@@ -0,0 +1,423 @@
+package com.ecommerce.project.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of one category's products kept as primitive arrays.
+ * <p>
+ * The slice is a compacted {@code base} plus a small delta: the base products that were deleted or replaced
+ * since ({@code hidden}, with their position in every ordering) and the rows written since ({@code added}).
+ * A write copies only the delta; once the delta grows past about the square root of the base it is merged in
+ * a single linear pass. Pages merge the two runs on the fly. Readers never see a partial update.
+ */
+final class CategorySlice {
+
+    private static final ProductSortKey[] KEYS = ProductSortKey.values();
+
+    private static final int ID = ProductSortKey.PRODUCT_ID.ordinal();
+
+    // Smallest delta worth keeping; below it a compaction costs about as much as the delta copy
+    private static final int MIN_DELTA = 64;
+
+    static final CategorySlice EMPTY = build(List.of());
+
+    private final Run base;
+    private final long[] hidden;
+    private final int[][] hiddenPositions;
+    private final Run added;
+
+    private CategorySlice(Run base, long[] hidden, int[][] hiddenPositions, Run added) {
+        this.base = base;
+        this.hidden = hidden;
+        this.hiddenPositions = hiddenPositions;
+        this.added = added;
+    }
+
+    static CategorySlice build(List<ProductIndexRow> rows) {
+        return new CategorySlice(Run.build(rows), new long[0], new int[KEYS.length][0], Run.EMPTY);
+    }
+
+    int size() {
+        return base.size() - hidden.length + added.size();
+    }
+
+    CategorySlice with(ProductIndexRow row) {
+        CategorySlice slice = without(row.getProductId());
+        return new CategorySlice(slice.base, slice.hidden, slice.hiddenPositions,
+                slice.added.insert(row.getProductId(), valuesOf(row))).compactIfLarge();
+    }
+
+    /**
+     * Applies a batch of writes. Small batches go through {@link #with}; larger ones hide every replaced
+     * product at once and compact a single time, so the category arrays are copied once per batch.
+     */
+    CategorySlice withAll(List<ProductIndexRow> rows) {
+        if (rows.size() < deltaLimit()) {
+            CategorySlice slice = this;
+            for (ProductIndexRow row : rows) {
+                slice = slice.with(row);
+            }
+            return slice;
+        }
+
+        Map<Long, ProductIndexRow> batch = new LinkedHashMap<>();
+        rows.forEach(row -> batch.put(row.getProductId(), row));
+        List<ProductIndexRow> addedRows = new ArrayList<>(batch.values());
+        for (int i = 0; i < added.size(); i++) {
+            if (!batch.containsKey(added.ids[i])) {
+                addedRows.add(added.row(i));
+            }
+        }
+        long[] replaced = batch.keySet().stream()
+                .mapToLong(Long::longValue)
+                .filter(id -> Arrays.binarySearch(base.ids, id) >= 0 && Arrays.binarySearch(hidden, id) < 0)
+                .toArray();
+        long[] newHidden = Arrays.copyOf(hidden, hidden.length + replaced.length);
+        System.arraycopy(replaced, 0, newHidden, hidden.length, replaced.length);
+        Arrays.sort(newHidden);
+
+        int[][] positions = new int[KEYS.length][newHidden.length];
+        for (int j = 0; j < newHidden.length; j++) {
+            int pos = Arrays.binarySearch(base.ids, newHidden[j]);
+            for (int k = 0; k < KEYS.length; k++) {
+                positions[k][j] = base.position(k, pos);
+            }
+        }
+        for (int[] keyPositions : positions) {
+            Arrays.sort(keyPositions);
+        }
+        return new CategorySlice(base, newHidden, positions, Run.build(addedRows)).compact();
+    }
+
+    CategorySlice without(long id) {
+        int addedPos = Arrays.binarySearch(added.ids, id);
+        if (addedPos >= 0) {
+            return new CategorySlice(base, hidden, hiddenPositions, added.remove(addedPos));
+        }
+        int pos = Arrays.binarySearch(base.ids, id);
+        int hiddenPos = Arrays.binarySearch(hidden, id);
+        if (pos < 0 || hiddenPos >= 0) {
+            return this;
+        }
+
+        int[][] positions = new int[KEYS.length][];
+        for (int k = 0; k < KEYS.length; k++) {
+            int orderedPos = base.position(k, pos);
+            positions[k] = insert(hiddenPositions[k], -Arrays.binarySearch(hiddenPositions[k], orderedPos) - 1, orderedPos);
+        }
+        return new CategorySlice(base, insert(hidden, -hiddenPos - 1, id), positions, added).compactIfLarge();
+    }
+
+    /**
+     * Returns the ids of one page in the requested order. Runs in O(limit) plus a search over the delta.
+     */
+    long[] page(ProductSortKey key, boolean ascending, int offset, int limit) {
+        int n = size();
+        if (offset >= n || limit <= 0) {
+            return new long[0];
+        }
+        int length = Math.min(limit, n - offset);
+        Cursor cursor = new Cursor(key.ordinal(), ascending ? offset : n - offset - length);
+        long[] page = new long[length];
+        for (int i = 0; i < length; i++) {
+            page[ascending ? i : length - 1 - i] = cursor.next();
+        }
+        return page;
+    }
+
+    private int deltaLimit() {
+        return Math.max(MIN_DELTA, (int) Math.sqrt(base.size()));
+    }
+
+    private CategorySlice compactIfLarge() {
+        return hidden.length + added.size() > deltaLimit() ? compact() : this;
+    }
+
+    // Merges the delta into a new base, one linear pass per ordering
+    private CategorySlice compact() {
+        int n = size();
+        long[][] orderedIds = new long[KEYS.length][n];
+        double[][] orderedValues = new double[KEYS.length][];
+        double[][] values = new double[KEYS.length][];
+        for (int k = 0; k < KEYS.length; k++) {
+            if (k != ID) {
+                values[k] = new double[n];
+                orderedValues[k] = new double[n];
+            }
+        }
+        for (int k = 0; k < KEYS.length; k++) {
+            Cursor cursor = new Cursor(k, 0);
+            for (int i = 0; i < n; i++) {
+                orderedIds[k][i] = cursor.next();
+                if (k != ID) {
+                    orderedValues[k][i] = cursor.value();
+                    continue;
+                }
+                for (int key = 0; key < KEYS.length; key++) {
+                    if (key != ID) {
+                        values[key][i] = cursor.valueOf(key);
+                    }
+                }
+            }
+        }
+        return new CategorySlice(new Run(orderedIds[ID], values, orderedIds, orderedValues),
+                new long[0], new int[KEYS.length][0], Run.EMPTY);
+    }
+
+    private static double[] valuesOf(ProductIndexRow row) {
+        double[] values = new double[KEYS.length];
+        values[ProductSortKey.PRICE.ordinal()] = row.getPrice();
+        values[ProductSortKey.SPECIAL_PRICE.ordinal()] = row.getSpecialPrice();
+        values[ProductSortKey.DISCOUNT.ordinal()] = row.getDiscount();
+        return values;
+    }
+
+    /**
+     * Walks the visible products of one ordering, merging the base (minus hidden positions) with the added run.
+     */
+    private final class Cursor {
+
+        private final int k;
+        private final int[] skipped;
+        private int b;
+        private int h;
+        private int a;
+        private boolean fromAdded;
+        private int last;
+
+        Cursor(int k, int rank) {
+            this.k = k;
+            this.skipped = hiddenPositions[k];
+            // Smallest number of added entries before the rank whose next one sorts after the base entries taken
+            int low = Math.max(0, rank - (base.size() - skipped.length));
+            int high = Math.min(added.size(), rank);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, basePosition(rank - mid - 1)) > 0) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            a = low;
+            b = basePosition(rank - low);
+            h = b - (rank - low);
+        }
+
+        long next() {
+            while (h < skipped.length && skipped[h] == b) {
+                b++;
+                h++;
+            }
+            fromAdded = b == base.size() || (a < added.size() && compare(a, b) < 0);
+            last = fromAdded ? a++ : b++;
+            return (fromAdded ? added : base).orderedIds[k][last];
+        }
+
+        double value() {
+            return (fromAdded ? added : base).value(k, last);
+        }
+
+        // Only meaningful when walking PRODUCT_ID, where positions line up with the per-id values
+        double valueOf(int key) {
+            return (fromAdded ? added : base).values[key][last];
+        }
+
+        // Position in the base of the j-th visible base entry
+        private int basePosition(int j) {
+            int pos = j;
+            for (int skip : skipped) {
+                if (skip > pos) {
+                    break;
+                }
+                pos++;
+            }
+            return pos;
+        }
+
+        private int compare(int addedPos, int basePos) {
+            int cmp = Double.compare(added.value(k, addedPos), base.value(k, basePos));
+            return cmp != 0 ? cmp : Long.compare(added.orderedIds[k][addedPos], base.orderedIds[k][basePos]);
+        }
+    }
+
+    /**
+     * Sorted arrays for a set of products: {@code ids} ascending with {@code values[k]} at the same position,
+     * and for every key the ids ordered by (value, productId). PRODUCT_ID has no values and is ordered by ids.
+     */
+    private static final class Run {
+
+        static final Run EMPTY = build(List.of());
+
+        final long[] ids;
+        final double[][] values;
+        final long[][] orderedIds;
+        final double[][] orderedValues;
+
+        Run(long[] ids, double[][] values, long[][] orderedIds, double[][] orderedValues) {
+            this.ids = ids;
+            this.values = values;
+            this.orderedIds = orderedIds;
+            this.orderedValues = orderedValues;
+        }
+
+        static Run build(List<ProductIndexRow> rows) {
+            ProductIndexRow[] sorted = rows.toArray(new ProductIndexRow[0]);
+            Arrays.sort(sorted, Comparator.comparingLong(ProductIndexRow::getProductId));
+
+            int n = sorted.length;
+            long[] ids = new long[n];
+            double[][] values = new double[KEYS.length][];
+            for (int k = 0; k < KEYS.length; k++) {
+                values[k] = k == ID ? null : new double[n];
+            }
+            for (int i = 0; i < n; i++) {
+                ids[i] = sorted[i].getProductId();
+                double[] rowValues = valuesOf(sorted[i]);
+                for (int k = 0; k < KEYS.length; k++) {
+                    if (k != ID) {
+                        values[k][i] = rowValues[k];
+                    }
+                }
+            }
+
+            long[][] orderedIds = new long[KEYS.length][];
+            double[][] orderedValues = new double[KEYS.length][];
+            orderedIds[ID] = ids;
+            for (int k = 0; k < KEYS.length; k++) {
+                if (k == ID) {
+                    continue;
+                }
+                double[] keyValues = values[k];
+                Integer[] positions = new Integer[n];
+                for (int i = 0; i < n; i++) {
+                    positions[i] = i;
+                }
+                // ids are already ascending, so a stable sort on the value keeps productId as the tie-breaker
+                Arrays.sort(positions, Comparator.comparingDouble(i -> keyValues[i]));
+                orderedIds[k] = new long[n];
+                orderedValues[k] = new double[n];
+                for (int i = 0; i < n; i++) {
+                    orderedIds[k][i] = ids[positions[i]];
+                    orderedValues[k][i] = keyValues[positions[i]];
+                }
+            }
+            return new Run(ids, values, orderedIds, orderedValues);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        double value(int k, int i) {
+            return k == ID ? 0 : orderedValues[k][i];
+        }
+
+        // Position in ordering k of the product at ids[pos]
+        int position(int k, int pos) {
+            return k == ID ? pos : lowerBound(k, values[k][pos], ids[pos]);
+        }
+
+        ProductIndexRow row(int pos) {
+            return new ProductIndexRow(ids[pos], null, values[ProductSortKey.PRICE.ordinal()][pos],
+                    values[ProductSortKey.SPECIAL_PRICE.ordinal()][pos], values[ProductSortKey.DISCOUNT.ordinal()][pos], null);
+        }
+
+        Run insert(long id, double[] rowValues) {
+            int pos = -Arrays.binarySearch(ids, id) - 1;
+            double[][] newValues = new double[KEYS.length][];
+            long[][] newOrderedIds = new long[KEYS.length][];
+            double[][] newOrderedValues = new double[KEYS.length][];
+            newOrderedIds[ID] = CategorySlice.insert(ids, pos, id);
+            for (int k = 0; k < KEYS.length; k++) {
+                if (k == ID) {
+                    continue;
+                }
+                newValues[k] = CategorySlice.insert(values[k], pos, rowValues[k]);
+                int orderedPos = lowerBound(k, rowValues[k], id);
+                newOrderedIds[k] = CategorySlice.insert(orderedIds[k], orderedPos, id);
+                newOrderedValues[k] = CategorySlice.insert(orderedValues[k], orderedPos, rowValues[k]);
+            }
+            return new Run(newOrderedIds[ID], newValues, newOrderedIds, newOrderedValues);
+        }
+
+        Run remove(int pos) {
+            double[][] newValues = new double[KEYS.length][];
+            long[][] newOrderedIds = new long[KEYS.length][];
+            double[][] newOrderedValues = new double[KEYS.length][];
+            newOrderedIds[ID] = CategorySlice.remove(ids, pos);
+            for (int k = 0; k < KEYS.length; k++) {
+                if (k == ID) {
+                    continue;
+                }
+                int orderedPos = lowerBound(k, values[k][pos], ids[pos]);
+                newValues[k] = CategorySlice.remove(values[k], pos);
+                newOrderedIds[k] = CategorySlice.remove(orderedIds[k], orderedPos);
+                newOrderedValues[k] = CategorySlice.remove(orderedValues[k], orderedPos);
+            }
+            return new Run(newOrderedIds[ID], newValues, newOrderedIds, newOrderedValues);
+        }
+
+        // First position in ordering k whose (value, id) is not less than the given pair
+        private int lowerBound(int k, double value, long id) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Double.compare(value(k, mid), value);
+                if (cmp == 0) {
+                    cmp = Long.compare(orderedIds[k][mid], id);
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static long[] insert(long[] source, int pos, long value) {
+        long[] target = new long[source.length + 1];
+        System.arraycopy(source, 0, target, 0, pos);
+        target[pos] = value;
+        System.arraycopy(source, pos, target, pos + 1, source.length - pos);
+        return target;
+    }
+
+    private static int[] insert(int[] source, int pos, int value) {
+        int[] target = new int[source.length + 1];
+        System.arraycopy(source, 0, target, 0, pos);
+        target[pos] = value;
+        System.arraycopy(source, pos, target, pos + 1, source.length - pos);
+        return target;
+    }
+
+    private static double[] insert(double[] source, int pos, double value) {
+        double[] target = new double[source.length + 1];
+        System.arraycopy(source, 0, target, 0, pos);
+        target[pos] = value;
+        System.arraycopy(source, pos, target, pos + 1, source.length - pos);
+        return target;
+    }
+
+    private static long[] remove(long[] source, int pos) {
+        long[] target = new long[source.length - 1];
+        System.arraycopy(source, 0, target, 0, pos);
+        System.arraycopy(source, pos + 1, target, pos, source.length - pos - 1);
+        return target;
+    }
+
+    private static double[] remove(double[] source, int pos) {
+        double[] target = new double[source.length - 1];
+        System.arraycopy(source, 0, target, 0, pos);
+        System.arraycopy(source, pos + 1, target, pos, source.length - pos - 1);
+        return target;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.project.index;
+
+/**
+ * Fixed numeric ranges used as facet values, e.g. {@code 25-50} or {@code 1000+}.
+ * Each range includes its lower edge and excludes its upper edge; values below the first edge land in the first range.
+ */
+public final class FacetBuckets {
+
+    public static final FacetBuckets PRICE = new FacetBuckets(0, 25, 50, 100, 250, 500, 1000);
+    public static final FacetBuckets DISCOUNT = new FacetBuckets(0, 10, 25, 50);
+
+    private final double[] edges;
+    private final String[] labels;
+
+    private FacetBuckets(double... edges) {
+        this.edges = edges;
+        this.labels = new String[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            labels[i] = i + 1 < edges.length
+                    ? format(edges[i]) + "-" + format(edges[i + 1])
+                    : format(edges[i]) + "+";
+        }
+    }
+
+    public int size() {
+        return edges.length;
+    }
+
+    public int bucketOf(double value) {
+        int bucket = 0;
+        while (bucket + 1 < edges.length && value >= edges[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    public String label(int bucket) {
+        return labels[bucket];
+    }
+
+    /**
+     * Returns the bucket for a label, or -1 when the label is not one of this facet's ranges.
+     */
+    public int indexOf(String label) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equals(label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String format(double edge) {
+        return edge == Math.rint(edge) ? String.valueOf((long) edge) : String.valueOf(edge);
+    }
+}
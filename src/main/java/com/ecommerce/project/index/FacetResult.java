@@ -0,0 +1,17 @@
+package com.ecommerce.project.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * A page of matching product ids together with the per-facet counts of the whole result.
+ */
+@Getter
+@AllArgsConstructor
+public class FacetResult {
+    private final long[] productIds;
+    private final long totalElements;
+    private final Map<String, Map<String, Integer>> facets;
+}
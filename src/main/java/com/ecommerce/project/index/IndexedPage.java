@@ -0,0 +1,14 @@
+package com.ecommerce.project.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of product ids answered from an in-memory index, plus the total size of the result.
+ */
+@Getter
+@AllArgsConstructor
+public class IndexedPage {
+    private final long[] productIds;
+    private final long totalElements;
+}
@@ -0,0 +1,387 @@
+package com.ecommerce.project.index;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.repository.ProductRepository;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Bitmap indexes over category, price range, discount range and stock.
+ * <p>
+ * Every product gets a dense ordinal (assigned in productId order on load, then appended), and each facet value
+ * keeps a RoaringBitmap of the ordinals that carry it. A filter is answered by OR-ing the selected values of a facet
+ * and AND-ing the facets; facet counts are the cardinality of each value intersected with all the other facets'
+ * selections, so a selected value does not zero out its siblings. Results page in productId order. The special price
+ * and stock of every product are kept alongside, so callers can validate against them without a query. Writes made
+ * inside a transaction are applied once it commits, so carts never validate against a rolled back price or stock.
+ */
+@Component
+public class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String PRICE = "price";
+    public static final String DISCOUNT = "discount";
+    public static final String IN_STOCK = "inStock";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Writes share it, a partial reload takes it exclusively while it queries
+    private final ReentrantReadWriteLock reloadLock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    // Everything below is guarded by lock
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] productIds = new long[1024];
+    private long[] categoryOf = new long[1024];
+    private byte[] priceBucketOf = new byte[1024];
+    private byte[] discountBucketOf = new byte[1024];
+    private double[] specialPriceOf = new double[1024];
+    private long[] quantityOf = new long[1024];
+    private int nextOrdinal;
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final RoaringBitmap[] byPrice = newBitmaps(FacetBuckets.PRICE.size());
+    private final RoaringBitmap[] byDiscount = newBitmaps(FacetBuckets.DISCOUNT.size());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            // Loaded under the write lock so a product write racing the load is applied after it, not lost
+            List<ProductIndexRow> rows = new ArrayList<>(productRepository.findIndexRows());
+            rows.sort(Comparator.comparing(ProductIndexRow::getProductId));
+
+            ordinals.clear();
+            nextOrdinal = 0;
+            all.clear();
+            inStock.clear();
+            byCategory.clear();
+            Arrays.stream(byPrice).forEach(RoaringBitmap::clear);
+            Arrays.stream(byDiscount).forEach(RoaringBitmap::clear);
+            rows.forEach(this::index);
+            ready = true;
+            logger.info("Product facet index loaded {} products", rows.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads the rows {@code loader} returns, such as the products a campaign just repriced. The query runs with
+     * writes held off but reads going on, so carts only wait while the rows are indexed. Returns the rows.
+     */
+    public List<ProductIndexRow> reload(Supplier<List<ProductIndexRow>> loader) {
+        reloadLock.writeLock().lock();
+        try {
+            List<ProductIndexRow> rows = loader.get();
+            lock.writeLock().lock();
+            try {
+                rows.stream().filter(row -> row.getCategoryId() != null).forEach(this::index);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return rows;
+        } finally {
+            reloadLock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(Product product) {
+        ProductIndexRow row = ProductIndexRow.of(product);
+        if (row.getCategoryId() == null) {
+            return;
+        }
+        write(() -> index(row));
+    }
+
+    public void remove(Product product) {
+        Long productId = product.getProductId();
+        write(() -> {
+            Integer ordinal = ordinals.remove(productId);
+            if (ordinal != null) {
+                unindex(ordinal);
+            }
+        });
+    }
+
+    public void removeCategory(Long categoryId) {
+        write(() -> {
+            RoaringBitmap members = byCategory.remove(categoryId);
+            if (members != null) {
+                members.forEach((int ordinal) -> {
+                    ordinals.remove(productIds[ordinal]);
+                    unindex(ordinal);
+                });
+            }
+        });
+    }
+
+    // Stock changes that bypass the entity only update the quantity and the inStock bitmap
+    public void updateStock(Long productId, long available) {
+        write(() -> {
+            Integer ordinal = ordinals.get(productId);
+            if (ordinal == null) {
+                return;
+            }
+            quantityOf[ordinal] = available;
+            if (available > 0) {
+                inStock.add(ordinal);
+            } else {
+                inStock.remove(ordinal);
+            }
+        });
+    }
+
+    private void write(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(update);
+            }
+        });
+    }
+
+    private void apply(Runnable update) {
+        reloadLock.readLock().lock();
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the special price and stock of a product, or {@code null} when it is not indexed.
+     */
+    public ProductOffer offer(Long productId) {
+        if (!ready) {
+            throw new APIException("Product index is still loading, please retry shortly");
+        }
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(productId);
+            return ordinal == null ? null : new ProductOffer(productId, specialPriceOf[ordinal], quantityOf[ordinal]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return all.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FacetResult filter(ProductFilter filter, int pageNumber, int pageSize) {
+        int[] priceBuckets = bucketsOf(FacetBuckets.PRICE, filter.getPriceRanges(), PRICE);
+        int[] discountBuckets = bucketsOf(FacetBuckets.DISCOUNT, filter.getDiscountRanges(), DISCOUNT);
+        if (!ready) {
+            throw new APIException("Product filter index is still loading, please retry shortly");
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap categoryClause = filter.getCategoryIds() == null || filter.getCategoryIds().isEmpty()
+                    ? null
+                    : RoaringBitmap.or(filter.getCategoryIds().stream()
+                            .map(categoryId -> byCategory.getOrDefault(categoryId, new RoaringBitmap()))
+                            .iterator());
+            RoaringBitmap priceClause = union(byPrice, priceBuckets);
+            RoaringBitmap discountClause = union(byDiscount, discountBuckets);
+            RoaringBitmap stockClause = filter.getInStock() == null
+                    ? null
+                    : filter.getInStock() ? inStock : RoaringBitmap.andNot(all, inStock);
+
+            RoaringBitmap matches = intersect(categoryClause, priceClause, discountClause, stockClause);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+
+            RoaringBitmap categoryBase = intersect(priceClause, discountClause, stockClause);
+            Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+            byCategory.forEach((categoryId, members) -> {
+                int count = RoaringBitmap.andCardinality(members, categoryBase);
+                if (count > 0) {
+                    categoryCounts.put(String.valueOf(categoryId), count);
+                }
+            });
+            facets.put(CATEGORY, categoryCounts);
+
+            facets.put(PRICE, bucketCounts(FacetBuckets.PRICE, byPrice,
+                    intersect(categoryClause, discountClause, stockClause)));
+            facets.put(DISCOUNT, bucketCounts(FacetBuckets.DISCOUNT, byDiscount,
+                    intersect(categoryClause, priceClause, stockClause)));
+
+            RoaringBitmap stockBase = intersect(categoryClause, priceClause, discountClause);
+            int inStockCount = RoaringBitmap.andCardinality(inStock, stockBase);
+            Map<String, Integer> stockCounts = new LinkedHashMap<>();
+            stockCounts.put("true", inStockCount);
+            stockCounts.put("false", stockBase.getCardinality() - inStockCount);
+            facets.put(IN_STOCK, stockCounts);
+
+            return new FacetResult(page(matches, pageNumber, pageSize), matches.getCardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(ProductIndexRow row) {
+        Integer existing = ordinals.get(row.getProductId());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            unindex(ordinal);
+        } else {
+            ordinal = nextOrdinal++;
+            ensureCapacity(ordinal + 1);
+            ordinals.put(row.getProductId(), ordinal);
+        }
+
+        productIds[ordinal] = row.getProductId();
+        categoryOf[ordinal] = row.getCategoryId();
+        priceBucketOf[ordinal] = (byte) FacetBuckets.PRICE.bucketOf(row.getPrice());
+        discountBucketOf[ordinal] = (byte) FacetBuckets.DISCOUNT.bucketOf(row.getDiscount());
+        specialPriceOf[ordinal] = row.getSpecialPrice();
+        quantityOf[ordinal] = row.getQuantity() == null ? 0 : row.getQuantity();
+
+        all.add(ordinal);
+        if (row.getQuantity() != null && row.getQuantity() > 0) {
+            inStock.add(ordinal);
+        }
+        byCategory.computeIfAbsent(row.getCategoryId(), categoryId -> new RoaringBitmap()).add(ordinal);
+        byPrice[priceBucketOf[ordinal]].add(ordinal);
+        byDiscount[discountBucketOf[ordinal]].add(ordinal);
+    }
+
+    private void unindex(int ordinal) {
+        all.remove(ordinal);
+        inStock.remove(ordinal);
+        RoaringBitmap category = byCategory.get(categoryOf[ordinal]);
+        if (category != null) {
+            category.remove(ordinal);
+            if (category.isEmpty()) {
+                byCategory.remove(categoryOf[ordinal]);
+            }
+        }
+        byPrice[priceBucketOf[ordinal]].remove(ordinal);
+        byDiscount[discountBucketOf[ordinal]].remove(ordinal);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= productIds.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, newLength);
+        categoryOf = Arrays.copyOf(categoryOf, newLength);
+        priceBucketOf = Arrays.copyOf(priceBucketOf, newLength);
+        discountBucketOf = Arrays.copyOf(discountBucketOf, newLength);
+        specialPriceOf = Arrays.copyOf(specialPriceOf, newLength);
+        quantityOf = Arrays.copyOf(quantityOf, newLength);
+    }
+
+    private long[] page(RoaringBitmap matches, int pageNumber, int pageSize) {
+        long offset = (long) pageNumber * pageSize;
+        int total = matches.getCardinality();
+        if (offset >= total || pageSize <= 0) {
+            return new long[0];
+        }
+        int length = (int) Math.min(pageSize, total - offset);
+        long[] page = new long[length];
+        PeekableIntIterator iterator = matches.getIntIterator();
+        iterator.advanceIfNeeded(matches.select((int) offset));
+        for (int i = 0; i < length; i++) {
+            page[i] = productIds[iterator.next()];
+        }
+        return page;
+    }
+
+    // Intersection of all with every non-null clause
+    private RoaringBitmap intersect(RoaringBitmap... clauses) {
+        RoaringBitmap result = all.clone();
+        for (RoaringBitmap clause : clauses) {
+            if (clause != null) {
+                result.and(clause);
+            }
+        }
+        return result;
+    }
+
+    private static RoaringBitmap union(RoaringBitmap[] bitmaps, int[] buckets) {
+        if (buckets.length == 0) {
+            return null;
+        }
+        RoaringBitmap result = new RoaringBitmap();
+        for (int bucket : buckets) {
+            result.or(bitmaps[bucket]);
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> bucketCounts(FacetBuckets buckets, RoaringBitmap[] bitmaps, RoaringBitmap base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < buckets.size(); bucket++) {
+            counts.put(buckets.label(bucket), RoaringBitmap.andCardinality(bitmaps[bucket], base));
+        }
+        return counts;
+    }
+
+    private static int[] bucketsOf(FacetBuckets buckets, List<String> labels, String facet) {
+        if (labels == null) {
+            return new int[0];
+        }
+        return labels.stream()
+                .mapToInt(label -> {
+                    int bucket = buckets.indexOf(label);
+                    if (bucket < 0) {
+                        throw new APIException("Unknown " + facet + " range: " + label);
+                    }
+                    return bucket;
+                })
+                .toArray();
+    }
+
+    private static RoaringBitmap[] newBitmaps(int count) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new RoaringBitmap();
+        }
+        return bitmaps;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.project.index;
+
+import com.ecommerce.project.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The handful of product columns the in-memory indexes need, loaded without hydrating entities.
+ */
+@Data
+@AllArgsConstructor
+public class ProductIndexRow {
+    private Long productId;
+    private Long categoryId;
+    private double price;
+    private double specialPrice;
+    private double discount;
+    private Integer quantity;
+
+    public static ProductIndexRow of(Product product) {
+        return new ProductIndexRow(product.getProductId(),
+                product.getCategory() == null ? null : product.getCategory().getCategoryId(),
+                product.getPrice(),
+                product.getSpecialPrice(),
+                product.getDiscount(),
+                product.getQuantity());
+    }
+}
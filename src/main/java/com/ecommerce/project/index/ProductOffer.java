@@ -0,0 +1,15 @@
+package com.ecommerce.project.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The price a product currently sells at and the units available, as last indexed.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductOffer {
+    private final Long productId;
+    private final double specialPrice;
+    private final long quantity;
+}
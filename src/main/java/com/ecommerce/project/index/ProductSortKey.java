@@ -0,0 +1,30 @@
+package com.ecommerce.project.index;
+
+/**
+ * Orderings that the in-memory category index can answer without going to the database.
+ */
+public enum ProductSortKey {
+    PRODUCT_ID("productId"),
+    PRICE("price"),
+    SPECIAL_PRICE("specialPrice"),
+    DISCOUNT("discount");
+
+    private final String field;
+
+    ProductSortKey(String field) {
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public static ProductSortKey fromField(String field) {
+        for (ProductSortKey key : values()) {
+            if (key.field.equals(field)) {
+                return key;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.project.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each product is returned by keyword search. Used as the popularity score for suggestions.
+ */
+@Component
+public class SearchPopularity {
+
+    private final Map<Long, LongAdder> hits = new ConcurrentHashMap<>();
+
+    private volatile boolean changed;
+
+    public void record(Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            hits.computeIfAbsent(productId, id -> new LongAdder()).increment();
+        }
+        if (!productIds.isEmpty()) {
+            changed = true;
+        }
+    }
+
+    public long hits(Long productId) {
+        LongAdder adder = hits.get(productId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public void forget(Long productId) {
+        hits.remove(productId);
+    }
+
+    /**
+     * Returns whether any hit was recorded since the last call.
+     */
+    boolean consumeChanged() {
+        boolean wasChanged = changed;
+        changed = false;
+        return wasChanged;
+    }
+}
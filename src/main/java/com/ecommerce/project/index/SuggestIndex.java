@@ -0,0 +1,97 @@
+package com.ecommerce.project.index;
+
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typeahead over product and category names.
+ * <p>
+ * The {@link SuggestSnapshot} is rebuilt on the scheduler thread whenever the catalog changed, and only rescored
+ * in memory when just the search popularity changed. Either way it is published with a single volatile write,
+ * so lookups never wait on a rebuild.
+ */
+@Component
+public class SuggestIndex {
+
+    public static final String PRODUCT = "product";
+    public static final String CATEGORY = "category";
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestIndex.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SearchPopularity searchPopularity;
+
+    private volatile SuggestSnapshot snapshot = SuggestSnapshot.EMPTY;
+
+    private volatile boolean dirty = true;
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    @Scheduled(fixedDelayString = "${project.suggest.refresh-ms}")
+    public void refresh() {
+        boolean popularityChanged = searchPopularity.consumeChanged();
+        if (!dirty) {
+            if (popularityChanged) {
+                rescore();
+            }
+            return;
+        }
+        // Cleared before reading so a write during the rebuild schedules another one
+        dirty = false;
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            dirty = true;
+            logger.error("Suggest index rebuild failed", e);
+        }
+    }
+
+    // Popularity only changes product scores, which are merged into the current names without reading the catalog
+    synchronized void rescore() {
+        SuggestSnapshot current = snapshot;
+        SuggestSnapshot rescored = current.rescore(entry -> entry.getType().equals(PRODUCT)
+                ? searchPopularity.hits(entry.getId())
+                : entry.getScore());
+        snapshot = rescored;
+        logger.debug("Suggest index rescored, ranking {}", rescored.sharesPrefixes(current) ? "unchanged" : "moved");
+    }
+
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        List<Suggestion> entries = new ArrayList<>();
+        for (SuggestionRow row : categoryRepository.findSuggestionRows()) {
+            entries.add(new Suggestion(row.getName(), CATEGORY, row.getId(), row.getWeight()));
+        }
+        for (SuggestionRow row : productRepository.findSuggestionRows()) {
+            entries.add(new Suggestion(row.getName(), PRODUCT, row.getId(), searchPopularity.hits(row.getId())));
+        }
+        SuggestSnapshot rebuilt = SuggestSnapshot.build(entries);
+        snapshot = rebuilt;
+        logger.debug("Suggest index rebuilt with {} names and {} terms in {} ms",
+                entries.size(), rebuilt.termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int size() {
+        return snapshot.termCount();
+    }
+
+    public List<Suggestion> suggest(String query, int limit) {
+        return snapshot.lookup(query, Math.min(limit, SuggestSnapshot.MAX_RESULTS));
+    }
+}
@@ -0,0 +1,254 @@
+package com.ecommerce.project.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable prefix structure over suggestion names.
+ * <p>
+ * Every word suffix of a name ("apple iphone case", "iphone case", "case") is a term, and all terms are kept in one
+ * sorted array, so the terms starting with a prefix form a contiguous range found by two binary searches. Small ranges
+ * are scanned for the best entries; for prefixes whose range is larger than {@link #SCAN_LIMIT} the best entries are
+ * precomputed at build time. Either way a lookup touches at most {@code SCAN_LIMIT} terms.
+ * <p>
+ * Scores only matter through the ranking of entries, kept best first in {@code ranking}. A rescore that leaves the
+ * ranking as it was keeps the precomputed prefixes; otherwise only they are recomputed, the terms are reused.
+ */
+final class SuggestSnapshot {
+
+    static final int MAX_RESULTS = 10;
+
+    private static final int SCAN_LIMIT = 256;
+
+    static final SuggestSnapshot EMPTY = new SuggestSnapshot(new Suggestion[0], new String[0], new int[0], Map.of(), new int[0]);
+
+    private final Suggestion[] entries;
+    private final String[] terms;
+    private final int[] termEntries;
+    private final Map<String, int[]> heavyPrefixes;
+    private final int[] ranking;
+
+    private SuggestSnapshot(Suggestion[] entries, String[] terms, int[] termEntries, Map<String, int[]> heavyPrefixes,
+                            int[] ranking) {
+        this.entries = entries;
+        this.terms = terms;
+        this.termEntries = termEntries;
+        this.heavyPrefixes = heavyPrefixes;
+        this.ranking = ranking;
+    }
+
+    static SuggestSnapshot build(List<Suggestion> entryList) {
+        Suggestion[] entries = entryList.toArray(new Suggestion[0]);
+
+        List<String> termList = new ArrayList<>();
+        List<Integer> entryOfTerm = new ArrayList<>();
+        for (int e = 0; e < entries.length; e++) {
+            String normalized = normalize(entries[e].getText());
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            int start = 0;
+            while (start >= 0) {
+                termList.add(normalized.substring(start));
+                entryOfTerm.add(e);
+                int space = normalized.indexOf(' ', start);
+                start = space < 0 ? -1 : space + 1;
+            }
+        }
+
+        Integer[] order = new Integer[termList.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> termList.get(a).compareTo(termList.get(b)));
+
+        String[] terms = new String[order.length];
+        int[] termEntries = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            terms[i] = termList.get(order[i]);
+            termEntries[i] = entryOfTerm.get(order[i]);
+        }
+
+        SuggestSnapshot snapshot = new SuggestSnapshot(entries, terms, termEntries, new HashMap<>(), rank(entries));
+        snapshot.precompute(0, terms.length, 0);
+        return snapshot;
+    }
+
+    /**
+     * Returns a snapshot of the same names with new scores, without re-deriving or re-sorting the terms.
+     */
+    SuggestSnapshot rescore(ToLongFunction<Suggestion> score) {
+        Suggestion[] rescored = new Suggestion[entries.length];
+        for (int e = 0; e < entries.length; e++) {
+            Suggestion entry = entries[e];
+            rescored[e] = new Suggestion(entry.getText(), entry.getType(), entry.getId(), score.applyAsLong(entry));
+        }
+        if (keepsRanking(rescored)) {
+            return new SuggestSnapshot(rescored, terms, termEntries, heavyPrefixes, ranking);
+        }
+        SuggestSnapshot snapshot = new SuggestSnapshot(rescored, terms, termEntries, new HashMap<>(), rank(rescored));
+        snapshot.precompute(0, terms.length, 0);
+        return snapshot;
+    }
+
+    boolean sharesPrefixes(SuggestSnapshot other) {
+        return heavyPrefixes == other.heavyPrefixes;
+    }
+
+    /**
+     * Returns up to {@code limit} entries whose name has a word starting with the prefix, best score first.
+     */
+    List<Suggestion> lookup(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int low = lowerBound(prefix);
+        int high = lowerBound(prefix + Character.MAX_VALUE);
+
+        int[] best = high - low > SCAN_LIMIT ? heavyPrefixes.get(prefix) : topEntries(low, high);
+        if (best == null) {
+            best = topEntries(low, Math.min(high, low + SCAN_LIMIT));
+        }
+        List<Suggestion> result = new ArrayList<>(Math.min(limit, best.length));
+        for (int i = 0; i < best.length && i < limit; i++) {
+            result.add(entries[best[i]]);
+        }
+        return result;
+    }
+
+    int termCount() {
+        return terms.length;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // Records the best entries of every prefix whose range is too large to scan at query time
+    private void precompute(int low, int high, int depth) {
+        if (high - low <= SCAN_LIMIT) {
+            return;
+        }
+        if (depth > 0) {
+            heavyPrefixes.put(terms[low].substring(0, depth), topEntries(low, high));
+        }
+        int i = low;
+        // Terms exactly as long as the prefix sort first and have no children
+        while (i < high && terms[i].length() == depth) {
+            i++;
+        }
+        while (i < high) {
+            char c = terms[i].charAt(depth);
+            int j = i;
+            while (j < high && terms[j].charAt(depth) == c) {
+                j++;
+            }
+            precompute(i, j, depth + 1);
+            i = j;
+        }
+    }
+
+    private int[] topEntries(int low, int high) {
+        int[] best = new int[MAX_RESULTS];
+        int size = 0;
+        for (int t = low; t < high; t++) {
+            int candidate = termEntries[t];
+            if (contains(best, size, candidate)) {
+                continue;
+            }
+            if (size < MAX_RESULTS) {
+                best[size++] = candidate;
+            } else if (better(candidate, best[size - 1])) {
+                best[size - 1] = candidate;
+            } else {
+                continue;
+            }
+            // Insertion step keeps best sorted, MAX_RESULTS is small
+            for (int k = size - 1; k > 0 && better(best[k], best[k - 1]); k--) {
+                int swap = best[k];
+                best[k] = best[k - 1];
+                best[k - 1] = swap;
+            }
+        }
+        return Arrays.copyOf(best, size);
+    }
+
+    private boolean better(int a, int b) {
+        return compare(entries[a], entries[b]) < 0;
+    }
+
+    // The ranking is a total preorder, so it is unchanged exactly when every neighbouring pair compares the same
+    private boolean keepsRanking(Suggestion[] rescored) {
+        for (int i = 1; i < ranking.length; i++) {
+            int before = Integer.signum(compare(entries[ranking[i - 1]], entries[ranking[i]]));
+            int after = Integer.signum(compare(rescored[ranking[i - 1]], rescored[ranking[i]]));
+            if (before != after) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] rank(Suggestion[] entries) {
+        return IntStream.range(0, entries.length)
+                .boxed()
+                .sorted((a, b) -> compare(entries[a], entries[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // Higher score first, then the shorter name
+    private static int compare(Suggestion a, Suggestion b) {
+        if (a.getScore() != b.getScore()) {
+            return Long.compare(b.getScore(), a.getScore());
+        }
+        return Integer.compare(a.getText().length(), b.getText().length());
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.project.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A product or category name offered by the typeahead, with the score it is ranked by.
+ */
+@Getter
+@AllArgsConstructor
+public class Suggestion {
+    private final String text;
+    private final String type;
+    private final long id;
+    private final long score;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.project.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A name to offer as a suggestion, loaded as a projection. {@code weight} is the row's own popularity signal
+ * (product count for categories, zero for products).
+ */
+@Data
+@AllArgsConstructor
+public class SuggestionRow {
+    private Long id;
+    private String name;
+    private Long weight;
+
+    public SuggestionRow(Long id, String name) {
+        this(id, name, 0L);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.project.inventory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Stock reservation settings, bound from {@code project.inventory.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.inventory")
+public class InventoryProperties {
+
+    // Reservations neither committed nor released within this time are released by the flush
+    private long reservationTtlSeconds = 900;
+
+    // Reservations of one product within a flush interval that switch it to the in-memory counter, 0 disables it
+    private int hotThreshold = 200;
+
+    // Units taken from the products table per refill of a hot product's counter
+    private int leaseSize = 100;
+
+    // Counter cells per hot product, spreads concurrent reservations over separate cache lines
+    private int stripes = 8;
+
+    // Interval of the write-behind flush: expiry, demotion of cooled-down products, stock facet refresh
+    private long flushIntervalMs = 1000;
+}
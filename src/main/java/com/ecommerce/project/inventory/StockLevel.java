@@ -0,0 +1,7 @@
+package com.ecommerce.project.inventory;
+
+/**
+ * Outbox payload of a stock change: the units left in the products table once it committed.
+ */
+public record StockLevel(Long productId, long quantity) {
+}
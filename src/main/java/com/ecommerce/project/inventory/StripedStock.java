@@ -0,0 +1,64 @@
+package com.ecommerce.project.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Units of one product held in memory, spread over cells so concurrent reservations do not all CAS the same
+ * word. Units only get here after being subtracted from the products table, so taking from the cells can never
+ * oversell; a reservation that no single cell can satisfy fails here and is retried on the caller's slow path.
+ */
+public final class StripedStock {
+
+    // One cell per 64 bytes so neighbouring cells do not share a cache line
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    public StripedStock(int stripes) {
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicLongArray(this.stripes * PADDING);
+    }
+
+    /**
+     * Takes {@code units} from one cell, starting at a random one and probing the others.
+     */
+    public boolean tryTake(int units) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int probe = 0; probe < stripes; probe++) {
+            int index = ((start + probe) % stripes) * PADDING;
+            long available = cells.get(index);
+            while (available >= units) {
+                if (cells.compareAndSet(index, available, available - units)) {
+                    return true;
+                }
+                available = cells.get(index);
+            }
+        }
+        return false;
+    }
+
+    public void add(long units) {
+        cells.getAndAdd(ThreadLocalRandom.current().nextInt(stripes) * PADDING, units);
+    }
+
+    /**
+     * Removes and returns every unit, units added concurrently are either included or stay behind.
+     */
+    public long drain() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.getAndSet(i * PADDING, 0);
+        }
+        return total;
+    }
+
+    public long sum() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,186 @@
+package com.ecommerce.project.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the statements of each request, records them per endpoint as {@code sql.statements}, and reports requests
+ * over the statement budget or with a repeated statement shape (a likely N+1). With response headers enabled the
+ * body is buffered so the findings can still be added as X-SQL-* headers after the handler has run.
+ * <p>
+ * Async requests are reported once, by the dispatch that completes them, with the statements of all their dispatches.
+ * Streamed bodies (server-sent events, {@code StreamingResponseBody}, anything written while the request is async)
+ * bypass the buffer and reach the client as they are written; they get no X-SQL-* headers.
+ */
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    private static final int MAX_HEADER_SHAPE = 200;
+
+    private static final String STATS_ATTRIBUTE = StatementBudgetFilter.class.getName() + ".STATS";
+
+    private final StatementGuardProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public StatementBudgetFilter(StatementGuardProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // An async dispatch comes back with the wrapper of the initial dispatch
+        HeaderBufferingResponse buffered = WebUtils.getNativeResponse(response, HeaderBufferingResponse.class);
+        if (buffered == null && properties.isResponseHeaders()) {
+            buffered = new HeaderBufferingResponse(request, response);
+        }
+        StatementStats stats = StatementCounter.start();
+        try {
+            filterChain.doFilter(request, buffered == null ? response : buffered);
+        } finally {
+            StatementCounter.stop(stats);
+            StatementStats earlier = (StatementStats) request.getAttribute(STATS_ATTRIBUTE);
+            if (earlier != null) {
+                stats.add(earlier);
+            }
+            if (isAsyncStarted(request)) {
+                request.setAttribute(STATS_ATTRIBUTE, stats);
+            } else {
+                request.removeAttribute(STATS_ATTRIBUTE);
+                report(request, buffered, stats);
+                if (buffered != null) {
+                    buffered.copyBodyToResponse();
+                }
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, HttpServletResponse response, StatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        meterRegistry.summary("sql.statements", "uri", uri).record(stats.getCount());
+
+        int budget = properties.getRequestBudget();
+        if (budget > 0 && stats.getCount() > budget) {
+            meterRegistry.counter("sql.statements.over.budget", "uri", uri).increment();
+            logger.warn("{} {} executed {} statements, budget is {}", request.getMethod(), request.getRequestURI(),
+                    stats.getCount(), budget);
+            if (response != null) {
+                response.setHeader("X-SQL-Budget-Exceeded", stats.getCount() + " > " + budget);
+            }
+        }
+
+        Map<String, Integer> repeated = stats.getRepeatedShapes(properties.getRepeatedShapeThreshold());
+        if (!repeated.isEmpty()) {
+            meterRegistry.counter("sql.n.plus.one", "uri", uri).increment();
+            repeated.forEach((shape, executions) -> logger.warn("Possible N+1 in {} {}: {} x {}",
+                    request.getMethod(), request.getRequestURI(), executions, shape));
+            if (response != null) {
+                Map.Entry<String, Integer> worst = repeated.entrySet().stream()
+                        .max(Map.Entry.comparingByValue())
+                        .orElseThrow();
+                String shape = worst.getKey().length() > MAX_HEADER_SHAPE
+                        ? worst.getKey().substring(0, MAX_HEADER_SHAPE) + "..."
+                        : worst.getKey();
+                response.setHeader("X-SQL-N-Plus-One", worst.getValue() + " x " + shape);
+            }
+        }
+        if (response != null) {
+            response.setHeader("X-SQL-Statements", String.valueOf(stats.getCount()));
+        }
+    }
+
+    /**
+     * Buffers the body until the headers are set, except while streaming: once the request is async or the body is
+     * an event stream, anything buffered is sent and later writes and flushes go straight to the client.
+     */
+    private static final class HeaderBufferingResponse extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        private ServletOutputStream outputStream;
+
+        HeaderBufferingResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream buffer = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return buffer.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        buffer.setWriteListener(writeListener);
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        target(buffer).write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        target(buffer).write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target(buffer).flush();
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (isStreaming()) {
+                copyBodyToResponse(false);
+                getResponse().flushBuffer();
+            }
+        }
+
+        private ServletOutputStream target(ServletOutputStream buffer) throws IOException {
+            if (!isStreaming()) {
+                return buffer;
+            }
+            copyBodyToResponse(false);
+            return getResponse().getOutputStream();
+        }
+
+        private boolean isStreaming() {
+            String contentType = getContentType();
+            return request.isAsyncStarted()
+                    || (contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        }
+    }
+}
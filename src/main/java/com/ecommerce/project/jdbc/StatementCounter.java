@@ -0,0 +1,46 @@
+package com.ecommerce.project.jdbc;
+
+/**
+ * Thread-bound scopes that collect the statements executed through the proxied DataSource. Scopes nest: a statement
+ * counts towards the innermost scope and all enclosing ones, so a test can measure a request that measures itself.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<StatementStats> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static StatementStats start() {
+        StatementStats stats = new StatementStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void stop(StatementStats stats) {
+        if (stats.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats.parent);
+        }
+    }
+
+    /**
+     * Runs the action in its own scope and returns the statements it executed.
+     */
+    public static StatementStats measure(Runnable action) {
+        StatementStats stats = start();
+        try {
+            action.run();
+        } finally {
+            stop(stats);
+        }
+        return stats;
+    }
+
+    static void record(String sql) {
+        for (StatementStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.record(sql);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.project.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a datasource-proxy that reports to {@link StatementGuardListener}.
+ * Only the bean named {@code dataSource} is wrapped: with a read replica that is the routing proxy in front of both
+ * pools, so every statement is counted exactly once.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "project.sql.guard", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(StatementGuardProperties.class)
+public class StatementGuardConfig {
+
+    @Bean
+    public static BeanPostProcessor statementGuardDataSourceWrapper(ObjectProvider<StatementGuardProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name("dataSource")
+                        .listener(new StatementGuardListener(properties.getObject().getSlowQueryMs()))
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public StatementBudgetFilter statementBudgetFilter(StatementGuardProperties properties, MeterRegistry meterRegistry) {
+        return new StatementBudgetFilter(properties, meterRegistry);
+    }
+}
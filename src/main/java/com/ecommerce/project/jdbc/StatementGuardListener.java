@@ -0,0 +1,40 @@
+package com.ecommerce.project.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Feeds every executed statement to {@link StatementCounter} and logs the slow ones with their bind parameters.
+ * A JDBC batch counts as one statement per distinct SQL, matching the round trips it costs.
+ */
+public class StatementGuardListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementGuardListener.class);
+
+    private final long slowQueryMs;
+    private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+    public StatementGuardListener(long slowQueryMs) {
+        this.slowQueryMs = slowQueryMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            StatementCounter.record(queryInfo.getQuery());
+        }
+        if (execInfo.getElapsedTime() >= slowQueryMs) {
+            logger.warn("Slow query: {}", logEntryCreator.getLogEntry(execInfo, queryInfoList, true, false, false));
+        }
+    }
+}
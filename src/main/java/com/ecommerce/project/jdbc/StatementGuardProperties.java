@@ -0,0 +1,25 @@
+package com.ecommerce.project.jdbc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Statement counting, N+1 detection and slow query logging, bound from {@code project.sql.guard.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.sql.guard")
+public class StatementGuardProperties {
+    private boolean enabled = true;
+
+    // Statements slower than this are logged with their bind parameters
+    private long slowQueryMs = 500;
+
+    // A statement shape repeated this often within one request is reported as a possible N+1
+    private int repeatedShapeThreshold = 5;
+
+    // Statements allowed per request before it is reported, 0 disables the budget
+    private int requestBudget = 0;
+
+    // Report budget and N+1 findings in X-SQL-* response headers, meant for staging
+    private boolean responseHeaders = false;
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.project.jdbc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Statements executed within one {@link StatementCounter} scope, grouped by shape. The shape is the SQL with
+ * literals and IN lists replaced by placeholders, so the same query with different ids counts as one shape.
+ */
+public class StatementStats {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    final StatementStats parent;
+
+    private int count;
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+
+    StatementStats(StatementStats parent) {
+        this.parent = parent;
+    }
+
+    void record(String sql) {
+        count++;
+        shapes.merge(shape(sql), 1, Integer::sum);
+    }
+
+    // Folds in the statements of an earlier dispatch of the same request
+    void add(StatementStats other) {
+        count += other.count;
+        other.shapes.forEach((shape, executions) -> shapes.merge(shape, executions, Integer::sum));
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Map<String, Integer> getShapes() {
+        return shapes;
+    }
+
+    /**
+     * Shapes executed at least {@code threshold} times, the usual sign of an association loaded row by row.
+     */
+    public Map<String, Integer> getRepeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.forEach((shape, executions) -> {
+            if (executions >= threshold) {
+                repeated.put(shape, executions);
+            }
+        });
+        return repeated;
+    }
+
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.project.job;
+
+/**
+ * Outcome of one chunk: the checkpoint the next chunk starts from, the items it processed, and whether the job is
+ * complete.
+ */
+public record JobChunk(String checkpoint, long items, boolean done) {
+
+    public static JobChunk next(String checkpoint, long items) {
+        return new JobChunk(checkpoint, items, false);
+    }
+
+    public static JobChunk done(long items) {
+        return new JobChunk(null, items, true);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.project.job;
+
+/**
+ * Runs jobs of one type in chunks. Handlers are beans; {@link JobRunner} picks them up by {@link #type()}.
+ * <p>
+ * Each call to {@link #process} runs in a transaction that also stores the returned checkpoint, so a chunk and its
+ * checkpoint commit or roll back together. Side effects outside the database belong in an after-commit callback and
+ * have to tolerate being repeated.
+ */
+public interface JobHandler {
+
+    String type();
+
+    /**
+     * Items the whole job is expected to process, for progress reporting; null when unknown. Called when the job
+     * first starts.
+     */
+    default Long total(String payload) {
+        return null;
+    }
+
+    /**
+     * False for jobs that must run to completion once queued, which {@link JobRunner} then refuses to cancel.
+     */
+    default boolean cancellable() {
+        return true;
+    }
+
+    /**
+     * Processes the chunk following the checkpoint, which is null for the first chunk.
+     */
+    JobChunk process(String payload, String checkpoint);
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.project.job;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Background job settings, bound from {@code project.job.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.job")
+public class JobProperties {
+
+    // Jobs running at the same time, further jobs wait in the table
+    private int workers = 2;
+
+    // How often due jobs and retries are looked for when nothing wakes the runner
+    private long pollMs = 1000;
+
+    // Failed attempts of one chunk before the job fails
+    private int maxAttempts = 5;
+
+    // Wait before the first retry, doubled for every further one
+    private long backoffMs = 1000;
+
+    private long maxBackoffMs = 60_000;
+}
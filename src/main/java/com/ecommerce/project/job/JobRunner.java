@@ -0,0 +1,269 @@
+package com.ecommerce.project.job;
+
+import com.ecommerce.project.model.Job;
+import com.ecommerce.project.model.JobStatus;
+import com.ecommerce.project.repository.JobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs background jobs on a bounded pool of worker threads.
+ * <p>
+ * Jobs live in the {@code jobs} table. A worker claims a due job and calls its {@link JobHandler} chunk after chunk,
+ * storing the checkpoint in each chunk's transaction. A failed chunk is rolled back and the job is queued again after
+ * an exponential backoff, until {@code maxAttempts} failures in a row fail it. Cancellation is checked when a chunk
+ * commits: the chunk in flight is rolled back and the job ends as cancelled. Jobs found running on startup were cut
+ * off by a shutdown and continue from their checkpoint.
+ */
+@Component
+@EnableConfigurationProperties(JobProperties.class)
+public class JobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRunner.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobProperties properties;
+
+    @Autowired
+    private List<JobHandler> handlerList;
+
+    private Map<String, JobHandler> handlers;
+
+    private Semaphore idleWorkers;
+
+    private ExecutorService executor;
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void start() {
+        handlers = handlerList.stream().collect(Collectors.toMap(JobHandler::type, Function.identity()));
+        int workers = Math.max(1, properties.getWorkers());
+        idleWorkers = new Semaphore(workers);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a job, joining the current transaction. Workers pick it up once that transaction commits.
+     */
+    public Long submit(String type, String payload) {
+        if (!handlers.containsKey(type)) {
+            throw new IllegalArgumentException("No handler for jobs of type " + type);
+        }
+        Instant now = Instant.now();
+        Job job = jobRepository.save(new Job(null, type, payload, JobStatus.QUEUED, null, null, 0, 0, null,
+                false, now, now, null, null));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch();
+                }
+            });
+        } else {
+            dispatch();
+        }
+        return job.getJobId();
+    }
+
+    public boolean isCancellable(String type) {
+        JobHandler handler = handlers.get(type);
+        return handler == null || handler.cancellable();
+    }
+
+    /**
+     * Cancels a queued job at once and a running one when its current chunk ends. Returns false for finished jobs.
+     * Callers check {@link #isCancellable} first.
+     */
+    public boolean cancel(Long jobId) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int queued = jdbcTemplate.update("update jobs set status = 'CANCELLED', cancel_requested = true, finished_at = ?"
+                + " where job_id = ? and status = 'QUEUED'", now, jobId);
+        return queued > 0 || jdbcTemplate.update("update jobs set cancel_requested = true"
+                + " where job_id = ? and status = 'RUNNING'", jobId) > 0;
+    }
+
+    // Jobs left running by the previous process
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int interrupted = jdbcTemplate.update("update jobs set status = 'QUEUED' where status = 'RUNNING'");
+        if (interrupted > 0) {
+            logger.info("Resuming {} interrupted jobs", interrupted);
+        }
+        ready = true;
+        dispatch();
+    }
+
+    /**
+     * Hands due jobs to idle workers. Called on submit, when a worker frees up and on a timer for retries.
+     */
+    @Scheduled(fixedDelayString = "${project.job.poll-ms:1000}")
+    public synchronized void dispatch() {
+        if (!ready) {
+            return;
+        }
+        while (idleWorkers.tryAcquire()) {
+            Job job = claim();
+            if (job == null) {
+                idleWorkers.release();
+                return;
+            }
+            executor.execute(() -> {
+                try {
+                    run(job);
+                } catch (RuntimeException e) {
+                    logger.error("Job {} stopped unexpectedly", job.getJobId(), e);
+                } finally {
+                    idleWorkers.release();
+                }
+                if (!Thread.currentThread().isInterrupted()) {
+                    dispatch();
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ready = false;
+        executor.shutdownNow();
+    }
+
+    private Job claim() {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Long> due = jdbcTemplate.queryForList("select job_id from jobs where status = 'QUEUED' and next_attempt_at <= ?"
+                + " order by next_attempt_at, job_id fetch first 10 rows only", Long.class, now);
+        for (Long jobId : due) {
+            int claimed = jdbcTemplate.update("update jobs set status = 'RUNNING', started_at = coalesce(started_at, ?)"
+                    + " where job_id = ? and status = 'QUEUED'", now, jobId);
+            if (claimed == 1) {
+                return jobRepository.findById(jobId).orElse(null);
+            }
+        }
+        return null;
+    }
+
+    private void run(Job job) {
+        JobHandler handler = handlers.get(job.getType());
+        if (handler == null) {
+            finish(job.getJobId(), JobStatus.FAILED, "No handler for jobs of type " + job.getType());
+            return;
+        }
+        String payload = job.getPayload();
+        String checkpoint = job.getCheckpoint();
+        if (job.getItemsTotal() == null) {
+            try {
+                Long total = handler.total(payload);
+                jdbcTemplate.update("update jobs set items_total = ? where job_id = ?", total, job.getJobId());
+            } catch (RuntimeException e) {
+                retryOrFail(job.getJobId(), e);
+                return;
+            }
+        }
+
+        while (true) {
+            // Shutting down, the job stays RUNNING and is resumed on the next start
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            String from = checkpoint;
+            JobChunk chunk;
+            try {
+                chunk = transactionTemplate.execute(status -> {
+                    JobChunk processed = handler.process(payload, from);
+                    int saved = jdbcTemplate.update("update jobs set checkpoint = ?, items_done = items_done + ?,"
+                                    + " attempts = 0, last_error = null where job_id = ? and cancel_requested = false",
+                            processed.checkpoint(), processed.items(), job.getJobId());
+                    if (saved == 0) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return processed;
+                });
+            } catch (RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                retryOrFail(job.getJobId(), e);
+                return;
+            }
+            if (chunk == null) {
+                finish(job.getJobId(), JobStatus.CANCELLED, null);
+                return;
+            }
+            if (chunk.done()) {
+                finish(job.getJobId(), JobStatus.SUCCEEDED, null);
+                return;
+            }
+            checkpoint = chunk.checkpoint();
+        }
+    }
+
+    private void retryOrFail(Long jobId, RuntimeException e) {
+        Integer attempts = jdbcTemplate.queryForObject("select attempts from jobs where job_id = ?", Integer.class, jobId);
+        int failed = (attempts == null ? 0 : attempts) + 1;
+        String error = abbreviate(String.valueOf(e));
+        if (failed >= properties.getMaxAttempts()) {
+            logger.error("Job {} failed after {} attempts", jobId, failed, e);
+            jdbcTemplate.update("update jobs set attempts = ? where job_id = ?", failed, jobId);
+            finish(jobId, JobStatus.FAILED, error);
+            return;
+        }
+        long backoff = Math.min(properties.getMaxBackoffMs(), properties.getBackoffMs() << Math.min(failed - 1, 20));
+        logger.warn("Job {} failed, attempt {} of {}, retrying in {} ms", jobId, failed, properties.getMaxAttempts(),
+                backoff, e);
+        // A cancel that came in meanwhile wins over the retry
+        jdbcTemplate.update("update jobs set status = case when cancel_requested then 'CANCELLED' else 'QUEUED' end,"
+                        + " attempts = ?, last_error = ?, next_attempt_at = ?,"
+                        + " finished_at = case when cancel_requested then ? else finished_at end where job_id = ?",
+                failed, error, Timestamp.from(Instant.now().plusMillis(backoff)), Timestamp.from(Instant.now()), jobId);
+    }
+
+    private void finish(Long jobId, JobStatus status, String error) {
+        jdbcTemplate.update("update jobs set status = ?, last_error = coalesce(?, last_error), finished_at = ?"
+                + " where job_id = ?", status.name(), error, Timestamp.from(Instant.now()), jobId);
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.project.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestLoggingFilter> requestLoggingFilter(
+            @Value("${project.logging.sample-rate}") double sampleRate,
+            @Value("${project.logging.access-log}") boolean accessLog) {
+        FilterRegistrationBean<RequestLoggingFilter> registration =
+                new FilterRegistrationBean<>(new RequestLoggingFilter(sampleRate, accessLog));
+        // Outermost, so the MDC is set for everything logged further down and the timing covers the whole request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder droppedLogEventsMetric() {
+        return registry -> FunctionCounter.builder("logging.events.dropped", RingBufferAppender.class,
+                        appender -> RingBufferAppender.droppedEvents())
+                .description("Log events dropped because the asynchronous ring buffer was full")
+                .register(registry);
+    }
+}
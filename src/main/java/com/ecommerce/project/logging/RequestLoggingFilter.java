@@ -0,0 +1,87 @@
+package com.ecommerce.project.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags each request with a request id and the sampling decision in the MDC, and writes one JSON access log line
+ * per request to the {@value #ACCESS_LOGGER} logger.
+ */
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String ACCESS_LOGGER = "http.access";
+    public static final String REQUEST_ID = "requestId";
+    public static final String SAMPLED = "sampled";
+    public static final String SAMPLED_VALUE = "true";
+
+    private static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private static final Logger accessLogger = LoggerFactory.getLogger(ACCESS_LOGGER);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final double sampleRate;
+    private final boolean accessLog;
+
+    public RequestLoggingFilter(double sampleRate, boolean accessLog) {
+        this.sampleRate = sampleRate;
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+
+        MDC.put(REQUEST_ID, requestId);
+        if (sampled) {
+            MDC.put(SAMPLED, SAMPLED_VALUE);
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (accessLog && accessLogger.isInfoEnabled()) {
+                accessLogger.info(accessLine(request, response, requestId, sampled, System.nanoTime() - start));
+            }
+            MDC.remove(REQUEST_ID);
+            MDC.remove(SAMPLED);
+        }
+    }
+
+    private String accessLine(HttpServletRequest request, HttpServletResponse response, String requestId,
+                              boolean sampled, long elapsedNanos) throws IOException {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("requestId", requestId);
+        line.put("method", request.getMethod());
+        line.put("path", request.getRequestURI());
+        line.put("route", route);
+        line.put("status", response.getStatus());
+        line.put("durationMs", elapsedNanos / 1_000_000.0);
+        line.put("client", request.getRemoteAddr());
+        line.put("sampled", sampled);
+        return objectMapper.writeValueAsString(line);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.project.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+
+/**
+ * Lets the configured verbose loggers (SQL, bind parameters, security) write DEBUG and TRACE only for requests
+ * {@link RequestLoggingFilter} picked for sampling, whatever their configured level. Every other request pays one
+ * MDC lookup for those loggers and nothing for the rest.
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    private String[] loggers = new String[0];
+
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(",")).map(String::trim).filter(name -> !name.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.INFO) || !isVerbose(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return RequestLoggingFilter.SAMPLED_VALUE.equals(MDC.get(RequestLoggingFilter.SAMPLED))
+                ? FilterReply.ACCEPT
+                : FilterReply.DENY;
+    }
+
+    private boolean isVerbose(String name) {
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
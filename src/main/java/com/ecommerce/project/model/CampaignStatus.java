@@ -0,0 +1,9 @@
+package com.ecommerce.project.model;
+
+public enum CampaignStatus {
+    SCHEDULED,
+    APPLYING,
+    ACTIVE,
+    REVERTING,
+    ENDED
+}
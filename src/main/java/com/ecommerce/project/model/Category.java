@@ -6,6 +6,8 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.util.List;
 
@@ -13,6 +15,9 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@DynamicUpdate
+// Deleted categories stay until CategoryPurger has removed their products
+@SQLRestriction("deleted_at is null")
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,7 +27,11 @@ public class Category {
     @Size(min = 5, message = "Category name should have at least 5 characters")
     private String categoryName;
 
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
+    @Version
+    private Long version;
+
+    // Not cascaded, products are removed in bulk by CategoryPurger
+    @OneToMany(mappedBy = "category")
     private List<Product> products;
 
 /*    public Category() {
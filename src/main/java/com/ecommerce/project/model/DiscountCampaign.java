@@ -0,0 +1,53 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "discount_campaigns")
+public class DiscountCampaign {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long campaignId;
+
+    @NotBlank
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    private CampaignScope scope;
+
+    // categoryId or seller userId, depending on scope
+    private Long scopeId;
+
+    @Enumerated(EnumType.STRING)
+    private DiscountType discountType;
+
+    // Percent off for PERCENTAGE, currency amount off for ABSOLUTE
+    private double amount;
+
+    private Instant startsAt;
+    private Instant endsAt;
+
+    @Enumerated(EnumType.STRING)
+    private CampaignStatus status;
+
+    private long productsRepriced;
+
+    @Version
+    private long version;
+
+    public double priceFor(double price) {
+        return discountType == DiscountType.PERCENTAGE
+                ? price - price * amount / 100
+                : Math.max(0, price - amount);
+    }
+}
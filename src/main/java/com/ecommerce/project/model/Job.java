@@ -0,0 +1,50 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A unit of background work, see {@link com.ecommerce.project.job.JobRunner}. Progress columns are written by the
+ * runner with plain updates, the entity is only used to create and read jobs.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "jobs")
+public class Job {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long jobId;
+
+    // Selects the JobHandler
+    private String type;
+
+    // Handler specific input
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+
+    // Where the next chunk starts, null before the first one
+    private String checkpoint;
+
+    private Long itemsTotal;
+    private long itemsDone;
+
+    // Failed attempts since the last chunk that went through
+    private int attempts;
+    private String lastError;
+
+    private boolean cancelRequested;
+
+    private Instant nextAttemptAt;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A placed order. Orders are inserted in batches by {@code OrderBatcher}; the entity is only used to read them.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "orders")
+public class Order {
+
+    @Id
+    private Long orderId;
+
+    private Long userId;
+    private Long addressId;
+    private String idempotencyKey;
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private double totalAmount;
+    private Instant createdAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "order_items", joinColumns = @JoinColumn(name = "order_id"))
+    private List<OrderItem> items = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItem {
+    private Long productId;
+    private Integer quantity;
+    // specialPrice of the product when the order was placed
+    private double orderedPrice;
+}
@@ -0,0 +1,5 @@
+package com.ecommerce.project.model;
+
+public enum OrderStatus {
+    PLACED
+}
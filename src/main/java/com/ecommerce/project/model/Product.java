@@ -8,6 +8,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 
 @Entity
 @Data
@@ -15,6 +17,10 @@ import lombok.ToString;
 @AllArgsConstructor
 @Table(name = "products")
 @ToString
+// Updates only write the changed columns
+@DynamicUpdate
+// Products of a deleted category are gone for readers while CategoryPurger removes them
+@SQLRestriction("category_deleted = false")
 public class Product {
 
     @Id
@@ -32,6 +38,12 @@ public class Product {
     private double discount;
     private double specialPrice;
 
+    @Version
+    private Long version;
+
+    // Running discount campaign that set specialPrice, see DiscountCampaignServiceImpl
+    private Long campaignId;
+
     @ManyToOne
     @JoinColumn(name = "category_id")
     private Category category;
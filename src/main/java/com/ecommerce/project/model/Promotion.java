@@ -0,0 +1,50 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "promotions")
+public class Promotion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long promotionId;
+
+    @NotBlank
+    private String name;
+
+    // Null for automatic promotions
+    private String couponCode;
+
+    // Conditions, null means any
+    private Long productId;
+    private Long categoryId;
+    private Long sellerId;
+    private int minQuantity;
+
+    @Enumerated(EnumType.STRING)
+    private DiscountType discountType;
+
+    // Percent off for PERCENTAGE, currency amount off per unit for ABSOLUTE
+    private double amount;
+
+    // Stackable promotions add up; a non-stackable one only applies alone
+    private boolean stackable;
+
+    private boolean active;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "promotion_exclusions", joinColumns = @JoinColumn(name = "promotion_id"))
+    @Column(name = "product_id")
+    private Set<Long> excludedProductIds = new HashSet<>();
+}
@@ -0,0 +1,413 @@
+package com.ecommerce.project.order;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.IdempotencyKeyReusedException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.feed.ProductChange;
+import com.ecommerce.project.feed.ProductChangeFeed;
+import com.ecommerce.project.index.ProductFacetIndex;
+import com.ecommerce.project.inventory.StockLevel;
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.model.OrderStatus;
+import com.ecommerce.project.outbox.CatalogOutbox;
+import com.ecommerce.project.outbox.OutboxEvent;
+import com.ecommerce.project.outbox.OutboxOperation;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.payload.ReservationDTO;
+import com.ecommerce.project.repository.OrderRepository;
+import com.ecommerce.project.service.InventoryService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Places orders in micro-batches.
+ * <p>
+ * Requests queue up and one committer thread takes up to {@code batchSize} of them at a time. A batch is one
+ * transaction with a fixed number of statements however many orders it holds: look up idempotency keys already
+ * used, check the delivery addresses, lock and read the products, then batch the stock decrements with their outbox
+ * events and the order and item inserts. Stock is allotted in arrival order; an order that does not fit is rejected without affecting the
+ * rest of the batch. Units an order already reserved are claimed from {@link InventoryService} instead of taken from
+ * stock again, and handed back if the order is rejected or the batch rolls back. A batch whose transaction fails is
+ * split in halves that are committed on their own, down to single orders, so only the order that breaks it fails.
+ * Each request's future completes only after the commit, so a client never sees an order that could still roll back.
+ */
+@Component
+@EnableConfigurationProperties(OrderProperties.class)
+public class OrderBatcher {
+
+    // Must match the increment of orders_seq in V7__orders.sql
+    private static final int ORDER_ID_BLOCK = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBatcher.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CatalogOutbox catalogOutbox;
+
+    @Autowired
+    private OrderProperties properties;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong ordersPlaced = new AtomicLong();
+
+    private BlockingQueue<PendingOrder> queue;
+    private Thread committer;
+    private volatile boolean running;
+
+    // Used by the committer thread only
+    private long nextOrderId;
+    private long lastOrderId = -1;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        running = true;
+        committer = new Thread(this::run, "order-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingOrder> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(order -> order.result().completeExceptionally(
+                new APIException("Shutting down, order " + order.idempotencyKey() + " was not placed")));
+    }
+
+    public void submit(PendingOrder order) {
+        if (!queue.offer(order)) {
+            throw new APIException("Too many orders in progress, please retry shortly");
+        }
+    }
+
+    public long batches() {
+        return batches.get();
+    }
+
+    public long ordersPlaced() {
+        return ordersPlaced.get();
+    }
+
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getMaxWaitMs());
+                while (batch.size() < properties.getBatchSize()) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getBatchSize() || wait <= 0) {
+                        break;
+                    }
+                    PendingOrder next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Order batch of {} failed", batch.size(), e);
+                batch.forEach(order -> order.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        try {
+            commitTogether(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                logger.error("Order {} failed", batch.get(0).idempotencyKey(), e);
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            logger.warn("Order batch of {} failed, committing its halves separately", batch.size(), e);
+            int half = batch.size() / 2;
+            commit(batch.subList(0, half));
+            commit(batch.subList(half, batch.size()));
+        }
+    }
+
+    private void commitTogether(List<PendingOrder> batch) {
+        List<ReservationDTO> claimed = new ArrayList<>();
+        Map<PendingOrder, Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> place(batch, claimed));
+        } catch (RuntimeException e) {
+            inventoryService.reopen(claimed);
+            throw e;
+        }
+        batches.incrementAndGet();
+
+        Map<Long, Long> stockLeft = new HashMap<>();
+        for (PendingOrder order : batch) {
+            Outcome outcome = outcomes.get(order);
+            if (outcome.error() != null) {
+                order.result().completeExceptionally(outcome.error());
+            } else if (outcome.order() != null) {
+                ordersPlaced.incrementAndGet();
+                order.result().complete(outcome.order());
+                stockLeft.putAll(outcome.stockLeft());
+            } else {
+                // Placed by an earlier request with the same key
+                order.result().complete(orderRepository.findById(outcome.existingOrderId())
+                        .map(OrderBatcher::toDTO)
+                        .orElseThrow(() -> new ResourceNotFoundException("Order", "orderId", outcome.existingOrderId())));
+            }
+        }
+        stockLeft.forEach((productId, quantity) -> {
+            productFacetIndex.updateStock(productId, quantity);
+            productChangeFeed.publish(ProductChange.stock(productId, quantity));
+        });
+    }
+
+    private Map<PendingOrder, Outcome> place(List<PendingOrder> batch, List<ReservationDTO> claimed) {
+        Map<String, Object[]> usedKeys = usedKeys(batch);
+        Set<String> addresses = addressesOf(batch);
+        Map<Long, Stock> stock = lockStock(batch);
+
+        Instant now = Instant.now();
+        Timestamp createdAt = Timestamp.from(now);
+        Map<PendingOrder, Outcome> outcomes = new HashMap<>();
+        Map<String, PendingOrder> firstWithKey = new HashMap<>();
+        Map<Long, Integer> decrements = new HashMap<>();
+        List<Object[]> orderRows = new ArrayList<>();
+        List<Object[]> itemRows = new ArrayList<>();
+
+        for (PendingOrder order : batch) {
+            String key = order.userId() + ":" + order.idempotencyKey();
+            Object[] used = usedKeys.get(key);
+            PendingOrder sameKey = firstWithKey.putIfAbsent(key, order);
+            String usedHash = used != null ? (String) used[1] : sameKey != null ? sameKey.requestHash() : null;
+            if (usedHash != null && !usedHash.equals(order.requestHash())) {
+                outcomes.put(order, Outcome.failed(new IdempotencyKeyReusedException(order.idempotencyKey())));
+                continue;
+            }
+            if (used != null) {
+                outcomes.put(order, Outcome.existing((Long) used[0]));
+                continue;
+            }
+            if (sameKey != null) {
+                outcomes.put(order, outcomes.get(sameKey));
+                continue;
+            }
+            if (!addresses.contains(order.userId() + ":" + order.addressId())) {
+                outcomes.put(order, Outcome.failed(new ResourceNotFoundException("Address", "addressId", order.addressId())));
+                continue;
+            }
+            List<ReservationDTO> reservations;
+            try {
+                reservations = inventoryService.claim(order.reservationIds());
+            } catch (RuntimeException e) {
+                outcomes.put(order, Outcome.failed(e));
+                continue;
+            }
+            Map<Long, Integer> fromStock = fromStock(order, reservations);
+            RuntimeException shortage = fromStock == null
+                    ? new APIException("The reservations hold more units than order " + order.idempotencyKey())
+                    : shortage(fromStock, stock);
+            if (shortage != null) {
+                inventoryService.reopen(reservations);
+                outcomes.put(order, Outcome.failed(shortage));
+                continue;
+            }
+            claimed.addAll(reservations);
+
+            long orderId = nextOrderId();
+            List<OrderItemDTO> items = new ArrayList<>(order.quantities().size());
+            Map<Long, Long> stockLeft = new HashMap<>();
+            double total = 0;
+            for (Map.Entry<Long, Integer> line : order.quantities().entrySet()) {
+                Stock product = stock.get(line.getKey());
+                int taken = fromStock.get(line.getKey());
+                product.quantity -= taken;
+                if (taken > 0) {
+                    decrements.merge(line.getKey(), taken, Integer::sum);
+                }
+                items.add(new OrderItemDTO(line.getKey(), line.getValue(), product.price));
+                itemRows.add(new Object[]{orderId, line.getKey(), line.getValue(), product.price});
+                stockLeft.put(line.getKey(), product.quantity);
+                total += product.price * line.getValue();
+            }
+            orderRows.add(new Object[]{orderId, order.userId(), order.addressId(), order.idempotencyKey(),
+                    order.requestHash(), OrderStatus.PLACED.name(), total, createdAt});
+            outcomes.put(order, Outcome.placed(new OrderDTO(orderId, order.userId(), order.addressId(),
+                    OrderStatus.PLACED, total, now, items), stockLeft));
+        }
+
+        jdbcTemplate.batchUpdate("update products set quantity = quantity - ?, version = version + 1 where product_id = ?",
+                decrements.entrySet().stream().map(entry -> new Object[]{entry.getValue(), entry.getKey()}).toList());
+        Map<Long, StockLevel> stockLevels = new HashMap<>();
+        decrements.keySet().forEach(productId ->
+                stockLevels.put(productId, new StockLevel(productId, stock.get(productId).quantity)));
+        catalogOutbox.appendAll(OutboxEvent.PRODUCT, OutboxOperation.UPDATED, stockLevels);
+        jdbcTemplate.batchUpdate("insert into orders (order_id, user_id, address_id, idempotency_key, request_hash,"
+                + " status, total_amount, created_at) values (?, ?, ?, ?, ?, ?, ?, ?)", orderRows);
+        jdbcTemplate.batchUpdate("insert into order_items (order_id, product_id, quantity, ordered_price)"
+                + " values (?, ?, ?, ?)", itemRows);
+        return outcomes;
+    }
+
+    // userId:key -> {orderId, requestHash} of the keys in the batch that already placed an order
+    private Map<String, Object[]> usedKeys(List<PendingOrder> batch) {
+        Set<String> keys = new LinkedHashSet<>();
+        batch.forEach(order -> keys.add(order.idempotencyKey()));
+        Map<String, Object[]> used = new HashMap<>();
+        jdbcTemplate.query("select user_id, idempotency_key, order_id, request_hash from orders where idempotency_key in ("
+                        + placeholders(keys.size()) + ")",
+                rs -> {
+                    used.put(rs.getLong(1) + ":" + rs.getString(2), new Object[]{rs.getLong(3), rs.getString(4)});
+                }, keys.toArray());
+        return used;
+    }
+
+    // userId:addressId pairs of the batch's addresses
+    private Set<String> addressesOf(List<PendingOrder> batch) {
+        Set<Long> addressIds = new LinkedHashSet<>();
+        batch.forEach(order -> addressIds.add(order.addressId()));
+        Set<String> owned = new HashSet<>();
+        jdbcTemplate.query("select user_id, address_id from user_address where address_id in ("
+                        + placeholders(addressIds.size()) + ")",
+                rs -> {
+                    owned.add(rs.getLong(1) + ":" + rs.getLong(2));
+                }, addressIds.toArray());
+        return owned;
+    }
+
+    // Row locks keep concurrent single-product writes from interleaving with the batch
+    private Map<Long, Stock> lockStock(List<PendingOrder> batch) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        batch.forEach(order -> productIds.addAll(order.quantities().keySet()));
+        Map<Long, Stock> stock = new HashMap<>();
+        jdbcTemplate.query("select product_id, quantity, special_price from products where product_id in ("
+                        + placeholders(productIds.size()) + ") for update",
+                rs -> {
+                    stock.put(rs.getLong(1), new Stock(rs.getLong(2), rs.getDouble(3)));
+                }, productIds.toArray());
+        return stock;
+    }
+
+    // Units of each line still to take from stock, null when a reservation does not fit the order's lines
+    private static Map<Long, Integer> fromStock(PendingOrder order, List<ReservationDTO> reservations) {
+        Map<Long, Integer> needed = new LinkedHashMap<>(order.quantities());
+        for (ReservationDTO reservation : reservations) {
+            Integer left = needed.get(reservation.getProductId());
+            if (left == null || left < reservation.getQuantity()) {
+                return null;
+            }
+            needed.put(reservation.getProductId(), left - reservation.getQuantity());
+        }
+        return needed;
+    }
+
+    private static RuntimeException shortage(Map<Long, Integer> needed, Map<Long, Stock> stock) {
+        for (Map.Entry<Long, Integer> line : needed.entrySet()) {
+            Stock product = stock.get(line.getKey());
+            if (product == null) {
+                return new ResourceNotFoundException("Product", "productId", line.getKey());
+            }
+            if (product.quantity < line.getValue()) {
+                return new APIException("Not enough stock to order " + line.getValue() + " of product " + line.getKey());
+            }
+        }
+        return null;
+    }
+
+    private long nextOrderId() {
+        if (nextOrderId > lastOrderId) {
+            nextOrderId = jdbcTemplate.queryForObject("select next value for orders_seq", Long.class);
+            lastOrderId = nextOrderId + ORDER_ID_BLOCK - 1;
+        }
+        return nextOrderId++;
+    }
+
+    public static OrderDTO toDTO(Order order) {
+        return new OrderDTO(order.getOrderId(), order.getUserId(), order.getAddressId(), order.getStatus(),
+                order.getTotalAmount(), order.getCreatedAt(), order.getItems().stream()
+                .map(item -> new OrderItemDTO(item.getProductId(), item.getQuantity(), item.getOrderedPrice()))
+                .toList());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static final class Stock {
+        private long quantity;
+        private final double price;
+
+        private Stock(long quantity, double price) {
+            this.quantity = quantity;
+            this.price = price;
+        }
+    }
+
+    private record Outcome(OrderDTO order, Map<Long, Long> stockLeft, Long existingOrderId, RuntimeException error) {
+        static Outcome placed(OrderDTO order, Map<Long, Long> stockLeft) {
+            return new Outcome(order, stockLeft, null, null);
+        }
+
+        static Outcome existing(Long orderId) {
+            return new Outcome(null, null, orderId, null);
+        }
+
+        static Outcome failed(RuntimeException error) {
+            return new Outcome(null, null, null, error);
+        }
+    }
+}
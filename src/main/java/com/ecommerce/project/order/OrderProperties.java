@@ -0,0 +1,24 @@
+package com.ecommerce.project.order;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Order placement settings, bound from {@code project.order.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.order")
+public class OrderProperties {
+
+    // Orders committed together in one transaction at most
+    private int batchSize = 64;
+
+    // How long the first order of a batch waits for company when the queue is empty
+    private long maxWaitMs = 2;
+
+    // Orders waiting for a batch before new ones are turned away
+    private int queueCapacity = 10_000;
+
+    // Idempotency keys remembered in memory; older keys are found in the orders table
+    private int idempotencyCacheSize = 10_000;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.project.order;
+
+import com.ecommerce.project.payload.OrderDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An order waiting for its batch. {@code quantities} is keyed by productId in request order and includes the units
+ * of {@code reservationIds}; the future completes once the batch has committed.
+ */
+public record PendingOrder(Long userId, Long addressId, String idempotencyKey, String requestHash,
+                           Map<Long, Integer> quantities, List<String> reservationIds,
+                           CompletableFuture<OrderDTO> result) {
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.project.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes catalog changes to the {@code catalog_outbox} table in the transaction that makes them, so an event exists
+ * exactly when its change committed. {@link OutboxRelay} hands the events to subscribers afterwards.
+ */
+@Component
+public class CatalogOutbox {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void append(String aggregateType, Long aggregateId, OutboxOperation operation, Object state) {
+        appendAll(aggregateType, operation, Map.of(aggregateId, state));
+    }
+
+    /**
+     * Appends one event per entry, state by aggregate id, with a single JDBC batch.
+     */
+    public void appendAll(String aggregateType, OutboxOperation operation, Map<Long, ?> states) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox events have to be written in the transaction of their change");
+        }
+        if (states.isEmpty()) {
+            return;
+        }
+        // Pending entity writes first: the change then holds its row locks before its event ids are drawn, and a
+        // later change to the same rows always gets larger ids
+        entityManager.flush();
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(states.size());
+        states.forEach((aggregateId, state) ->
+                rows.add(new Object[]{aggregateType, aggregateId, operation.name(), toJson(state), now}));
+        jdbcTemplate.batchUpdate("insert into catalog_outbox (aggregate_type, aggregate_id, operation, payload, created_at)"
+                + " values (?, ?, ?, ?, ?)", rows);
+    }
+
+    private String toJson(Object state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.project.outbox;
+
+import java.time.Instant;
+
+/**
+ * One committed catalog change. The payload is the JSON of the product or category DTO after the change, or before
+ * it for deletes. Products purged with their category only carry their productId and categoryId. A campaign event
+ * stands for the products of one repriced productId range, see {@code RepricedRange}.
+ */
+public record OutboxEvent(long position, String aggregateType, long aggregateId, OutboxOperation operation,
+                          String payload, Instant createdAt) {
+
+    public static final String PRODUCT = "product";
+
+    public static final String CATEGORY = "category";
+
+    public static final String CAMPAIGN = "campaign";
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.project.outbox;
+
+public enum OutboxOperation {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Catalog outbox settings, bound from {@code project.outbox.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "project.outbox")
+public class OutboxProperties {
+
+    // How often committed events are sequenced and handed to subscribers
+    private long pollMs = 500;
+
+    // Events per subscriber call; also the most events sequenced per statement
+    private int batchSize = 500;
+
+    // Events every subscriber has handled are deleted once older than this, replays cannot go further back
+    private long retentionHours = 168;
+}
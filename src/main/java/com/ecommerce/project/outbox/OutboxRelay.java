@@ -0,0 +1,188 @@
+package com.ecommerce.project.outbox;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the catalog outbox to the {@link OutboxSubscriber} beans on its own thread.
+ * <p>
+ * Each poll first numbers the events committed since the last one, in event id order, from a sequence. Events only
+ * get a position once visible, so positions follow commit order and an event committing late is numbered after
+ * everything already delivered instead of behind a subscriber's offset. Every subscriber then reads the events after
+ * its offset in batches; the offset moves past a batch only once the subscriber returned, a batch that throws is
+ * delivered again on the next poll. Events every subscriber has handled are deleted after the retention period.
+ * <p>
+ * Positions are assigned by a single relay; running several instances against one database is not supported.
+ */
+@Component
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("position"), rs.getString("aggregate_type"), rs.getLong("aggregate_id"),
+            OutboxOperation.valueOf(rs.getString("operation")), rs.getString("payload"),
+            rs.getTimestamp("created_at").toInstant());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxProperties properties;
+
+    @Autowired(required = false)
+    private List<OutboxSubscriber> subscriberList = List.of();
+
+    private Map<String, OutboxSubscriber> subscribers;
+
+    private ScheduledExecutorService executor;
+
+    private Instant lastPrune = Instant.EPOCH;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscribers = subscriberList.stream().collect(Collectors.toMap(OutboxSubscriber::name, Function.identity()));
+        // A subscriber seen for the first time starts at the oldest retained event
+        Timestamp now = Timestamp.from(Instant.now());
+        subscribers.keySet().forEach(name -> jdbcTemplate.update("insert into outbox_offsets (subscriber, last_position,"
+                + " updated_at) select ?, 0, ? where not exists (select 1 from outbox_offsets where subscriber = ?)",
+                name, now, name));
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::poll, 0, properties.getPollMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public boolean isSubscribed(String name) {
+        return subscribers != null && subscribers.containsKey(name);
+    }
+
+    /**
+     * Moves a subscriber's offset back, so the events after it are delivered again, and relays without waiting for
+     * the next poll.
+     */
+    public void rewind(String name, long offset) {
+        jdbcTemplate.update("update outbox_offsets set last_position = ?, last_error = null, updated_at = ?"
+                + " where subscriber = ?", offset, Timestamp.from(Instant.now()), name);
+        executor.execute(this::poll);
+    }
+
+    /**
+     * Sequences committed events, delivers them to every subscriber and prunes old ones.
+     */
+    public synchronized void relay() {
+        sequence();
+        subscribers.values().forEach(this::deliver);
+        Instant now = Instant.now();
+        if (now.isAfter(lastPrune.plus(PRUNE_INTERVAL))) {
+            prune(now);
+            lastPrune = now;
+        }
+    }
+
+    // An exception would cancel the fixed delay schedule
+    private void poll() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            logger.error("Catalog outbox relay failed", e);
+        }
+    }
+
+    private void sequence() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<Long> eventIds;
+        do {
+            eventIds = jdbcTemplate.queryForList("select event_id from catalog_outbox where position is null"
+                    + " order by event_id fetch first ? rows only", Long.class, batchSize);
+            if (eventIds.isEmpty()) {
+                return;
+            }
+            List<Object[]> rows = eventIds.stream().map(eventId -> new Object[]{eventId}).toList();
+            // Applied in list order, so positions follow event ids within the batch
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate("update catalog_outbox"
+                    + " set position = next value for catalog_outbox_position_seq where event_id = ?", rows));
+        } while (eventIds.size() == batchSize);
+    }
+
+    private void deliver(OutboxSubscriber subscriber) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        List<OutboxEvent> events;
+        do {
+            Long offset = jdbcTemplate.queryForObject("select last_position from outbox_offsets where subscriber = ?",
+                    Long.class, subscriber.name());
+            events = jdbcTemplate.query("select position, aggregate_type, aggregate_id, operation, payload, created_at"
+                    + " from catalog_outbox where position > ? order by position fetch first ? rows only",
+                    EVENT_MAPPER, offset, batchSize);
+            if (events.isEmpty()) {
+                return;
+            }
+            try {
+                subscriber.handle(events);
+            } catch (RuntimeException e) {
+                logger.warn("Outbox subscriber {} failed after offset {}, retrying on the next poll",
+                        subscriber.name(), offset, e);
+                jdbcTemplate.update("update outbox_offsets set last_error = ?, updated_at = ? where subscriber = ?",
+                        truncate(String.valueOf(e.getMessage())), Timestamp.from(Instant.now()), subscriber.name());
+                return;
+            }
+            // Only from the offset the batch was read after, a rewind requested meanwhile wins
+            jdbcTemplate.update("update outbox_offsets set last_position = ?, last_error = null, updated_at = ?"
+                    + " where subscriber = ? and last_position = ?",
+                    events.get(events.size() - 1).position(), Timestamp.from(Instant.now()), subscriber.name(), offset);
+        } while (events.size() == batchSize);
+    }
+
+    private void prune(Instant now) {
+        long handledByAll = subscribers.keySet().stream()
+                .mapToLong(name -> jdbcTemplate.queryForObject(
+                        "select last_position from outbox_offsets where subscriber = ?", Long.class, name))
+                .min().orElse(Long.MAX_VALUE);
+        int pruned = jdbcTemplate.update("delete from catalog_outbox where position <= ? and created_at < ?",
+                handledByAll, Timestamp.from(now.minus(Duration.ofHours(properties.getRetentionHours()))));
+        if (pruned > 0) {
+            logger.info("Pruned {} catalog outbox events", pruned);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
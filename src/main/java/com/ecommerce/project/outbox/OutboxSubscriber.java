@@ -0,0 +1,17 @@
+package com.ecommerce.project.outbox;
+
+import java.util.List;
+
+/**
+ * Receives catalog changes from {@link OutboxRelay}. Subscribers are beans, their offsets are stored under
+ * {@link #name()}.
+ * <p>
+ * Delivery is at least once: a batch whose call throws is delivered again on the next poll, and a replay delivers
+ * events a second time, so handling has to be idempotent. Events arrive in position order.
+ */
+public interface OutboxSubscriber {
+
+    String name();
+
+    void handle(List<OutboxEvent> events);
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.project.payload;
 
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -16,4 +17,7 @@ public class CategoryDTO {
     @NotBlank
     @Size(min = 5, message = "Category name should have at least 5 characters")
     private String categoryName;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
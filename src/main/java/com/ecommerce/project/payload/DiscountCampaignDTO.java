@@ -0,0 +1,36 @@
+package com.ecommerce.project.payload;
+
+import com.ecommerce.project.model.CampaignScope;
+import com.ecommerce.project.model.CampaignStatus;
+import com.ecommerce.project.model.DiscountType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscountCampaignDTO {
+    private Long campaignId;
+    private String name;
+    private CampaignScope scope;
+    private Long scopeId;
+    private DiscountType discountType;
+    private Double amount;
+    // Defaults to now
+    private Instant startsAt;
+    private Instant endsAt;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private CampaignStatus status;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long productsRepriced;
+    // Progress of the running or last apply/revert
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer rangesDone;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer rangesTotal;
+}
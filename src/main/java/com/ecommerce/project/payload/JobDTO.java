@@ -0,0 +1,26 @@
+package com.ecommerce.project.payload;
+
+import com.ecommerce.project.model.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDTO {
+    private Long jobId;
+    private String type;
+    private JobStatus status;
+    // Null while the handler has not estimated the job yet
+    private Long itemsTotal;
+    private Long itemsDone;
+    private Integer attempts;
+    private String lastError;
+    private Boolean cancelRequested;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
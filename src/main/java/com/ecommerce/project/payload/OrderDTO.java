@@ -0,0 +1,23 @@
+package com.ecommerce.project.payload;
+
+import com.ecommerce.project.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDTO {
+    private Long orderId;
+    private Long userId;
+    private Long addressId;
+    private OrderStatus status;
+    private double totalAmount;
+    private Instant createdAt;
+    private List<OrderItemDTO> items = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checkout request. Without items the signed-in user's cart is ordered; quantities are taken from
+ * {@link OrderItemDTO#getQuantity()}, prices are always the current ones. Units held by {@code reservationIds} count
+ * towards the ordered quantity of their product and are not taken from stock again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequest {
+    private Long addressId;
+    private List<OrderItemDTO> items = new ArrayList<>();
+    private List<String> reservationIds = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxSubscriberDTO {
+    private String subscriber;
+    // Position of the last event handled
+    private Long offset;
+    // Sequenced events after the offset
+    private Long pending;
+    // Failure of the last delivery, null once a batch went through
+    private String lastError;
+    private Instant updatedAt;
+}
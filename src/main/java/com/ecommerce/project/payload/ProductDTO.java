@@ -1,6 +1,7 @@
 package com.ecommerce.project.payload;
 
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,4 +22,8 @@ public class ProductDTO {
     private Long categoryId;
     private String categoryName;
 
+    // Sent as the ETag, updates name the version they were based on in If-Match
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
 }
@@ -0,0 +1,66 @@
+package com.ecommerce.project.payload;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Product fields named in a {@code fields=} parameter. Only these columns are selected and only these properties of
+ * {@link ProductDTO} are written.
+ */
+public final class ProductFields {
+
+    public static final String FILTER = "productFields";
+
+    public static final List<String> NAMES = List.of("productId", "productName", "image", "description", "quantity",
+            "price", "discount", "specialPrice", "categoryId", "categoryName", "version");
+
+    private final Set<String> names;
+
+    private ProductFields(Set<String> names) {
+        this.names = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Parses a comma separated list of field names; null when the parameter is missing or blank, meaning all fields.
+     */
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!NAMES.contains(name)) {
+                throw new APIException("Unknown product field " + name + ". Use any of " + NAMES);
+            }
+            names.add(name);
+        }
+        return new ProductFields(names);
+    }
+
+    public Set<String> names() {
+        return names;
+    }
+
+    /**
+     * These fields and one more, e.g. a column the service needs but the client did not ask for.
+     */
+    public ProductFields with(String name) {
+        Set<String> extended = new LinkedHashSet<>(names);
+        extended.add(name);
+        return new ProductFields(extended);
+    }
+
+    // Mixed into ProductDTO, see AppConfig
+    @JsonFilter(FILTER)
+    public interface Filtered {
+    }
+}
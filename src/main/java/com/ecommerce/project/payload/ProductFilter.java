@@ -0,0 +1,22 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Facet selections for the product filter. Values within one facet are OR-ed, facets are AND-ed together.
+ * Empty lists and a null inStock mean the facet is not filtered.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilter {
+    private List<Long> categoryIds = new ArrayList<>();
+    private List<String> priceRanges = new ArrayList<>();
+    private List<String> discountRanges = new ArrayList<>();
+    private Boolean inStock;
+}
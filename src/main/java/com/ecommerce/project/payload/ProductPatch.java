@@ -0,0 +1,22 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One item of a batch product update. Null fields are left unchanged; a version makes the item conditional,
+ * like If-Match on a single update.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPatch {
+    private Long productId;
+    private String productName;
+    private String description;
+    private Integer quantity;
+    private Double price;
+    private Double discount;
+    private Long version;
+}
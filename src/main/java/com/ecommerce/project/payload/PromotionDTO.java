@@ -0,0 +1,27 @@
+package com.ecommerce.project.payload;
+
+import com.ecommerce.project.model.DiscountType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromotionDTO {
+    private Long promotionId;
+    private String name;
+    private String couponCode;
+    private Long productId;
+    private Long categoryId;
+    private Long sellerId;
+    private int minQuantity = 1;
+    private DiscountType discountType;
+    private Double amount;
+    private boolean stackable = true;
+    private boolean active = true;
+    private Set<Long> excludedProductIds = new HashSet<>();
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteLine {
+    private Long productId;
+    private String productName;
+    private int quantity;
+    // specialPrice of the product, before promotions
+    private double unitPrice;
+    private double unitDiscount;
+    private double lineTotal;
+    private List<Long> promotionIds;
+}
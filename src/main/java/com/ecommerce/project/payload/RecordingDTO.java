@@ -0,0 +1,21 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingDTO {
+    private Long id;
+    private String state;
+    private String settings;
+    private Instant startTime;
+    private Long durationSeconds;
+    private Long maxAgeSeconds;
+    private Long maxSizeBytes;
+    private Long sizeBytes;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.project.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ecommerce.project.FileUpload")
+@Label("File Upload")
+@Category({"E-Commerce", "Storage"})
+@StackTrace(false)
+public class FileUploadEvent extends Event {
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
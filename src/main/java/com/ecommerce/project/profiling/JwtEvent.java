@@ -0,0 +1,20 @@
+package com.ecommerce.project.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ecommerce.project.Jwt")
+@Label("JWT")
+@Category({"E-Commerce", "Security"})
+@StackTrace(false)
+public class JwtEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Valid")
+    public boolean valid;
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.project.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.ecommerce.project.ServiceCall")
+@Label("Service Call")
+@Category({"E-Commerce", "Service"})
+@Description("A public method call on a catalog service, including its transaction")
+@StackTrace(false)
+public class ServiceCallEvent extends Event {
+
+    @Label("Service")
+    public String service;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Rows")
+    @Description("Entries in the returned page or list, 1 for a single DTO")
+    public long rows;
+
+    @Label("Bytes")
+    @Description("Size of an uploaded file argument")
+    @DataAmount
+    public long bytes;
+
+    @Label("Failed")
+    public boolean failed;
+}
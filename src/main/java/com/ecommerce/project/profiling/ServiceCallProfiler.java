@@ -0,0 +1,80 @@
+package com.ecommerce.project.profiling;
+
+import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.ProductFilterResponse;
+import com.ecommerce.project.payload.ProductResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Collection;
+
+/**
+ * Emits a {@link ServiceCallEvent} around every public method of the product and category services. Ordered before
+ * the transaction interceptor so the event also covers the commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceCallProfiler {
+
+    @Around("within(com.ecommerce.project.service.ProductServiceImpl) "
+            + "|| within(com.ecommerce.project.service.CategoryServiceImpl)")
+    public Object profile(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+                event.operation = joinPoint.getSignature().getName();
+                event.rows = rows(result);
+                event.bytes = bytes(joinPoint.getArgs());
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof ProductResponse response) {
+            return response.getContent() == null ? 0 : response.getContent().size();
+        }
+        if (result instanceof ProductFilterResponse response) {
+            return response.getContent() == null ? 0 : response.getContent().size();
+        }
+        if (result instanceof CategoryResponse response) {
+            return response.getContent() == null ? 0 : response.getContent().size();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return 1;
+    }
+
+    private static long bytes(Object[] args) {
+        long bytes = 0;
+        for (Object arg : args) {
+            if (arg instanceof MultipartFile file) {
+                bytes += file.getSize();
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,163 @@
+package com.ecommerce.project.promotion;
+
+import com.ecommerce.project.model.Promotion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable decision structure over the active promotions.
+ * <p>
+ * Every rule is filed under its most selective condition: productId, else categoryId, else sellerId, else coupon
+ * code, and only rules with none of those land in the global list. The id indexes are sorted {@code long[]} keys
+ * with parallel rule arrays, so evaluating a quote line is a few binary searches and a scan of the candidate rules
+ * with primitive comparisons; the only allocation is the result. Stackable promotions add up; the line gets either
+ * their sum or the best single non-stackable promotion, whichever is larger, never more than the unit price.
+ */
+public final class CompiledPromotions {
+
+    private static final PromotionRule[] NO_RULES = new PromotionRule[0];
+    private static final int SOURCES = 5;
+
+    public static final CompiledPromotions EMPTY = compile(List.of());
+
+    // Ids of the stackable rules matched by the line being evaluated, reused per thread
+    private static final ThreadLocal<long[]> MATCHED = ThreadLocal.withInitial(() -> new long[64]);
+
+    private final RuleIndex byProduct;
+    private final RuleIndex byCategory;
+    private final RuleIndex bySeller;
+    private final Map<String, PromotionRule[]> byCoupon;
+    private final PromotionRule[] global;
+    private final int size;
+
+    private CompiledPromotions(RuleIndex byProduct, RuleIndex byCategory, RuleIndex bySeller,
+                               Map<String, PromotionRule[]> byCoupon, PromotionRule[] global, int size) {
+        this.byProduct = byProduct;
+        this.byCategory = byCategory;
+        this.bySeller = bySeller;
+        this.byCoupon = byCoupon;
+        this.global = global;
+        this.size = size;
+    }
+
+    public static CompiledPromotions compile(List<Promotion> promotions) {
+        Map<Long, List<PromotionRule>> byProduct = new TreeMap<>();
+        Map<Long, List<PromotionRule>> byCategory = new TreeMap<>();
+        Map<Long, List<PromotionRule>> bySeller = new TreeMap<>();
+        Map<String, List<PromotionRule>> byCoupon = new HashMap<>();
+        List<PromotionRule> global = new ArrayList<>();
+        for (Promotion promotion : promotions) {
+            PromotionRule rule = PromotionRule.of(promotion);
+            if (rule.productId != PromotionRule.ANY) {
+                byProduct.computeIfAbsent(rule.productId, id -> new ArrayList<>()).add(rule);
+            } else if (rule.categoryId != PromotionRule.ANY) {
+                byCategory.computeIfAbsent(rule.categoryId, id -> new ArrayList<>()).add(rule);
+            } else if (rule.sellerId != PromotionRule.ANY) {
+                bySeller.computeIfAbsent(rule.sellerId, id -> new ArrayList<>()).add(rule);
+            } else if (rule.couponCode != null) {
+                byCoupon.computeIfAbsent(rule.couponCode, code -> new ArrayList<>()).add(rule);
+            } else {
+                global.add(rule);
+            }
+        }
+        Map<String, PromotionRule[]> couponRules = new HashMap<>();
+        byCoupon.forEach((code, rules) -> couponRules.put(code, rules.toArray(NO_RULES)));
+        return new CompiledPromotions(RuleIndex.of(byProduct), RuleIndex.of(byCategory), RuleIndex.of(bySeller),
+                couponRules, global.toArray(NO_RULES), promotions.size());
+    }
+
+    /**
+     * Evaluates the promotions for one quote line. The coupon code must be normalized with {@link #couponKey}.
+     */
+    public PromotionMatch evaluate(long productId, Long categoryId, Long sellerId, int quantity, double unitPrice,
+                                   String couponKey) {
+        long category = PromotionRule.orAny(categoryId);
+        long seller = PromotionRule.orAny(sellerId);
+
+        long[] matched = MATCHED.get();
+        double stackableTotal = 0;
+        int stackableCount = 0;
+        long bestSingle = 0;
+        double bestSingleDiscount = -1;
+        for (int source = 0; source < SOURCES; source++) {
+            PromotionRule[] rules = candidates(source, productId, categoryId, sellerId, couponKey);
+            for (PromotionRule rule : rules) {
+                if (!rule.matches(productId, category, seller, quantity, couponKey)) {
+                    continue;
+                }
+                double discount = rule.unitDiscount(unitPrice);
+                if (rule.stackable) {
+                    if (stackableCount == matched.length) {
+                        matched = Arrays.copyOf(matched, matched.length * 2);
+                        MATCHED.set(matched);
+                    }
+                    matched[stackableCount++] = rule.promotionId;
+                    stackableTotal += discount;
+                } else if (discount > bestSingleDiscount) {
+                    bestSingle = rule.promotionId;
+                    bestSingleDiscount = discount;
+                }
+            }
+        }
+
+        stackableTotal = Math.min(stackableTotal, unitPrice);
+        if (bestSingleDiscount >= 0 && bestSingleDiscount > stackableTotal) {
+            return new PromotionMatch(bestSingleDiscount, new long[]{bestSingle});
+        }
+        if (stackableCount == 0) {
+            return PromotionMatch.NONE;
+        }
+        return new PromotionMatch(stackableTotal, Arrays.copyOf(matched, stackableCount));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static String couponKey(String couponCode) {
+        return PromotionRule.normalizeCoupon(couponCode);
+    }
+
+    private PromotionRule[] candidates(int source, long productId, Long categoryId, Long sellerId, String couponKey) {
+        PromotionRule[] rules = switch (source) {
+            case 0 -> byProduct.get(productId);
+            case 1 -> categoryId == null ? null : byCategory.get(categoryId);
+            case 2 -> sellerId == null ? null : bySeller.get(sellerId);
+            case 3 -> couponKey == null ? null : byCoupon.get(couponKey);
+            default -> global;
+        };
+        return rules == null ? NO_RULES : rules;
+    }
+
+    private static final class RuleIndex {
+        private final long[] keys;
+        private final PromotionRule[][] rules;
+
+        private RuleIndex(long[] keys, PromotionRule[][] rules) {
+            this.keys = keys;
+            this.rules = rules;
+        }
+
+        // The map must iterate in key order
+        static RuleIndex of(Map<Long, List<PromotionRule>> rulesByKey) {
+            long[] keys = new long[rulesByKey.size()];
+            PromotionRule[][] rules = new PromotionRule[rulesByKey.size()][];
+            int i = 0;
+            for (Map.Entry<Long, List<PromotionRule>> entry : rulesByKey.entrySet()) {
+                keys[i] = entry.getKey();
+                rules[i++] = entry.getValue().toArray(NO_RULES);
+            }
+            return new RuleIndex(keys, rules);
+        }
+
+        PromotionRule[] get(long key) {
+            int i = Arrays.binarySearch(keys, key);
+            return i < 0 ? NO_RULES : rules[i];
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.project.promotion;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The product columns a quote needs, loaded without hydrating entities.
+ */
+@Data
+@AllArgsConstructor
+public class PricedProduct {
+    private Long productId;
+    private String productName;
+    private Long categoryId;
+    private Long sellerId;
+    private double specialPrice;
+}
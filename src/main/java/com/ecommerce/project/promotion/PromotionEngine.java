@@ -0,0 +1,63 @@
+package com.ecommerce.project.promotion;
+
+import com.ecommerce.project.repository.PromotionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Holds the compiled promotions. Quotes read the current snapshot without locking; a promotion change compiles a new
+ * one from the database and swaps it in whole.
+ */
+@Component
+public class PromotionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromotionEngine.class);
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile CompiledPromotions compiled = CompiledPromotions.EMPTY;
+
+    public CompiledPromotions current() {
+        return compiled;
+    }
+
+    // Serialized so the last reload to run reads the latest committed promotions
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        // A new transaction, also when called after the commit of the one that changed a promotion
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        compiled = transaction.execute(status -> CompiledPromotions.compile(promotionRepository.findByActiveTrue()));
+        logger.info("Compiled {} active promotions in {} ms", compiled.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reloads once the current transaction commits, so the snapshot never holds a change that is rolled back.
+     */
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+}
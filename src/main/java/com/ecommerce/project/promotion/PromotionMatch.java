@@ -0,0 +1,17 @@
+package com.ecommerce.project.promotion;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The discount per unit a product gets and the promotions that make it up.
+ */
+@Getter
+@AllArgsConstructor
+public class PromotionMatch {
+
+    public static final PromotionMatch NONE = new PromotionMatch(0, new long[0]);
+
+    private final double unitDiscount;
+    private final long[] promotionIds;
+}
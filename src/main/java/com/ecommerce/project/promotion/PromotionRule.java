@@ -0,0 +1,65 @@
+package com.ecommerce.project.promotion;
+
+import com.ecommerce.project.model.DiscountType;
+import com.ecommerce.project.model.Promotion;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A promotion reduced to primitive fields for evaluation. Product and category conditions are also encoded by
+ * where {@link CompiledPromotions} indexes the rule; they are checked again so a rule never depends on its slot.
+ */
+final class PromotionRule {
+
+    static final long ANY = Long.MIN_VALUE;
+
+    final long promotionId;
+    final String couponCode;
+    final long productId;
+    final long categoryId;
+    final long sellerId;
+    final int minQuantity;
+    final boolean percentage;
+    final double amount;
+    final boolean stackable;
+    private final long[] excludedProductIds;
+
+    private PromotionRule(Promotion promotion) {
+        promotionId = promotion.getPromotionId();
+        couponCode = normalizeCoupon(promotion.getCouponCode());
+        productId = orAny(promotion.getProductId());
+        categoryId = orAny(promotion.getCategoryId());
+        sellerId = orAny(promotion.getSellerId());
+        minQuantity = promotion.getMinQuantity();
+        percentage = promotion.getDiscountType() == DiscountType.PERCENTAGE;
+        amount = promotion.getAmount();
+        stackable = promotion.isStackable();
+        excludedProductIds = promotion.getExcludedProductIds().stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    static PromotionRule of(Promotion promotion) {
+        return new PromotionRule(promotion);
+    }
+
+    boolean matches(long productId, long categoryId, long sellerId, int quantity, String couponCode) {
+        return quantity >= minQuantity
+                && (this.productId == ANY || this.productId == productId)
+                && (this.categoryId == ANY || this.categoryId == categoryId)
+                && (this.sellerId == ANY || this.sellerId == sellerId)
+                && (this.couponCode == null || this.couponCode.equals(couponCode))
+                && (excludedProductIds.length == 0 || Arrays.binarySearch(excludedProductIds, productId) < 0);
+    }
+
+    double unitDiscount(double unitPrice) {
+        return percentage ? unitPrice * amount / 100 : Math.min(amount, unitPrice);
+    }
+
+    static String normalizeCoupon(String couponCode) {
+        return couponCode == null || couponCode.isBlank() ? null : couponCode.trim().toUpperCase(Locale.ROOT);
+    }
+
+    static long orAny(Long id) {
+        return id == null ? ANY : id;
+    }
+}
@@ -1,11 +1,31 @@
 package com.ecommerce.project.repository;
 
+import com.ecommerce.project.index.SuggestionRow;
 import com.ecommerce.project.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Category findByCategoryName(String categoryName);
-}
 
+    @Query("select new com.ecommerce.project.index.SuggestionRow(c.categoryId, c.categoryName, count(p)) " +
+            "from categories c left join c.products p group by c.categoryId, c.categoryName")
+    List<SuggestionRow> findSuggestionRows();
+
+    // Native, the deleted_at column is not mapped and the entity is hidden once it is set
+    @Modifying
+    @Query(value = "update categories set deleted_at = :deletedAt, version = version + 1 where category_id = :categoryId and deleted_at is null", nativeQuery = true)
+    int markDeleted(@Param("categoryId") Long categoryId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Called with markDeleted, product reads then filter on their own row instead of looking up the category
+    @Modifying
+    @Query(value = "update products set category_deleted = true where category_id = :categoryId", nativeQuery = true)
+    int markProductsDeleted(@Param("categoryId") Long categoryId);
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.CampaignStatus;
+import com.ecommerce.project.model.DiscountCampaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DiscountCampaignRepository extends JpaRepository<DiscountCampaign, Long> {
+    List<DiscountCampaign> findByStatusIn(Collection<CampaignStatus> statuses);
+
+    // Moves only the status, so an endsAt changed by endCampaign meanwhile is kept; 0 rows means the status moved on
+    @Transactional
+    @Modifying
+    @Query("update versioned DiscountCampaign c set c.status = :to where c.campaignId = :campaignId and c.status = :from")
+    int transition(@Param("campaignId") Long campaignId, @Param("from") CampaignStatus from, @Param("to") CampaignStatus to);
+
+    @Transactional
+    @Modifying
+    @Query("update versioned DiscountCampaign c set c.status = 'ACTIVE', c.productsRepriced = :productsRepriced "
+            + "where c.campaignId = :campaignId and c.status = 'APPLYING'")
+    int activate(@Param("campaignId") Long campaignId, @Param("productsRepriced") long productsRepriced);
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Job;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+    Job findFirstByTypeAndPayloadOrderByJobIdDesc(String type, String payload);
+}
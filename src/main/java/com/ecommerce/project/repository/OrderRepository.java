@@ -0,0 +1,12 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+    Optional<Order> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+}
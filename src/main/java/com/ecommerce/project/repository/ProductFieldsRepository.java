@@ -0,0 +1,25 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFields;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Product reads that select only the requested columns. The returned DTOs have the requested fields set, plus the
+ * product id, which every query selects.
+ */
+public interface ProductFieldsRepository {
+
+    Page<ProductDTO> findAllFields(ProductFields fields, Pageable pageable);
+
+    Page<ProductDTO> findFieldsByCategoryId(Long categoryId, ProductFields fields, Pageable pageable);
+
+    Page<ProductDTO> findFieldsByProductNameLikeIgnoreCase(String keyword, ProductFields fields, Pageable pageable);
+
+    // In no particular order
+    List<ProductDTO> findFieldsByProductIdIn(Collection<Long> productIds, ProductFields fields);
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFields;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Criteria tuple queries over the requested attributes. Spring Data's dynamic projections take a fixed interface or
+ * class, and {@code project(...)} on a fluent query only becomes a fetch graph, which still selects every column.
+ */
+public class ProductFieldsRepositoryImpl implements ProductFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductDTO> findAllFields(ProductFields fields, Pageable pageable) {
+        return findPage(fields, null, pageable);
+    }
+
+    @Override
+    public Page<ProductDTO> findFieldsByCategoryId(Long categoryId, ProductFields fields, Pageable pageable) {
+        return findPage(fields, (cb, product) -> cb.equal(product.get("category").get("categoryId"), categoryId), pageable);
+    }
+
+    @Override
+    public Page<ProductDTO> findFieldsByProductNameLikeIgnoreCase(String keyword, ProductFields fields, Pageable pageable) {
+        return findPage(fields, (cb, product) ->
+                cb.like(cb.upper(product.get("productName")), keyword.toUpperCase()), pageable);
+    }
+
+    @Override
+    public List<ProductDTO> findFieldsByProductIdIn(Collection<Long> productIds, ProductFields fields) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        Set<String> names = selected(fields);
+        query.multiselect(selections(product, names)).where(product.get("productId").in(productIds));
+        return toDTOs(entityManager.createQuery(query).getResultList(), names);
+    }
+
+    private Page<ProductDTO> findPage(ProductFields fields, BiFunction<CriteriaBuilder, Root<Product>, Predicate> where,
+                                      Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        Set<String> names = selected(fields);
+        query.multiselect(selections(product, names));
+        if (where != null) {
+            query.where(where.apply(cb, product));
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // Counted only when the page does not tell the total, as Spring Data does
+        return PageableExecutionUtils.getPage(toDTOs(rows, names), pageable, () -> {
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            Root<Product> counted = count.from(Product.class);
+            count.select(cb.count(counted));
+            if (where != null) {
+                count.where(where.apply(cb, counted));
+            }
+            return entityManager.createQuery(count).getSingleResult();
+        });
+    }
+
+    // Results are identified and put in order by the product id
+    private static Set<String> selected(ProductFields fields) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add("productId");
+        names.addAll(fields.names());
+        return names;
+    }
+
+    private static List<Selection<?>> selections(Root<Product> product, Set<String> names) {
+        // Joined only for its name, the category id is the product's own foreign key column
+        Join<Product, Category> category = names.contains("categoryName") ? product.join("category", JoinType.LEFT) : null;
+        List<Selection<?>> selections = new ArrayList<>(names.size());
+        for (String name : names) {
+            Path<?> path = switch (name) {
+                case "categoryId" -> product.get("category").get("categoryId");
+                case "categoryName" -> category.get("categoryName");
+                default -> product.get(name);
+            };
+            selections.add(path.alias(name));
+        }
+        return selections;
+    }
+
+    private static List<ProductDTO> toDTOs(List<Tuple> rows, Set<String> names) {
+        List<ProductDTO> productDTOS = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            ProductDTO productDTO = new ProductDTO();
+            BeanWrapper wrapper = new BeanWrapperImpl(productDTO);
+            for (String name : names) {
+                wrapper.setPropertyValue(name, row.get(name));
+            }
+            productDTOS.add(productDTO);
+        }
+        return productDTOS;
+    }
+}
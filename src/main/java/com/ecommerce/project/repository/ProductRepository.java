@@ -1,16 +1,70 @@
 package com.ecommerce.project.repository;
 
+import com.ecommerce.project.index.ProductIndexRow;
+import com.ecommerce.project.index.SuggestionRow;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
+import com.ecommerce.project.promotion.PricedProduct;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    Page<Product> findByCategoryOrderByPriceAsc(Category category, Pageable pageDetails);
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductFieldsRepository {
+    Page<Product> findByCategory(Category category, Pageable pageDetails);
+
+    // The category is mapped into every DTO, fetch it with the page instead of one select per category
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
     Page<Product> findByProductNameLikeIgnoreCase(String keyword, Pageable pageDetails);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByProductIdIn(Collection<Long> productIds);
+
+    long countByCampaignId(Long campaignId);
+
+    @Query("select new com.ecommerce.project.promotion.PricedProduct(p.productId, p.productName, p.category.categoryId, u.UserId, p.specialPrice) from Product p left join p.user u where p.productId in :productIds")
+    List<PricedProduct> findPricedByIds(@Param("productIds") Collection<Long> productIds);
+
+    boolean existsByCategoryAndProductName(Category category, String productName);
+
+    @Query("select new com.ecommerce.project.index.ProductIndexRow(p.productId, p.category.categoryId, p.price, p.specialPrice, p.discount, p.quantity) from Product p")
+    List<ProductIndexRow> findIndexRows();
+
+    // Conditional decrement, 0 rows means the product is missing or has fewer units than asked for
+    // Versioned, so an admin edit based on the stock before a reservation fails its If-Match
+    @Modifying
+    @Query("update versioned Product p set p.quantity = p.quantity - :units where p.productId = :productId and p.quantity >= :units")
+    int decrementStock(@Param("productId") Long productId, @Param("units") int units);
+
+    @Modifying
+    @Query("update versioned Product p set p.quantity = p.quantity + :units where p.productId = :productId")
+    int incrementStock(@Param("productId") Long productId, @Param("units") long units);
+
+    @Query("select p.quantity from Product p where p.productId = :productId")
+    Integer findQuantity(@Param("productId") Long productId);
+
+    @Query("select new com.ecommerce.project.index.ProductIndexRow(p.productId, p.category.categoryId, p.price, p.specialPrice, p.discount, p.quantity) from Product p where p.productId in :productIds")
+    List<ProductIndexRow> findIndexRowsByIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("select new com.ecommerce.project.index.ProductIndexRow(p.productId, p.category.categoryId, p.price, p.specialPrice, p.discount, p.quantity) from Product p where p.productId between :fromId and :toId and p.category.categoryId = :categoryId")
+    List<ProductIndexRow> findIndexRowsByCategoryBetween(@Param("categoryId") Long categoryId, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("select new com.ecommerce.project.index.ProductIndexRow(p.productId, p.category.categoryId, p.price, p.specialPrice, p.discount, p.quantity) from Product p join p.user u where p.productId between :fromId and :toId and u.UserId = :sellerId")
+    List<ProductIndexRow> findIndexRowsBySellerBetween(@Param("sellerId") Long sellerId, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("select new com.ecommerce.project.index.SuggestionRow(p.productId, p.productName) from Product p")
+    List<SuggestionRow> findSuggestionRows();
 }
@@ -1,5 +1,6 @@
 package com.ecommerce.project.security.jwt;
 
+import com.ecommerce.project.profiling.JwtEvent;
 import com.ecommerce.project.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -44,7 +45,7 @@ public class JwtUtils {
     public String getJwtFromCookies(HttpServletRequest request) {
         Cookie cookie = WebUtils.getCookie(request, jwtCookie);
         if (cookie != null) {
-            System.out.println("COOKIE: " + cookie.getValue());
+            logger.debug("JWT cookie {} present", jwtCookie);
             return cookie.getValue();
         } else {
             return null;
@@ -63,19 +64,27 @@ public class JwtUtils {
 
     public String generateTokenFromUsername(String username) {
         //String username = userDetails.getUsername();
-        return Jwts.builder()
+        JwtEvent event = new JwtEvent();
+        event.begin();
+        String token = Jwts.builder()
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(key())
                 .compact();
+        commit(event, "generate", true);
+        return token;
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
+        JwtEvent event = new JwtEvent();
+        event.begin();
+        String userName = Jwts.parser()
                         .verifyWith((SecretKey) key())
                 .build().parseSignedClaims(token)
                 .getPayload().getSubject();
+        commit(event, "getUserName", true);
+        return userName;
     }
 
     private Key key() {
@@ -83,9 +92,12 @@ public class JwtUtils {
     }
 
     public boolean validateJwtToken(String authToken) {
+        JwtEvent event = new JwtEvent();
+        event.begin();
+        boolean valid = false;
         try {
-            System.out.println("Validate");
             Jwts.parser().verifyWith((SecretKey) key()).build().parseSignedClaims(authToken);
+            valid = true;
             return true;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
@@ -95,7 +107,18 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } finally {
+            commit(event, "validate", valid);
         }
         return false;
     }
+
+    private static void commit(JwtEvent event, String operation, boolean valid) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.valid = valid;
+            event.commit();
+        }
+    }
 }
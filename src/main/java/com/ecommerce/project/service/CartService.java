@@ -0,0 +1,13 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.CartDTO;
+
+public interface CartService {
+    CartDTO getCart();
+
+    CartDTO addProduct(Long productId, Integer quantity);
+
+    CartDTO updateProductQuantity(Long productId, Integer quantity);
+
+    CartDTO removeProduct(Long productId);
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.cart.Cart;
+import com.ecommerce.project.cart.CartLine;
+import com.ecommerce.project.cart.CartProperties;
+import com.ecommerce.project.cart.CartStore;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.index.ProductFacetIndex;
+import com.ecommerce.project.index.ProductOffer;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.CartItemDTO;
+import com.ecommerce.project.util.AuthUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cart changes validated against the price and stock in {@link ProductFacetIndex}, so no request touches the
+ * database; {@link CartStore} persists the carts behind them.
+ */
+@Service
+public class CartServiceImpl implements CartService {
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private CartProperties cartProperties;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @Override
+    public CartDTO getCart() {
+        return cartStore.read(authUtil.loggedInUserId(), this::toDTO);
+    }
+
+    @Override
+    public CartDTO addProduct(Long productId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new APIException("Quantity to add must be positive");
+        }
+        ProductOffer offer = findOffer(productId);
+        return cartStore.update(authUtil.loggedInUserId(), cart -> {
+            CartLine line = cart.line(productId);
+            if (line == null && cart.size() >= cartProperties.getMaxLines()) {
+                throw new APIException("A cart holds at most " + cartProperties.getMaxLines() + " products");
+            }
+            int total = (line == null ? 0 : line.quantity()) + quantity;
+            checkStock(offer, total);
+            cart.put(new CartLine(productId, total, offer.getSpecialPrice()));
+            return toDTO(cart);
+        });
+    }
+
+    @Override
+    public CartDTO updateProductQuantity(Long productId, Integer quantity) {
+        if (quantity == null || quantity < 0) {
+            throw new APIException("Quantity must not be negative");
+        }
+        if (quantity == 0) {
+            return removeProduct(productId);
+        }
+        ProductOffer offer = findOffer(productId);
+        checkStock(offer, quantity);
+        return cartStore.update(authUtil.loggedInUserId(), cart -> {
+            if (cart.line(productId) == null) {
+                throw new ResourceNotFoundException("Product in cart", "productId", productId);
+            }
+            cart.put(new CartLine(productId, quantity, offer.getSpecialPrice()));
+            return toDTO(cart);
+        });
+    }
+
+    @Override
+    public CartDTO removeProduct(Long productId) {
+        return cartStore.update(authUtil.loggedInUserId(), cart -> {
+            if (cart.remove(productId) == null) {
+                throw new ResourceNotFoundException("Product in cart", "productId", productId);
+            }
+            return toDTO(cart);
+        });
+    }
+
+    private ProductOffer findOffer(Long productId) {
+        ProductOffer offer = productFacetIndex.offer(productId);
+        if (offer == null) {
+            throw new ResourceNotFoundException("Product", "productId", productId);
+        }
+        return offer;
+    }
+
+    private static void checkStock(ProductOffer offer, int quantity) {
+        if (offer.getQuantity() <= 0) {
+            throw new APIException("Product " + offer.getProductId() + " is out of stock");
+        }
+        if (quantity > offer.getQuantity()) {
+            throw new APIException("Only " + offer.getQuantity() + " units of product " + offer.getProductId()
+                    + " are available");
+        }
+    }
+
+    // Lines are priced at their last validated unit price
+    private CartDTO toDTO(Cart cart) {
+        List<CartItemDTO> items = new ArrayList<>(cart.size());
+        double totalPrice = 0;
+        for (CartLine line : cart.lines()) {
+            double lineTotal = line.unitPrice() * line.quantity();
+            items.add(new CartItemDTO(line.productId(), line.quantity(), line.unitPrice(), lineTotal));
+            totalPrice += lineTotal;
+        }
+        return new CartDTO(cart.getUserId(), items, totalPrice, cart.getVersion());
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.project.service;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.JobDTO;
 
 
 
@@ -16,6 +17,10 @@ public interface CategoryService {
 
     CategoryDTO deleteCategory(Long categoryId);
 
+    JobDTO getPurgeStatus(Long categoryId);
 
-    CategoryDTO updateCategory(CategoryDTO categoryDTO, long categoryId);
+
+    CategoryDTO getCategory(Long categoryId);
+
+    CategoryDTO updateCategory(CategoryDTO categoryDTO, long categoryId, Long expectedVersion);
 }
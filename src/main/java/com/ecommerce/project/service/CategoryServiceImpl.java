@@ -1,10 +1,21 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.category.CategoryPurger;
+import com.ecommerce.project.config.AppConstants;
 import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.PreconditionFailedException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.index.CategoryProductIndex;
+import com.ecommerce.project.index.ProductFacetIndex;
+import com.ecommerce.project.index.SuggestIndex;
+import com.ecommerce.project.job.JobRunner;
 import com.ecommerce.project.model.Category;
+import com.ecommerce.project.outbox.CatalogOutbox;
+import com.ecommerce.project.outbox.OutboxEvent;
+import com.ecommerce.project.outbox.OutboxOperation;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.JobDTO;
 import com.ecommerce.project.repository.CategoryRepository;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +24,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -25,9 +38,31 @@ public class CategoryServiceImpl implements CategoryService{
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private CategoryProductIndex categoryProductIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private JobRunner jobRunner;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private CatalogOutbox catalogOutbox;
+
     @Override
+    @Transactional(readOnly = true)
     public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
 
+        if (!AppConstants.CATEGORY_SORT_FIELDS.contains(sortBy))
+            throw new APIException("Sorting categories by " + sortBy + " is not supported. Use one of " + AppConstants.CATEGORY_SORT_FIELDS);
+
         Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
@@ -52,6 +87,7 @@ public class CategoryServiceImpl implements CategoryService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CategoryResponse getAllCategories() {
         List<Category> categories = categoryRepository.findAll();
         if (categories.isEmpty())
@@ -66,37 +102,73 @@ public class CategoryServiceImpl implements CategoryService{
     }
 
     @Override
+    @Transactional
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
         Category category = modelMapper.map(categoryDTO, Category.class);
         Category categoryFromDb = categoryRepository.findByCategoryName(category.getCategoryName());
         if (categoryFromDb != null)
             throw new APIException("Category with the name" + category.getCategoryName() + " already exists !!!");
         Category savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+        suggestIndex.markDirty();
+        CategoryDTO savedCategoryDTO = modelMapper.map(savedCategory, CategoryDTO.class);
+        catalogOutbox.append(OutboxEvent.CATEGORY, savedCategory.getCategoryId(), OutboxOperation.CREATED, savedCategoryDTO);
+        return savedCategoryDTO;
     }
 
     @Override
+    @Transactional
     public void createCategory(Category category) {
-        categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        suggestIndex.markDirty();
+        catalogOutbox.append(OutboxEvent.CATEGORY, savedCategory.getCategoryId(), OutboxOperation.CREATED,
+                modelMapper.map(savedCategory, CategoryDTO.class));
     }
 
     @Override
+    @Transactional
     public CategoryDTO deleteCategory(Long categoryId) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        categoryRepository.delete(category);
-        return modelMapper.map(category, CategoryDTO.class);
+        // Hidden now, the products and images are removed in the background
+        categoryRepository.markDeleted(categoryId, LocalDateTime.now());
+        categoryRepository.markProductsDeleted(categoryId);
+        jobRunner.submit(CategoryPurger.TYPE, String.valueOf(categoryId));
+        categoryProductIndex.removeCategory(categoryId);
+        productFacetIndex.removeCategory(categoryId);
+        suggestIndex.markDirty();
+        CategoryDTO deletedCategoryDTO = modelMapper.map(category, CategoryDTO.class);
+        catalogOutbox.append(OutboxEvent.CATEGORY, categoryId, OutboxOperation.DELETED, deletedCategoryDTO);
+        return deletedCategoryDTO;
     }
 
     @Override
-    public CategoryDTO updateCategory(CategoryDTO categoryDTO, long categoryId) {
-        categoryRepository.findById(categoryId)
+    public JobDTO getPurgeStatus(Long categoryId) {
+        return jobService.getLatestJob(CategoryPurger.TYPE, String.valueOf(categoryId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CategoryDTO getCategory(Long categoryId) {
+        Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
+        return modelMapper.map(category, CategoryDTO.class);
+    }
 
-        Category category = modelMapper.map(categoryDTO, Category.class);
-        category.setCategoryId(categoryId);
-        Category savedCategory = categoryRepository.save(category);
-        return modelMapper.map(savedCategory, CategoryDTO.class);
+    @Override
+    @Transactional
+    public CategoryDTO updateCategory(CategoryDTO categoryDTO, long categoryId, Long expectedVersion) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", "categoryId", categoryId));
+        if (expectedVersion != null && !expectedVersion.equals(category.getVersion()))
+            throw new PreconditionFailedException("Category " + categoryId + " was modified, current version is " + category.getVersion());
+
+        // Changed on the managed entity, so the update is a dirty check instead of a merge of a detached copy
+        category.setCategoryName(categoryDTO.getCategoryName());
+        categoryRepository.flush();
+        suggestIndex.markDirty();
+        CategoryDTO updatedCategoryDTO = modelMapper.map(category, CategoryDTO.class);
+        catalogOutbox.append(OutboxEvent.CATEGORY, categoryId, OutboxOperation.UPDATED, updatedCategoryDTO);
+        return updatedCategoryDTO;
     }
 }
@@ -0,0 +1,21 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.DiscountCampaignDTO;
+
+import java.util.List;
+
+public interface DiscountCampaignService {
+    DiscountCampaignDTO createCampaign(DiscountCampaignDTO campaignDTO);
+
+    DiscountCampaignDTO getCampaign(Long campaignId);
+
+    List<DiscountCampaignDTO> getCampaigns();
+
+    DiscountCampaignDTO endCampaign(Long campaignId);
+
+    /**
+     * The special price of a product, taking the campaign it belongs to into account.
+     */
+    double specialPrice(Product product);
+}
@@ -0,0 +1,257 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.campaign.CampaignProperties;
+import com.ecommerce.project.campaign.CampaignRepricer;
+import com.ecommerce.project.campaign.RepricedRange;
+import com.ecommerce.project.campaign.RepricingProgress;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.feed.ProductChange;
+import com.ecommerce.project.feed.ProductChangeFeed;
+import com.ecommerce.project.index.CategoryProductIndex;
+import com.ecommerce.project.index.ProductFacetIndex;
+import com.ecommerce.project.index.ProductIndexRow;
+import com.ecommerce.project.model.CampaignScope;
+import com.ecommerce.project.model.CampaignStatus;
+import com.ecommerce.project.model.DiscountCampaign;
+import com.ecommerce.project.model.DiscountType;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.DiscountCampaignDTO;
+import com.ecommerce.project.repositories.UserRepository;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.DiscountCampaignRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Discount campaigns over a category or a seller's products.
+ * <p>
+ * A poll on its own thread starts due campaigns and ends expired ones through {@link CampaignRepricer}, so
+ * repricing never runs on a request thread, two transitions never overlap and a long repricing does not hold up the
+ * tasks on the shared scheduler. The poll changes a campaign's status
+ * with conditional updates and never saves the copy it loaded, so an {@link #endCampaign} in between is not lost;
+ * endCampaign itself is versioned and fails rather than overwrite a status the poll moved. The campaigns whose
+ * prices are live are also kept in memory so single product writes can keep a repriced product at its campaign price.
+ */
+@Service
+public class DiscountCampaignServiceImpl implements DiscountCampaignService {
+
+    private static final List<CampaignStatus> OPEN =
+            List.of(CampaignStatus.SCHEDULED, CampaignStatus.APPLYING, CampaignStatus.ACTIVE, CampaignStatus.REVERTING);
+
+    private static final Logger logger = LoggerFactory.getLogger(DiscountCampaignServiceImpl.class);
+
+    @Autowired
+    private DiscountCampaignRepository campaignRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CampaignRepricer campaignRepricer;
+
+    @Autowired
+    private CategoryProductIndex categoryProductIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private CampaignProperties properties;
+
+    private ScheduledExecutorService executor;
+
+    // Campaigns applying or active, by id
+    private final Map<Long, DiscountCampaign> live = new ConcurrentHashMap<>();
+
+    @Override
+    @Transactional
+    public DiscountCampaignDTO createCampaign(DiscountCampaignDTO campaignDTO) {
+        if (campaignDTO.getName() == null || campaignDTO.getName().isBlank())
+            throw new APIException("Campaign name is required");
+        if (campaignDTO.getScope() == null || campaignDTO.getScopeId() == null)
+            throw new APIException("Campaign scope and scopeId are required");
+        if (campaignDTO.getDiscountType() == null || campaignDTO.getAmount() == null || campaignDTO.getAmount() <= 0)
+            throw new APIException("Campaign discountType and a positive amount are required");
+        if (campaignDTO.getDiscountType() == DiscountType.PERCENTAGE && campaignDTO.getAmount() > 100)
+            throw new APIException("A percentage discount cannot exceed 100");
+
+        Instant startsAt = campaignDTO.getStartsAt() == null ? Instant.now() : campaignDTO.getStartsAt();
+        if (campaignDTO.getEndsAt() == null || !campaignDTO.getEndsAt().isAfter(startsAt))
+            throw new APIException("Campaign endsAt must be after startsAt");
+
+        if (campaignDTO.getScope() == CampaignScope.CATEGORY && !categoryRepository.existsById(campaignDTO.getScopeId()))
+            throw new ResourceNotFoundException("Category", "categoryId", campaignDTO.getScopeId());
+        if (campaignDTO.getScope() == CampaignScope.SELLER && !userRepository.existsById(campaignDTO.getScopeId()))
+            throw new ResourceNotFoundException("User", "userId", campaignDTO.getScopeId());
+
+        DiscountCampaign campaign = new DiscountCampaign(null, campaignDTO.getName(), campaignDTO.getScope(),
+                campaignDTO.getScopeId(), campaignDTO.getDiscountType(), campaignDTO.getAmount(), startsAt,
+                campaignDTO.getEndsAt(), CampaignStatus.SCHEDULED, 0, 0);
+        return toDTO(campaignRepository.save(campaign));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DiscountCampaignDTO getCampaign(Long campaignId) {
+        return toDTO(findCampaign(campaignId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DiscountCampaignDTO> getCampaigns() {
+        return campaignRepository.findAll(Sort.by("campaignId")).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public DiscountCampaignDTO endCampaign(Long campaignId) {
+        DiscountCampaign campaign = findCampaign(campaignId);
+        switch (campaign.getStatus()) {
+            case ENDED -> throw new APIException("Campaign " + campaignId + " has already ended");
+            // Nothing was repriced yet
+            case SCHEDULED -> campaign.setStatus(CampaignStatus.ENDED);
+            // The next poll reverts it
+            default -> campaign.setEndsAt(Instant.now());
+        }
+        return toDTO(campaign);
+    }
+
+    @Override
+    public double specialPrice(Product product) {
+        DiscountCampaign campaign = product.getCampaignId() == null ? null : live.get(product.getCampaignId());
+        if (campaign == null) {
+            return product.getPrice() - ((product.getDiscount() * 0.01) * product.getPrice());
+        }
+        return campaign.priceFor(product.getPrice());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        campaignRepository.findByStatusIn(List.of(CampaignStatus.APPLYING, CampaignStatus.ACTIVE))
+                .forEach(campaign -> live.put(campaign.getCampaignId(), campaign));
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "campaign-transitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runDueTransitions, properties.getPollMs(), properties.getPollMs(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts due campaigns and ends expired ones. Interrupted transitions (APPLYING, REVERTING) are repeated.
+     */
+    public synchronized void runDueTransitions() {
+        Instant now = Instant.now();
+        for (DiscountCampaign campaign : campaignRepository.findByStatusIn(OPEN)) {
+            try {
+                boolean expired = !campaign.getEndsAt().isAfter(now);
+                switch (campaign.getStatus()) {
+                    case SCHEDULED -> {
+                        if (expired) {
+                            campaignRepository.transition(campaign.getCampaignId(), CampaignStatus.SCHEDULED, CampaignStatus.ENDED);
+                        } else if (!campaign.getStartsAt().isAfter(now)
+                                && campaignRepository.transition(campaign.getCampaignId(), CampaignStatus.SCHEDULED, CampaignStatus.APPLYING) == 1) {
+                            apply(campaign);
+                        }
+                    }
+                    case APPLYING -> apply(campaign);
+                    case ACTIVE -> {
+                        if (expired && campaignRepository.transition(campaign.getCampaignId(), CampaignStatus.ACTIVE, CampaignStatus.REVERTING) == 1) {
+                            revert(campaign);
+                        }
+                    }
+                    case REVERTING -> revert(campaign);
+                    default -> {
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.error("Campaign {} transition failed, retrying on the next poll", campaign.getCampaignId(), e);
+            }
+        }
+    }
+
+    // Runs with the campaign in APPLYING
+    private void apply(DiscountCampaign campaign) {
+        long start = System.nanoTime();
+        live.put(campaign.getCampaignId(), campaign);
+
+        campaignRepricer.apply(campaign, range -> reindex(campaign, range));
+        // Counted rather than summed so a repeated apply reports all of the campaign's products
+        long repriced = productRepository.countByCampaignId(campaign.getCampaignId());
+        campaignRepository.activate(campaign.getCampaignId(), repriced);
+        logger.info("Campaign {} repriced {} products in {} ms", campaign.getCampaignId(), repriced,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Runs with the campaign in REVERTING
+    private void revert(DiscountCampaign campaign) {
+        long start = System.nanoTime();
+        live.remove(campaign.getCampaignId());
+
+        long reverted = campaignRepricer.revert(campaign.getCampaignId(), range -> reindex(campaign, range));
+        campaignRepository.transition(campaign.getCampaignId(), CampaignStatus.REVERTING, CampaignStatus.ENDED);
+        logger.info("Campaign {} restored {} products in {} ms", campaign.getCampaignId(), reverted,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Runs on a repricing thread once the range has committed, for the campaign's products in that range only
+    private void reindex(DiscountCampaign campaign, RepricedRange range) {
+        Supplier<List<ProductIndexRow>> loader = () -> campaign.getScope() == CampaignScope.CATEGORY
+                ? productRepository.findIndexRowsByCategoryBetween(campaign.getScopeId(), range.fromProductId(), range.toProductId())
+                : productRepository.findIndexRowsBySellerBetween(campaign.getScopeId(), range.fromProductId(), range.toProductId());
+        categoryProductIndex.reload(loader);
+        productFacetIndex.reload(loader).forEach(row ->
+                productChangeFeed.publish(ProductChange.specialPrice(row.getProductId(), row.getSpecialPrice())));
+    }
+
+    private DiscountCampaign findCampaign(Long campaignId) {
+        return campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new ResourceNotFoundException("Campaign", "campaignId", campaignId));
+    }
+
+    private DiscountCampaignDTO toDTO(DiscountCampaign campaign) {
+        RepricingProgress progress = campaignRepricer.progress(campaign.getCampaignId());
+        return new DiscountCampaignDTO(campaign.getCampaignId(), campaign.getName(), campaign.getScope(),
+                campaign.getScopeId(), campaign.getDiscountType(), campaign.getAmount(), campaign.getStartsAt(),
+                campaign.getEndsAt(), campaign.getStatus(), campaign.getProductsRepriced(),
+                progress == null ? null : progress.getRangesDone(),
+                progress == null ? null : progress.getRangesTotal());
+    }
+}
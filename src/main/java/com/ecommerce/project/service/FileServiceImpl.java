@@ -1,5 +1,6 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.profiling.FileUploadEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -32,7 +33,15 @@ public class FileServiceImpl implements FileService {
         }
 
         // Upload to server
-        Files.copy(image.getInputStream(), Paths.get(filePath));
+        FileUploadEvent event = new FileUploadEvent();
+        event.begin();
+        long bytes = Files.copy(image.getInputStream(), Paths.get(filePath));
+        event.end();
+        if (event.shouldCommit()) {
+            event.fileName = fileName;
+            event.bytes = bytes;
+            event.commit();
+        }
         return fileName;
 
 
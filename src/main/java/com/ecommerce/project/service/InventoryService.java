@@ -0,0 +1,22 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.ReservationDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface InventoryService {
+    ReservationDTO reserve(Long productId, Integer quantity);
+
+    ReservationDTO release(String reservationId);
+
+    ReservationDTO commit(String reservationId);
+
+    /**
+     * Takes open reservations over for an order, all or none, so they can no longer be released or expire. Their
+     * units stay taken; {@link #reopen} hands them back when the order is not placed.
+     */
+    List<ReservationDTO> claim(Collection<String> reservationIds);
+
+    void reopen(List<ReservationDTO> reservations);
+}
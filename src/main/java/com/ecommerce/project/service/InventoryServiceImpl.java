@@ -0,0 +1,351 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.feed.ProductChange;
+import com.ecommerce.project.feed.ProductChangeFeed;
+import com.ecommerce.project.index.ProductFacetIndex;
+import com.ecommerce.project.index.ProductIndexRow;
+import com.ecommerce.project.inventory.InventoryProperties;
+import com.ecommerce.project.inventory.StockLevel;
+import com.ecommerce.project.inventory.StripedStock;
+import com.ecommerce.project.outbox.CatalogOutbox;
+import com.ecommerce.project.outbox.OutboxEvent;
+import com.ecommerce.project.outbox.OutboxOperation;
+import com.ecommerce.project.payload.ReservationDTO;
+import com.ecommerce.project.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stock reservations without row locks held across requests.
+ * <p>
+ * A reservation takes its units straight away with a conditional {@code quantity >= n} update, so concurrent
+ * reservations of the last units cannot both succeed and no read-modify-write is involved. Commit keeps the units
+ * taken, release gives them back. Products reserved more than {@code hotThreshold} times within a flush interval
+ * switch to a {@link StripedStock}: units are leased from the table in blocks of {@code leaseSize} and reservations
+ * and releases only touch memory until the product cools down and the rest is written back.
+ * <p>
+ * Open reservations and leased units live in memory. They are returned on shutdown, after a crash they are missing
+ * from the table until corrected, which undersells and never oversells.
+ */
+@Service
+@EnableConfigurationProperties(InventoryProperties.class)
+public class InventoryServiceImpl implements InventoryService {
+
+    public static final String RESERVED = "RESERVED";
+    public static final String RELEASED = "RELEASED";
+    public static final String COMMITTED = "COMMITTED";
+
+    private static final int REFRESH_CHUNK = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogOutbox catalogOutbox;
+
+    @Autowired
+    private InventoryProperties properties;
+
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    // Entries are kept when a product cools down so releases racing the demotion are picked up by the next flush
+    private final Map<Long, HotProduct> hotProducts = new ConcurrentHashMap<>();
+
+    // Reservations per product in the current flush interval
+    private volatile Map<Long, LongAdder> demand = new ConcurrentHashMap<>();
+
+    // Products whose table quantity changed since the last flush, for the inStock facet
+    private final Set<Long> stockChanged = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public ReservationDTO reserve(Long productId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new APIException("Reservation quantity must be positive");
+        }
+
+        HotProduct hot = hotProduct(productId);
+        Boolean reserved = hot == null ? null : hot.reserve(quantity);
+        if (reserved == null) {
+            reserved = reserveFromTable(productId, quantity);
+        }
+        if (!reserved) {
+            if (!productRepository.existsById(productId)) {
+                throw new ResourceNotFoundException("Product", "productId", productId);
+            }
+            throw new APIException("Not enough stock to reserve " + quantity + " of product " + productId);
+        }
+
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), productId, quantity,
+                Instant.now().plusSeconds(properties.getReservationTtlSeconds()));
+        reservations.put(reservation.id(), reservation);
+        return toDTO(reservation, RESERVED);
+    }
+
+    @Override
+    public ReservationDTO release(String reservationId) {
+        Reservation reservation = take(reservationId);
+        restore(reservation.productId(), reservation.quantity());
+        return toDTO(reservation, RELEASED);
+    }
+
+    @Override
+    public ReservationDTO commit(String reservationId) {
+        // The units already left the table when they were reserved
+        return toDTO(take(reservationId), COMMITTED);
+    }
+
+    @Override
+    public List<ReservationDTO> claim(Collection<String> reservationIds) {
+        List<Reservation> claimed = new ArrayList<>(reservationIds.size());
+        for (String reservationId : reservationIds) {
+            Reservation reservation = reservations.remove(reservationId);
+            if (reservation == null) {
+                claimed.forEach(taken -> reservations.put(taken.id(), taken));
+                throw new ResourceNotFoundException("Reservation", "reservationId", reservationId);
+            }
+            claimed.add(reservation);
+        }
+        return claimed.stream().map(reservation -> toDTO(reservation, COMMITTED)).toList();
+    }
+
+    @Override
+    public void reopen(List<ReservationDTO> claimed) {
+        // Expired ones are released by the next flush
+        claimed.forEach(reservation -> reservations.put(reservation.getReservationId(), new Reservation(
+                reservation.getReservationId(), reservation.getProductId(), reservation.getQuantity(),
+                reservation.getExpiresAt())));
+    }
+
+    @Scheduled(fixedDelayString = "${project.inventory.flush-interval-ms}")
+    public void flush() {
+        Instant now = Instant.now();
+        reservations.values().forEach(reservation -> {
+            if (reservation.expiresAt().isBefore(now) && reservations.remove(reservation.id(), reservation)) {
+                restore(reservation.productId(), reservation.quantity());
+            }
+        });
+
+        Map<Long, LongAdder> lastInterval = demand;
+        demand = new ConcurrentHashMap<>();
+        hotProducts.values().forEach(hot -> {
+            LongAdder reserved = lastInterval.get(hot.productId);
+            if (hot.active && (reserved == null || reserved.sum() < properties.getHotThreshold() / 2)) {
+                hot.deactivate();
+                logger.debug("Product {} cooled down, leased stock returned", hot.productId);
+            } else if (!hot.active) {
+                returnToTable(hot.productId, hot.stock.drain());
+            } else {
+                hot.retryTable();
+            }
+        });
+
+        refreshStockFacet();
+    }
+
+    /**
+     * Writes every leased unit back to the products table.
+     */
+    @PreDestroy
+    public void returnLeasedStock() {
+        hotProducts.values().forEach(HotProduct::deactivate);
+        refreshStockFacet();
+    }
+
+    private HotProduct hotProduct(Long productId) {
+        if (properties.getHotThreshold() <= 0) {
+            return null;
+        }
+        LongAdder reserved = demand.computeIfAbsent(productId, id -> new LongAdder());
+        reserved.increment();
+        HotProduct hot = hotProducts.get(productId);
+        if (hot != null && hot.active) {
+            return hot;
+        }
+        if (reserved.sum() < properties.getHotThreshold()) {
+            return null;
+        }
+        hot = hotProducts.computeIfAbsent(productId, HotProduct::new);
+        hot.activate();
+        return hot;
+    }
+
+    private boolean reserveFromTable(Long productId, int units) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int count = productRepository.decrementStock(productId, units);
+            if (count == 1) {
+                logStock(productId);
+            }
+            return count;
+        });
+        if (updated == null || updated == 0) {
+            return false;
+        }
+        stockChanged.add(productId);
+        return true;
+    }
+
+    private void restore(Long productId, int units) {
+        HotProduct hot = hotProducts.get(productId);
+        if (hot != null && hot.active) {
+            hot.stock.add(units);
+        } else {
+            returnToTable(productId, units);
+        }
+    }
+
+    private void returnToTable(Long productId, long units) {
+        if (units <= 0) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.incrementStock(productId, units);
+            logStock(productId);
+        });
+        stockChanged.add(productId);
+    }
+
+    // Takes up to units from the table, whatever is left when fewer remain
+    private long lease(Long productId, int units) {
+        Long leased = transactionTemplate.execute(status -> {
+            if (productRepository.decrementStock(productId, units) == 1) {
+                logStock(productId);
+                return (long) units;
+            }
+            Integer remaining = productRepository.findQuantity(productId);
+            if (remaining != null && remaining > 0 && productRepository.decrementStock(productId, remaining) == 1) {
+                logStock(productId);
+                return (long) remaining;
+            }
+            return 0L;
+        });
+        if (leased != null && leased > 0) {
+            stockChanged.add(productId);
+            return leased;
+        }
+        return 0;
+    }
+
+    // In the transaction of the stock change, with the units it left in the table
+    private void logStock(Long productId) {
+        Integer quantity = productRepository.findQuantity(productId);
+        catalogOutbox.append(OutboxEvent.PRODUCT, productId, OutboxOperation.UPDATED,
+                new StockLevel(productId, quantity == null ? 0 : quantity));
+    }
+
+    private void refreshStockFacet() {
+        if (stockChanged.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(stockChanged);
+        stockChanged.removeAll(productIds);
+        for (int from = 0; from < productIds.size(); from += REFRESH_CHUNK) {
+            List<Long> chunk = productIds.subList(from, Math.min(productIds.size(), from + REFRESH_CHUNK));
+            for (ProductIndexRow row : productRepository.findIndexRowsByIds(chunk)) {
+                HotProduct hot = hotProducts.get(row.getProductId());
+                long leased = hot == null ? 0 : hot.stock.sum();
+                long quantity = row.getQuantity() == null ? 0 : row.getQuantity();
+                productFacetIndex.updateStock(row.getProductId(), quantity + leased);
+                productChangeFeed.publish(ProductChange.stock(row.getProductId(), quantity + leased));
+            }
+        }
+    }
+
+    private Reservation take(String reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            throw new ResourceNotFoundException("Reservation", "reservationId", reservationId);
+        }
+        return reservation;
+    }
+
+    private static ReservationDTO toDTO(Reservation reservation, String status) {
+        return new ReservationDTO(reservation.id(), reservation.productId(), reservation.quantity(), status,
+                reservation.expiresAt());
+    }
+
+    private record Reservation(String id, Long productId, int quantity, Instant expiresAt) {
+    }
+
+    private final class HotProduct {
+        private final Long productId;
+        private final StripedStock stock;
+        private volatile boolean active;
+
+        // Set when the table ran out, so reservations of a sold-out product stop querying it until the next flush
+        private boolean exhausted;
+
+        private HotProduct(Long productId) {
+            this.productId = productId;
+            this.stock = new StripedStock(properties.getStripes());
+        }
+
+        // Null when the product cooled down meanwhile and the caller should reserve from the table
+        private Boolean reserve(int units) {
+            if (stock.tryTake(units)) {
+                return true;
+            }
+            return refill(units);
+        }
+
+        // Pools the cells and tops them up from the table, serialized so only one thread leases at a time
+        private synchronized Boolean refill(int units) {
+            if (!active) {
+                return null;
+            }
+            long pooled = stock.drain();
+            if (pooled < units && !exhausted) {
+                long leased = lease(productId, (int) Math.max(properties.getLeaseSize(), units - pooled));
+                exhausted = leased < units - pooled;
+                pooled += leased;
+            }
+            if (pooled >= units) {
+                stock.add(pooled - units);
+                return true;
+            }
+            stock.add(pooled);
+            return false;
+        }
+
+        private synchronized void activate() {
+            active = true;
+        }
+
+        private synchronized void retryTable() {
+            exhausted = false;
+        }
+
+        private synchronized void deactivate() {
+            active = false;
+            returnToTable(productId, stock.drain());
+        }
+    }
+}
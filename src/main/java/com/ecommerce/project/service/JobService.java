@@ -0,0 +1,11 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.JobDTO;
+
+public interface JobService {
+    JobDTO getJob(Long jobId);
+
+    JobDTO cancelJob(Long jobId);
+
+    JobDTO getLatestJob(String type, String payload);
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.job.JobRunner;
+import com.ecommerce.project.model.Job;
+import com.ecommerce.project.payload.JobDTO;
+import com.ecommerce.project.repository.JobRepository;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class JobServiceImpl implements JobService {
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobRunner jobRunner;
+
+    @Autowired
+    private ModelMapper modelMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public JobDTO getJob(Long jobId) {
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job", "jobId", jobId));
+        return modelMapper.map(job, JobDTO.class);
+    }
+
+    @Override
+    public JobDTO cancelJob(Long jobId) {
+        JobDTO job = getJob(jobId);
+        if (!jobRunner.isCancellable(job.getType()))
+            throw new APIException("Jobs of type " + job.getType() + " cannot be cancelled");
+        if (!jobRunner.cancel(jobId))
+            throw new APIException("Job " + jobId + " has already finished as " + job.getStatus());
+        return getJob(jobId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JobDTO getLatestJob(String type, String payload) {
+        Job job = jobRepository.findFirstByTypeAndPayloadOrderByJobIdDesc(type, payload);
+        if (job == null)
+            throw new ResourceNotFoundException("Job", "payload", payload);
+        return modelMapper.map(job, JobDTO.class);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface OrderService {
+    /**
+     * Places the order once per idempotency key; the future completes after the order is committed.
+     */
+    CompletableFuture<OrderDTO> placeOrder(String idempotencyKey, OrderRequest orderRequest);
+
+    OrderDTO getOrder(Long orderId);
+}
@@ -0,0 +1,190 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.cart.CartLine;
+import com.ecommerce.project.cart.CartStore;
+import com.ecommerce.project.config.AppConstants;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.IdempotencyKeyReusedException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.Order;
+import com.ecommerce.project.order.OrderBatcher;
+import com.ecommerce.project.order.OrderProperties;
+import com.ecommerce.project.order.PendingOrder;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.payload.OrderRequest;
+import com.ecommerce.project.repository.OrderRepository;
+import com.ecommerce.project.util.AuthUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Checkout. A retried request with the same {@code Idempotency-Key} gets the first request's order: while it is
+ * in flight or recently placed through the in-memory map, which also makes concurrent duplicates wait on the first
+ * execution, and after that through the orders table, which {@link OrderBatcher} checks before placing anything.
+ */
+@Service
+public class OrderServiceImpl implements OrderService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private OrderBatcher orderBatcher;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderProperties orderProperties;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    // userId:key -> order in flight or placed, least recently used first
+    private Map<String, KeyedOrder> recentKeys;
+
+    @PostConstruct
+    public void start() {
+        recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, KeyedOrder> eldest) {
+                return size() > orderProperties.getIdempotencyCacheSize();
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<OrderDTO> placeOrder(String idempotencyKey, OrderRequest orderRequest) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new APIException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        if (orderRequest.getAddressId() == null) {
+            throw new APIException("An order needs an addressId");
+        }
+        if (orderRequest.getReservationIds() != null && orderRequest.getReservationIds().size() > AppConstants.MAX_ORDER_ITEMS) {
+            throw new APIException("An order accepts at most " + AppConstants.MAX_ORDER_ITEMS + " reservations");
+        }
+        Long userId = authUtil.loggedInUserId();
+        String requestHash = hash(orderRequest);
+        String key = userId + ":" + idempotencyKey;
+
+        CompletableFuture<OrderDTO> result = new CompletableFuture<>();
+        synchronized (recentKeys) {
+            KeyedOrder first = recentKeys.get(key);
+            if (first != null) {
+                if (!first.requestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyReusedException(idempotencyKey);
+                }
+                return first.result();
+            }
+            recentKeys.put(key, new KeyedOrder(requestHash, result));
+        }
+
+        try {
+            boolean fromCart = orderRequest.getItems() == null || orderRequest.getItems().isEmpty();
+            Map<Long, Integer> quantities = fromCart ? cartQuantities(userId) : quantities(orderRequest.getItems());
+            List<String> reservationIds = orderRequest.getReservationIds() == null
+                    ? List.of() : List.copyOf(new LinkedHashSet<>(orderRequest.getReservationIds()));
+            orderBatcher.submit(new PendingOrder(userId, orderRequest.getAddressId(), idempotencyKey, requestHash,
+                    quantities, reservationIds, result));
+            if (fromCart) {
+                result.thenAccept(order -> clearOrderedLines(userId, order));
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        // Only placed orders are remembered, a failed request may be retried with its key
+        result.whenComplete((order, error) -> {
+            if (error != null) {
+                synchronized (recentKeys) {
+                    recentKeys.remove(key);
+                }
+            }
+        });
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderDTO getOrder(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .filter(found -> found.getUserId().equals(authUtil.loggedInUserId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "orderId", orderId));
+        return OrderBatcher.toDTO(order);
+    }
+
+    private static Map<Long, Integer> quantities(List<OrderItemDTO> items) {
+        if (items.size() > AppConstants.MAX_ORDER_ITEMS) {
+            throw new APIException("An order accepts at most " + AppConstants.MAX_ORDER_ITEMS + " items");
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemDTO item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new APIException("Every order item needs a productId and a positive quantity");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private Map<Long, Integer> cartQuantities(Long userId) {
+        Map<Long, Integer> quantities = cartStore.read(userId, cart -> {
+            Map<Long, Integer> lines = new LinkedHashMap<>();
+            cart.lines().forEach(line -> lines.put(line.productId(), line.quantity()));
+            return lines;
+        });
+        if (quantities.isEmpty()) {
+            throw new APIException("Cart is empty");
+        }
+        return quantities;
+    }
+
+    // Lines changed since the checkout stay in the cart
+    private void clearOrderedLines(Long userId, OrderDTO order) {
+        cartStore.update(userId, cart -> {
+            for (OrderItemDTO item : order.getItems()) {
+                CartLine line = cart.line(item.getProductId());
+                if (line != null && line.quantity() == item.getQuantity()) {
+                    cart.remove(item.getProductId());
+                }
+            }
+            return null;
+        });
+    }
+
+    // A cart checkout is identified by its address, an explicit one by its address and lines, both with their reservations
+    private static String hash(OrderRequest orderRequest) {
+        StringBuilder canonical = new StringBuilder().append(orderRequest.getAddressId());
+        if (orderRequest.getItems() != null) {
+            orderRequest.getItems().forEach(item ->
+                    canonical.append('|').append(item.getProductId()).append('x').append(item.getQuantity()));
+        }
+        if (orderRequest.getReservationIds() != null) {
+            orderRequest.getReservationIds().forEach(reservationId -> canonical.append('#').append(reservationId));
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record KeyedOrder(String requestHash, CompletableFuture<OrderDTO> result) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.OutboxSubscriberDTO;
+
+import java.util.List;
+
+public interface OutboxService {
+    List<OutboxSubscriberDTO> getSubscribers();
+
+    OutboxSubscriberDTO replay(String subscriber, Long offset);
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.outbox.OutboxRelay;
+import com.ecommerce.project.payload.OutboxSubscriberDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final String SUBSCRIBER_QUERY = "select o.subscriber, o.last_position, o.last_error, o.updated_at,"
+            + " (select count(*) from catalog_outbox e where e.position > o.last_position) as pending"
+            + " from outbox_offsets o";
+
+    private static final RowMapper<OutboxSubscriberDTO> SUBSCRIBER_MAPPER = (rs, rowNum) -> new OutboxSubscriberDTO(
+            rs.getString("subscriber"), rs.getLong("last_position"), rs.getLong("pending"),
+            rs.getString("last_error"), rs.getTimestamp("updated_at").toInstant());
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<OutboxSubscriberDTO> getSubscribers() {
+        // Offsets of subscribers no longer deployed stay in the table but are not reported
+        return jdbcTemplate.query(SUBSCRIBER_QUERY + " order by o.subscriber", SUBSCRIBER_MAPPER).stream()
+                .filter(subscriber -> outboxRelay.isSubscribed(subscriber.getSubscriber()))
+                .toList();
+    }
+
+    @Override
+    public OutboxSubscriberDTO replay(String subscriber, Long offset) {
+        if (!outboxRelay.isSubscribed(subscriber))
+            throw new ResourceNotFoundException("Outbox subscriber", "name", subscriber);
+        OutboxSubscriberDTO current = getSubscriber(subscriber);
+        if (offset == null || offset < 0)
+            throw new APIException("Replay offset must not be negative");
+        if (offset > current.getOffset())
+            throw new APIException("Replay offset " + offset + " is ahead of " + subscriber + ", which is at " + current.getOffset());
+
+        Long oldest = jdbcTemplate.queryForObject("select min(position) from catalog_outbox", Long.class);
+        long earliest = (oldest == null ? current.getOffset() + 1 : oldest) - 1;
+        if (offset < earliest)
+            throw new APIException("Events after offset " + offset + " are no longer retained, replays can start from offset " + earliest);
+
+        outboxRelay.rewind(subscriber, offset);
+        return getSubscriber(subscriber);
+    }
+
+    private OutboxSubscriberDTO getSubscriber(String subscriber) {
+        return jdbcTemplate.query(SUBSCRIBER_QUERY + " where o.subscriber = ?", SUBSCRIBER_MAPPER, subscriber).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Outbox subscriber", "name", subscriber));
+    }
+}
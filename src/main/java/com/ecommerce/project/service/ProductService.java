@@ -1,21 +1,34 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.payload.ProductBatchResponse;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFields;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductFilterResponse;
+import com.ecommerce.project.payload.ProductPatch;
 import com.ecommerce.project.payload.ProductResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
 
 public interface ProductService {
      ProductDTO addProduct(Long categoryId, ProductDTO product);
 
-     ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortDir);
+     ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortDir, ProductFields fields);
 
-     ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortDir);
+     ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortDir, ProductFields fields);
 
-     ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortDir);
+     ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortDir, ProductFields fields);
 
-     ProductDTO updateProduct(ProductDTO product, Long productId);
+     ProductFilterResponse filterProducts(ProductFilter filter, Integer pageNumber, Integer pageSize, ProductFields fields);
+
+     // A null fields reads and returns every field
+     ProductDTO getProduct(Long productId, ProductFields fields);
+
+     ProductDTO updateProduct(ProductDTO product, Long productId, Long expectedVersion);
+
+     ProductBatchResponse updateProducts(List<ProductPatch> patches);
 
      ProductDTO deleteProduct(Long productId);
 
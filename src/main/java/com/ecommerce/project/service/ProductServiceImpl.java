@@ -1,14 +1,35 @@
 package com.ecommerce.project.service;
 
 
+import com.ecommerce.project.config.AppConstants;
 import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.PreconditionFailedException;
 import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.feed.ProductChange;
+import com.ecommerce.project.feed.ProductChangeFeed;
+import com.ecommerce.project.index.CategoryProductIndex;
+import com.ecommerce.project.index.FacetResult;
+import com.ecommerce.project.index.IndexedPage;
+import com.ecommerce.project.index.ProductFacetIndex;
+import com.ecommerce.project.index.SearchPopularity;
+import com.ecommerce.project.index.SuggestIndex;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
+import com.ecommerce.project.outbox.CatalogOutbox;
+import com.ecommerce.project.outbox.OutboxEvent;
+import com.ecommerce.project.outbox.OutboxOperation;
+import com.ecommerce.project.payload.ProductBatchResponse;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFields;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.payload.ProductFilterResponse;
+import com.ecommerce.project.payload.ProductPatch;
+import com.ecommerce.project.payload.ProductPatchResult;
 import com.ecommerce.project.payload.ProductResponse;
 import com.ecommerce.project.repository.CategoryRepository;
 import com.ecommerce.project.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,11 +37,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -39,26 +70,46 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private FileService fileService;
 
+    @Autowired
+    private CategoryProductIndex categoryProductIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private CatalogOutbox catalogOutbox;
+
+    @Autowired
+    private SearchPopularity searchPopularity;
+
+    @Autowired
+    private DiscountCampaignService discountCampaignService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Value("${project.image}")
     private String path;
 
 
 
     @Override
+    @Transactional
     public ProductDTO addProduct(Long categoryId, ProductDTO productDTO) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        boolean ifProductNotPresent = true;
-
-        List<Product> products = category.getProducts();
-        for (Product value : products){
-            if (value.getProductName().equals(productDTO.getProductName())){
-                ifProductNotPresent = false;
-                break;
-            }
-        }
+        boolean ifProductNotPresent = !productRepository.existsByCategoryAndProductName(category, productDTO.getProductName());
 
         if (ifProductNotPresent){
 
@@ -68,6 +119,10 @@ public class ProductServiceImpl implements ProductService {
             double specialPrice = product.getPrice() - ((product.getDiscount() * 0.01) * product.getPrice());
             product.setSpecialPrice(specialPrice);
             Product savedProduct = productRepository.save(product);
+            categoryProductIndex.upsert(savedProduct);
+            productFacetIndex.upsert(savedProduct);
+            productChangeFeed.publishAfterCommit(ProductChange.of(savedProduct));
+            suggestIndex.markDirty();
 
             // Map to DTO and include category information
             //productDTO = modelMapper.map(savedProduct, ProductDTO.class);
@@ -75,34 +130,34 @@ public class ProductServiceImpl implements ProductService {
             //productDTO.setCategoryName(category.getCategoryName());
 
             //return productDTO;
-            return modelMapper.map(savedProduct, ProductDTO.class);
+            ProductDTO savedProductDTO = modelMapper.map(savedProduct, ProductDTO.class);
+            catalogOutbox.append(OutboxEvent.PRODUCT, savedProduct.getProductId(), OutboxOperation.CREATED, savedProductDTO);
+            return savedProductDTO;
 
         } else {
             throw new APIException("Product already exists!!");
         }
     }
 
+
     @Override
-    public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortDir) {
-        Sort sortByAndOrder = sortDir.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+    @Transactional(readOnly = true)
+    public ProductResponse getAllProducts(Integer pageNumber, Integer pageSize, String sortBy, String sortDir, ProductFields fields) {
+        checkPage(pageNumber, pageSize);
+        Sort sortByAndOrder = productSort(sortBy, sortDir);
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> pageProducts = productRepository.findAll(pageDetails);
-
-        List<Product> products = pageProducts.getContent();
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> {
+        Page<ProductDTO> pageProducts = fields != null
+                ? productRepository.findAllFields(fields, pageDetails)
+                : productRepository.findAll(pageDetails).map(product -> {
                     ProductDTO dto = modelMapper.map(product, ProductDTO.class);
                     dto.setCategoryId(product.getCategory().getCategoryId());
                     dto.setCategoryName(product.getCategory().getCategoryName());
                     return dto;
-                })
-                .collect(Collectors.toList());
-
+                });
 
         ProductResponse productResponse = new ProductResponse();
-        productResponse.setContent(productDTOS);
+        productResponse.setContent(pageProducts.getContent());
         productResponse.setPageNo(pageProducts.getNumber());
         productResponse.setPageSize(pageProducts.getSize());
         productResponse.setTotalElements(pageProducts.getTotalElements());
@@ -111,28 +166,51 @@ public class ProductServiceImpl implements ProductService {
         return productResponse;
     }
 
+
     @Override
-    public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortDir) {
+    @Transactional(readOnly = true)
+    public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortDir, ProductFields fields) {
+        checkPage(pageNumber, pageSize);
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Category", "categoryId", categoryId));
 
-        Sort sortByAndOrder = sortDir.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        Sort sortByAndOrder = productSort(sortBy, sortDir);
+        boolean ascending = sortDir.equalsIgnoreCase("asc");
+        IndexedPage indexedPage = categoryProductIndex.page(categoryId, sortBy, ascending, pageNumber, pageSize);
+        if (indexedPage != null) {
+            // Ordering and paging came from the index, only hydrate the page itself
+            List<ProductDTO> productDTOS = fields != null
+                    ? findFieldsInOrder(indexedPage.getProductIds(), fields)
+                    : findAllInOrder(indexedPage.getProductIds()).stream()
+                    .map(product -> {
+                        ProductDTO dto = modelMapper.map(product, ProductDTO.class);
+                        dto.setCategoryId(category.getCategoryId());
+                        dto.setCategoryName(category.getCategoryName());
+                        return dto;
+                    })
+                    .collect(Collectors.toList());
+
+            int totalPages = (int) ((indexedPage.getTotalElements() + pageSize - 1) / pageSize);
+            ProductResponse productResponse = new ProductResponse();
+            productResponse.setPageNo(pageNumber);
+            productResponse.setPageSize(pageSize);
+            productResponse.setTotalElements(indexedPage.getTotalElements());
+            productResponse.setTotalPages(totalPages);
+            productResponse.setLastPage(pageNumber + 1 >= totalPages);
+            productResponse.setContent(productDTOS);
+            return productResponse;
+        }
 
         Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> pageProducts = productRepository.findByCategoryOrderByPriceAsc(category, pageDetails);
-
-        List<Product> products = pageProducts.getContent();
-
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> {
+        Page<ProductDTO> pageProducts = fields != null
+                ? productRepository.findFieldsByCategoryId(categoryId, fields, pageDetails)
+                : productRepository.findByCategory(category, pageDetails).map(product -> {
                     ProductDTO dto = modelMapper.map(product, ProductDTO.class);
                     dto.setCategoryId(category.getCategoryId());
                     dto.setCategoryName(category.getCategoryName());
                     return dto;
-                })
-                .collect(Collectors.toList());
+                });
 
         ProductResponse productResponse = new ProductResponse();
         productResponse.setPageNo(pageProducts.getNumber());
@@ -140,23 +218,63 @@ public class ProductServiceImpl implements ProductService {
         productResponse.setTotalElements(pageProducts.getTotalElements());
         productResponse.setTotalPages(pageProducts.getTotalPages());
         productResponse.setLastPage(pageProducts.isLast());
-        productResponse.setContent(productDTOS);
+        productResponse.setContent(pageProducts.getContent());
         return productResponse;
     }
 
-    @Override
-    public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortDir) {
-        Sort sortByAndOrder = sortDir.equalsIgnoreCase("asc")
-                ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+    private void checkPage(Integer pageNumber, Integer pageSize) {
+        if (pageNumber < 0)
+            throw new APIException("pageNumber must not be negative");
+        if (pageSize < 1)
+            throw new APIException("pageSize must be at least 1");
+    }
 
-        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-        Page<Product> pageProducts = productRepository.findByProductNameLikeIgnoreCase('%' + keyword + '%', pageDetails);
+    // Only index-backed orderings are accepted; productId is appended as tie-breaker to match the composite indexes
+    private Sort productSort(String sortBy, String sortDir) {
+        if (!AppConstants.PRODUCT_SORT_FIELDS.contains(sortBy))
+            throw new APIException("Sorting products by " + sortBy + " is not supported. Use one of " + AppConstants.PRODUCT_SORT_FIELDS);
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortBy);
+        return sortBy.equals(AppConstants.SORT_PRODUCTS_BY) ? sort : sort.and(Sort.by(direction, AppConstants.SORT_PRODUCTS_BY));
+    }
 
-        List<Product> products = pageProducts.getContent();
+    private List<Product> findAllInOrder(long[] productIds) {
+        List<Long> ids = Arrays.stream(productIds).boxed().toList();
+        Map<Long, Product> productsById = productRepository.findByProductIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        // A product deleted since the index answered is simply skipped
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
-        List<ProductDTO> productDTOS = products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
+    private List<ProductDTO> findFieldsInOrder(long[] productIds, ProductFields fields) {
+        List<Long> ids = Arrays.stream(productIds).boxed().toList();
+        Map<Long, ProductDTO> productsById = productRepository.findFieldsByProductIdIn(ids, fields).stream()
+                .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
                 .toList();
+    }
+
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortDir, ProductFields fields) {
+        checkPage(pageNumber, pageSize);
+        Sort sortByAndOrder = productSort(sortBy, sortDir);
+
+        Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
+        Page<ProductDTO> pageProducts = fields != null
+                ? productRepository.findFieldsByProductNameLikeIgnoreCase('%' + keyword + '%', fields, pageDetails)
+                : productRepository.findByProductNameLikeIgnoreCase('%' + keyword + '%', pageDetails)
+                .map(product -> modelMapper.map(product, ProductDTO.class));
+
+        List<ProductDTO> productDTOS = pageProducts.getContent();
+        searchPopularity.record(productDTOS.stream().map(ProductDTO::getProductId).toList());
 
 
 
@@ -170,12 +288,61 @@ public class ProductServiceImpl implements ProductService {
         return productResponse;
     }
 
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFilterResponse filterProducts(ProductFilter filter, Integer pageNumber, Integer pageSize, ProductFields fields) {
+        checkPage(pageNumber, pageSize);
+        FacetResult facetResult = productFacetIndex.filter(filter, pageNumber, pageSize);
+
+        List<ProductDTO> productDTOS = fields != null
+                ? findFieldsInOrder(facetResult.getProductIds(), fields)
+                : findAllInOrder(facetResult.getProductIds()).stream()
+                .map(product -> {
+                    ProductDTO dto = modelMapper.map(product, ProductDTO.class);
+                    dto.setCategoryId(product.getCategory().getCategoryId());
+                    dto.setCategoryName(product.getCategory().getCategoryName());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+
+        int totalPages = (int) ((facetResult.getTotalElements() + pageSize - 1) / pageSize);
+        ProductFilterResponse filterResponse = new ProductFilterResponse();
+        filterResponse.setContent(productDTOS);
+        filterResponse.setPageNo(pageNumber);
+        filterResponse.setPageSize(pageSize);
+        filterResponse.setTotalElements(facetResult.getTotalElements());
+        filterResponse.setTotalPages(totalPages);
+        filterResponse.setLastPage(pageNumber + 1 >= totalPages);
+        filterResponse.setFacets(facetResult.getFacets());
+        return filterResponse;
+    }
+
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductDTO getProduct(Long productId, ProductFields fields) {
+        if (fields != null) {
+            // The version is read for the ETag whether or not it is written
+            return productRepository.findFieldsByProductIdIn(List.of(productId), fields.with("version")).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
+        return modelMapper.map(product, ProductDTO.class);
+    }
+
     @Override
-    public ProductDTO updateProduct( ProductDTO productDTO, Long productId) {
+    @Transactional
+    public ProductDTO updateProduct( ProductDTO productDTO, Long productId, Long expectedVersion) {
         // Get the existing product from DB
         Product productFromDb = productRepository.findById(productId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Product", "productId", productId));
+        // A null expectedVersion (If-Match: *) accepts any version; @Version still catches a concurrent commit at flush
+        if (expectedVersion != null && !expectedVersion.equals(productFromDb.getVersion()))
+            throw new PreconditionFailedException("Product " + productId + " was modified, current version is " + productFromDb.getVersion());
         Product product = modelMapper.map(productDTO, Product.class);
         // UPDATE The product info with the one in request body
         productFromDb.setProductName(product.getProductName());
@@ -183,26 +350,156 @@ public class ProductServiceImpl implements ProductService {
         productFromDb.setQuantity(product.getQuantity());
         productFromDb.setPrice(product.getPrice());
         productFromDb.setDiscount(product.getDiscount());
-        productFromDb.setSpecialPrice(productFromDb.getPrice()
-                - ((productFromDb.getDiscount() * 0.01) * productFromDb.getPrice()));
+        productFromDb.setSpecialPrice(discountCampaignService.specialPrice(productFromDb));
 
-        Product savedProduct = productRepository.save(productFromDb);
-        return modelMapper.map(savedProduct, ProductDTO.class);
+        // Flushed here so the returned version, and with it the ETag, is the new one
+        Product savedProduct = productRepository.saveAndFlush(productFromDb);
+        categoryProductIndex.upsert(savedProduct);
+        productFacetIndex.upsert(savedProduct);
+        productChangeFeed.publishAfterCommit(ProductChange.of(savedProduct));
+        suggestIndex.markDirty();
+        ProductDTO savedProductDTO = modelMapper.map(savedProduct, ProductDTO.class);
+        catalogOutbox.append(OutboxEvent.PRODUCT, productId, OutboxOperation.UPDATED, savedProductDTO);
+        return savedProductDTO;
 
 
         // save to database
 
     }
 
+    /**
+     * Applies every valid item in one transaction. Products are loaded per chunk with one IN query and written back
+     * with one JDBC batch per chunk. Product uses dynamic updates, which Hibernate does not batch, so this path
+     * writes one fixed statement shape instead. Invalid, missing and conflicting items are reported and skipped.
+     */
     @Override
+    @Transactional
+    public ProductBatchResponse updateProducts(List<ProductPatch> patches) {
+        if (patches == null || patches.isEmpty())
+            throw new APIException("No product updates given");
+        if (patches.size() > AppConstants.MAX_BATCH_UPDATE)
+            throw new APIException("At most " + AppConstants.MAX_BATCH_UPDATE + " product updates per request, got " + patches.size());
+
+        ProductPatchResult[] results = new ProductPatchResult[patches.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < patches.size(); i++) {
+            ProductPatch patch = patches.get(i);
+            String problem = validate(patch);
+            if (problem == null && !seen.add(patch.getProductId()))
+                problem = "Product " + patch.getProductId() + " appears more than once";
+            if (problem != null)
+                results[i] = new ProductPatchResult(patch == null ? null : patch.getProductId(), ProductPatchResult.INVALID, problem, null);
+            else
+                pending.add(i);
+        }
+
+        List<Product> updatedProducts = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += AppConstants.BATCH_LOAD_CHUNK) {
+            List<Integer> chunk = pending.subList(from, Math.min(pending.size(), from + AppConstants.BATCH_LOAD_CHUNK));
+            Map<Long, Product> productsById = productRepository.findByProductIdIn(
+                            chunk.stream().map(i -> patches.get(i).getProductId()).toList()).stream()
+                    .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+            // Written through JDBC below, the loaded entities must not be flushed as well
+            entityManager.clear();
+
+            List<Integer> applied = new ArrayList<>();
+            List<Object[]> rows = new ArrayList<>();
+            for (int i : chunk) {
+                ProductPatch patch = patches.get(i);
+                Product product = productsById.get(patch.getProductId());
+                if (product == null) {
+                    results[i] = new ProductPatchResult(patch.getProductId(), ProductPatchResult.NOT_FOUND,
+                            "Product not found with productId: " + patch.getProductId(), null);
+                } else if (patch.getVersion() != null && !patch.getVersion().equals(product.getVersion())) {
+                    results[i] = new ProductPatchResult(patch.getProductId(), ProductPatchResult.CONFLICT,
+                            "Product " + patch.getProductId() + " was modified, current version is " + product.getVersion(), product.getVersion());
+                } else {
+                    apply(patch, product);
+                    applied.add(i);
+                    rows.add(new Object[]{product.getProductName(), product.getDescription(), product.getQuantity(),
+                            product.getPrice(), product.getDiscount(), product.getSpecialPrice(),
+                            product.getProductId(), product.getVersion()});
+                }
+            }
+
+            int[] counts = jdbcTemplate.batchUpdate("update products set product_name = ?, description = ?, quantity = ?, "
+                    + "price = ?, discount = ?, special_price = ?, version = version + 1 where product_id = ? and version = ?", rows);
+            for (int k = 0; k < applied.size(); k++) {
+                int i = applied.get(k);
+                Product product = productsById.get(patches.get(i).getProductId());
+                // 0 rows: a reservation or another editor changed the product after it was loaded
+                if (counts[k] == 0) {
+                    results[i] = new ProductPatchResult(product.getProductId(), ProductPatchResult.CONFLICT,
+                            "Product " + product.getProductId() + " was modified concurrently", null);
+                    continue;
+                }
+                product.setVersion(product.getVersion() + 1);
+                updatedProducts.add(product);
+                results[i] = new ProductPatchResult(product.getProductId(), ProductPatchResult.UPDATED, null, product.getVersion());
+            }
+        }
+
+        categoryProductIndex.upsertAll(updatedProducts);
+        updatedProducts.forEach(product -> {
+            productFacetIndex.upsert(product);
+            productChangeFeed.publishAfterCommit(ProductChange.of(product));
+        });
+        if (!updatedProducts.isEmpty())
+            suggestIndex.markDirty();
+        catalogOutbox.appendAll(OutboxEvent.PRODUCT, OutboxOperation.UPDATED, updatedProducts.stream()
+                .collect(Collectors.toMap(Product::getProductId, product -> modelMapper.map(product, ProductDTO.class),
+                        (first, second) -> first, LinkedHashMap::new)));
+
+        return new ProductBatchResponse(updatedProducts.size(), patches.size() - updatedProducts.size(), Arrays.asList(results));
+    }
+
+    private static String validate(ProductPatch patch) {
+        if (patch == null || patch.getProductId() == null)
+            return "productId is required";
+        if (patch.getProductName() != null && patch.getProductName().isBlank())
+            return "productName must not be blank";
+        if (patch.getQuantity() != null && patch.getQuantity() < 0)
+            return "quantity must not be negative";
+        if (patch.getPrice() != null && patch.getPrice() < 0)
+            return "price must not be negative";
+        if (patch.getDiscount() != null && (patch.getDiscount() < 0 || patch.getDiscount() > 100))
+            return "discount must be between 0 and 100";
+        return null;
+    }
+
+    private void apply(ProductPatch patch, Product product) {
+        if (patch.getProductName() != null)
+            product.setProductName(patch.getProductName());
+        if (patch.getDescription() != null)
+            product.setDescription(patch.getDescription());
+        if (patch.getQuantity() != null)
+            product.setQuantity(patch.getQuantity());
+        if (patch.getPrice() != null)
+            product.setPrice(patch.getPrice());
+        if (patch.getDiscount() != null)
+            product.setDiscount(patch.getDiscount());
+        product.setSpecialPrice(discountCampaignService.specialPrice(product));
+    }
+
+    @Override
+    @Transactional
     public ProductDTO deleteProduct(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
         productRepository.delete(product);
-        return modelMapper.map(product, ProductDTO.class);
+        categoryProductIndex.remove(product);
+        productFacetIndex.remove(product);
+        productChangeFeed.publishAfterCommit(ProductChange.deleted(productId));
+        searchPopularity.forget(productId);
+        suggestIndex.markDirty();
+        ProductDTO deletedProductDTO = modelMapper.map(product, ProductDTO.class);
+        catalogOutbox.append(OutboxEvent.PRODUCT, productId, OutboxOperation.DELETED, deletedProductDTO);
+        return deletedProductDTO;
     }
 
     @Override
+    @Transactional
     public ProductDTO updateProductImage(Long productId, MultipartFile image) throws IOException {
         // Get the product from DB
         Product productFromDb = productRepository.findById(productId)
@@ -218,7 +515,9 @@ public class ProductServiceImpl implements ProductService {
         Product updatedProduct = productRepository.save(productFromDb);
 
         // return DTO after mapping product to DTO
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        ProductDTO updatedProductDTO = modelMapper.map(updatedProduct, ProductDTO.class);
+        catalogOutbox.append(OutboxEvent.PRODUCT, productId, OutboxOperation.UPDATED, updatedProductDTO);
+        return updatedProductDTO;
     }
 
 
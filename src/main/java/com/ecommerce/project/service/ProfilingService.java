@@ -0,0 +1,16 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.RecordingDTO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface ProfilingService {
+    RecordingDTO startRecording(Long maxAgeSeconds, Long maxSizeMb, String settings);
+
+    RecordingDTO stopRecording();
+
+    RecordingDTO getRecording();
+
+    Path dumpRecording() throws IOException;
+}
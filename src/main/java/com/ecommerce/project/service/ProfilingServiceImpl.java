@@ -0,0 +1,136 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.payload.RecordingDTO;
+import com.ecommerce.project.profiling.FileUploadEvent;
+import com.ecommerce.project.profiling.JwtEvent;
+import com.ecommerce.project.profiling.PasswordEncoderEvent;
+import com.ecommerce.project.profiling.ServiceCallEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Keeps at most one flight recording of this JVM. Recordings are bounded by age and size so one left running
+ * only holds the most recent window, and the custom application events are always enabled on top of the chosen
+ * JDK settings ("default" is meant for always-on use, "profile" samples more and costs a little more).
+ */
+@Service
+public class ProfilingServiceImpl implements ProfilingService {
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    @Value("${project.jfr.max-age-seconds}")
+    private long maxAgeLimitSeconds;
+
+    @Value("${project.jfr.max-size-mb}")
+    private long maxSizeLimitMb;
+
+    private Recording recording;
+    private String settings;
+
+    // Last dump handed out; its download normally deletes it, the next dump or shutdown does when it never ran
+    private Path pendingDump;
+
+    @Override
+    public synchronized RecordingDTO startRecording(Long maxAgeSeconds, Long maxSizeMb, String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new APIException("A flight recording is already running, stop it first");
+        }
+        if (!SETTINGS.contains(settings)) {
+            throw new APIException("Unknown recording settings: " + settings + ", use one of " + SETTINGS);
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new APIException("Recording settings " + settings + " could not be loaded: " + e.getMessage());
+        }
+        if (recording != null) {
+            recording.close();
+        }
+
+        recording = new Recording(configuration);
+        recording.setName("sb-ecom");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(bounded(maxAgeSeconds, maxAgeLimitSeconds)));
+        recording.setMaxSize(bounded(maxSizeMb, maxSizeLimitMb) * 1024 * 1024);
+        recording.enable(ServiceCallEvent.class);
+        recording.enable(JwtEvent.class);
+        recording.enable(PasswordEncoderEvent.class);
+        recording.enable(FileUploadEvent.class);
+        recording.start();
+        this.settings = settings;
+        return toDTO();
+    }
+
+    @Override
+    public synchronized RecordingDTO stopRecording() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new APIException("No flight recording is running");
+        }
+        recording.stop();
+        return toDTO();
+    }
+
+    @Override
+    public synchronized RecordingDTO getRecording() {
+        if (recording == null) {
+            throw new APIException("No flight recording has been started");
+        }
+        return toDTO();
+    }
+
+    /**
+     * Writes the recorded data to a temporary file the caller should delete. A running recording keeps running.
+     * At most one dump is left behind: the previous one is deleted here, the last one on shutdown.
+     */
+    @Override
+    public synchronized Path dumpRecording() throws IOException {
+        if (recording == null
+                || (recording.getState() != RecordingState.RUNNING && recording.getState() != RecordingState.STOPPED)) {
+            throw new APIException("No flight recording to dump");
+        }
+        deletePendingDump();
+        Path file = Files.createTempFile("sb-ecom-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        pendingDump = file;
+        return file;
+    }
+
+    @PreDestroy
+    private synchronized void deletePendingDump() throws IOException {
+        if (pendingDump != null) {
+            Files.deleteIfExists(pendingDump);
+            pendingDump = null;
+        }
+    }
+
+    private RecordingDTO toDTO() {
+        Instant end = recording.getStopTime() == null ? Instant.now() : recording.getStopTime();
+        return new RecordingDTO(recording.getId(), recording.getState().name(), settings,
+                recording.getStartTime(), Duration.between(recording.getStartTime(), end).toSeconds(),
+                recording.getMaxAge().toSeconds(), recording.getMaxSize(), recording.getSize());
+    }
+
+    private static long bounded(Long requested, long limit) {
+        return requested == null || requested <= 0 ? limit : Math.min(requested, limit);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.PromotionDTO;
+import com.ecommerce.project.payload.QuoteRequest;
+import com.ecommerce.project.payload.QuoteResponse;
+
+import java.util.List;
+
+public interface PromotionService {
+    PromotionDTO createPromotion(PromotionDTO promotionDTO);
+
+    List<PromotionDTO> getPromotions();
+
+    PromotionDTO updatePromotion(PromotionDTO promotionDTO, Long promotionId);
+
+    PromotionDTO deletePromotion(Long promotionId);
+
+    QuoteResponse quote(QuoteRequest quoteRequest);
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.config.AppConstants;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.DiscountType;
+import com.ecommerce.project.model.Promotion;
+import com.ecommerce.project.payload.PromotionDTO;
+import com.ecommerce.project.payload.QuoteItem;
+import com.ecommerce.project.payload.QuoteLine;
+import com.ecommerce.project.payload.QuoteRequest;
+import com.ecommerce.project.payload.QuoteResponse;
+import com.ecommerce.project.promotion.CompiledPromotions;
+import com.ecommerce.project.promotion.PricedProduct;
+import com.ecommerce.project.promotion.PromotionEngine;
+import com.ecommerce.project.promotion.PromotionMatch;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.repository.PromotionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class PromotionServiceImpl implements PromotionService {
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PromotionEngine promotionEngine;
+
+    @Override
+    @Transactional
+    public PromotionDTO createPromotion(PromotionDTO promotionDTO) {
+        validate(promotionDTO);
+        Promotion promotion = new Promotion();
+        apply(promotionDTO, promotion);
+        Promotion savedPromotion = promotionRepository.save(promotion);
+        promotionEngine.reloadAfterCommit();
+        return toDTO(savedPromotion);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PromotionDTO> getPromotions() {
+        return promotionRepository.findAll(Sort.by("promotionId")).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public PromotionDTO updatePromotion(PromotionDTO promotionDTO, Long promotionId) {
+        validate(promotionDTO);
+        Promotion promotion = promotionRepository.findById(promotionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Promotion", "promotionId", promotionId));
+        apply(promotionDTO, promotion);
+        promotionEngine.reloadAfterCommit();
+        return toDTO(promotion);
+    }
+
+    @Override
+    @Transactional
+    public PromotionDTO deletePromotion(Long promotionId) {
+        Promotion promotion = promotionRepository.findById(promotionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Promotion", "promotionId", promotionId));
+        promotionRepository.delete(promotion);
+        promotionEngine.reloadAfterCommit();
+        return toDTO(promotion);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public QuoteResponse quote(QuoteRequest quoteRequest) {
+        List<QuoteItem> items = quoteRequest.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new APIException("A quote needs at least one item");
+        }
+        if (items.size() > AppConstants.MAX_QUOTE_ITEMS) {
+            throw new APIException("A quote accepts at most " + AppConstants.MAX_QUOTE_ITEMS + " items");
+        }
+        Set<Long> productIds = new HashSet<>();
+        for (QuoteItem item : items) {
+            if (item.getProductId() == null || item.getQuantity() <= 0) {
+                throw new APIException("Every quote item needs a productId and a positive quantity");
+            }
+            productIds.add(item.getProductId());
+        }
+        Map<Long, PricedProduct> products = productRepository.findPricedByIds(productIds).stream()
+                .collect(Collectors.toMap(PricedProduct::getProductId, Function.identity()));
+
+        // One snapshot for the whole quote, so a concurrent promotion change cannot split it
+        CompiledPromotions promotions = promotionEngine.current();
+        String couponKey = CompiledPromotions.couponKey(quoteRequest.getCouponCode());
+
+        List<QuoteLine> lines = new ArrayList<>(items.size());
+        double subtotal = 0;
+        double discount = 0;
+        for (QuoteItem item : items) {
+            PricedProduct product = products.get(item.getProductId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product", "productId", item.getProductId());
+            }
+            PromotionMatch match = promotions.evaluate(product.getProductId(), product.getCategoryId(),
+                    product.getSellerId(), item.getQuantity(), product.getSpecialPrice(), couponKey);
+            double lineSubtotal = product.getSpecialPrice() * item.getQuantity();
+            double lineDiscount = match.getUnitDiscount() * item.getQuantity();
+            lines.add(new QuoteLine(product.getProductId(), product.getProductName(), item.getQuantity(),
+                    product.getSpecialPrice(), match.getUnitDiscount(), lineSubtotal - lineDiscount,
+                    Arrays.stream(match.getPromotionIds()).boxed().toList()));
+            subtotal += lineSubtotal;
+            discount += lineDiscount;
+        }
+        return new QuoteResponse(lines, subtotal, discount, subtotal - discount);
+    }
+
+    private static void validate(PromotionDTO promotionDTO) {
+        if (promotionDTO.getName() == null || promotionDTO.getName().isBlank())
+            throw new APIException("Promotion name is required");
+        if (promotionDTO.getDiscountType() == null || promotionDTO.getAmount() == null || promotionDTO.getAmount() <= 0)
+            throw new APIException("Promotion discountType and a positive amount are required");
+        if (promotionDTO.getDiscountType() == DiscountType.PERCENTAGE && promotionDTO.getAmount() > 100)
+            throw new APIException("A percentage discount cannot exceed 100");
+        if (promotionDTO.getMinQuantity() < 1)
+            throw new APIException("Promotion minQuantity must be at least 1");
+    }
+
+    private static void apply(PromotionDTO promotionDTO, Promotion promotion) {
+        promotion.setName(promotionDTO.getName());
+        promotion.setCouponCode(CompiledPromotions.couponKey(promotionDTO.getCouponCode()));
+        promotion.setProductId(promotionDTO.getProductId());
+        promotion.setCategoryId(promotionDTO.getCategoryId());
+        promotion.setSellerId(promotionDTO.getSellerId());
+        promotion.setMinQuantity(promotionDTO.getMinQuantity());
+        promotion.setDiscountType(promotionDTO.getDiscountType());
+        promotion.setAmount(promotionDTO.getAmount());
+        promotion.setStackable(promotionDTO.isStackable());
+        promotion.setActive(promotionDTO.isActive());
+        promotion.getExcludedProductIds().clear();
+        if (promotionDTO.getExcludedProductIds() != null) {
+            promotion.getExcludedProductIds().addAll(promotionDTO.getExcludedProductIds());
+        }
+    }
+
+    private PromotionDTO toDTO(Promotion promotion) {
+        return new PromotionDTO(promotion.getPromotionId(), promotion.getName(), promotion.getCouponCode(),
+                promotion.getProductId(), promotion.getCategoryId(), promotion.getSellerId(),
+                promotion.getMinQuantity(), promotion.getDiscountType(), promotion.getAmount(),
+                promotion.isStackable(), promotion.isActive(), new HashSet<>(promotion.getExcludedProductIds()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.SuggestionDTO;
+
+import java.util.List;
+
+public interface SuggestService {
+    List<SuggestionDTO> suggest(String query, Integer limit);
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.index.SuggestIndex;
+import com.ecommerce.project.payload.SuggestionDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class SuggestServiceImpl implements SuggestService {
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Override
+    public List<SuggestionDTO> suggest(String query, Integer limit) {
+        return suggestIndex.suggest(query, limit).stream()
+                .map(suggestion -> new SuggestionDTO(suggestion.getText(), suggestion.getType(), suggestion.getId()))
+                .toList();
+    }
+}
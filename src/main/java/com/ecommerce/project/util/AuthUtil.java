@@ -0,0 +1,22 @@
+package com.ecommerce.project.util;
+
+import com.ecommerce.project.security.services.UserDetailsImpl;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuthUtil {
+
+    /**
+     * The id of the signed-in user, taken from the security context without a query.
+     */
+    public Long loggedInUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl userDetails)) {
+            throw new AuthenticationCredentialsNotFoundException("Sign in to use the cart");
+        }
+        return userDetails.getId();
+    }
+}
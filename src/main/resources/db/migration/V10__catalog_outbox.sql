@@ -0,0 +1,28 @@
+-- Catalog changes written in the transaction of the change itself, drained by OutboxRelay. Rows get their position
+-- once committed, so positions follow commit order and a subscriber offset never passes a change still in flight.
+create table catalog_outbox (
+    event_id bigint generated by default as identity,
+    position bigint,
+    aggregate_type varchar(50) not null,
+    aggregate_id bigint not null,
+    operation varchar(20) not null check (operation in ('CREATED', 'UPDATED', 'DELETED')),
+    payload varchar(4000),
+    created_at timestamp(6) with time zone not null,
+    primary key (event_id),
+    unique (position)
+);
+
+-- Committed rows still waiting for a position
+create index idx_catalog_outbox_unsequenced on catalog_outbox (position, event_id);
+
+-- Positions are never reused, even after the events holding the highest ones are deleted
+create sequence catalog_outbox_position_seq;
+
+-- Position of the last event each subscriber handled
+create table outbox_offsets (
+    subscriber varchar(100) not null,
+    last_position bigint not null,
+    last_error varchar(1000),
+    updated_at timestamp(6) with time zone not null,
+    primary key (subscriber)
+);
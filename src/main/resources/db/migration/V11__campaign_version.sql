@@ -0,0 +1,3 @@
+-- @Version for discount campaigns: endCampaign edits the row while the poll moves its status, neither may
+-- overwrite the other.
+alter table discount_campaigns add column version bigint default 0 not null;
@@ -0,0 +1,5 @@
+-- Set with the category's deleted_at, so product reads filter on their own row instead of looking up categories
+alter table products add column category_deleted boolean default false not null;
+
+update products set category_deleted = true
+where category_id in (select category_id from categories where deleted_at is not null);
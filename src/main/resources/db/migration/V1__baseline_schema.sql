@@ -0,0 +1,67 @@
+-- Baseline matching the schema Hibernate generated from the entities with ddl-auto=update
+
+create sequence products_seq start with 1 increment by 50;
+
+create table addresses (
+    address_id bigint generated by default as identity,
+    building varchar(255),
+    city varchar(255),
+    country varchar(255),
+    pincode varchar(255),
+    state varchar(255),
+    street varchar(255),
+    primary key (address_id)
+);
+
+create table categories (
+    category_id bigint generated by default as identity,
+    category_name varchar(255),
+    primary key (category_id)
+);
+
+create table roles (
+    role_id integer generated by default as identity,
+    role_name varchar(20) check (role_name in ('ROLE_USER', 'ROLE_SELLER', 'ROLE_ADMIN')),
+    primary key (role_id)
+);
+
+create table users (
+    user_id bigint generated by default as identity,
+    email varchar(255),
+    password varchar(255),
+    username varchar(255),
+    primary key (user_id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_username unique (username)
+);
+
+create table products (
+    product_id bigint not null,
+    description varchar(255),
+    discount float(53) not null,
+    image varchar(255),
+    price float(53) not null,
+    product_name varchar(255),
+    quantity integer,
+    special_price float(53) not null,
+    category_id bigint,
+    seller_id bigint,
+    primary key (product_id),
+    constraint fk_products_category foreign key (category_id) references categories,
+    constraint fk_products_seller foreign key (seller_id) references users
+);
+
+create table user_address (
+    user_id bigint not null,
+    address_id bigint not null,
+    constraint fk_user_address_user foreign key (user_id) references users,
+    constraint fk_user_address_address foreign key (address_id) references addresses
+);
+
+create table user_role (
+    user_id bigint not null,
+    role_id integer not null,
+    primary key (user_id, role_id),
+    constraint fk_user_role_user foreign key (user_id) references users,
+    constraint fk_user_role_role foreign key (role_id) references roles
+);
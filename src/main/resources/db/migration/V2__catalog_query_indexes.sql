@@ -0,0 +1,23 @@
+-- Indexes for the ProductRepository / CategoryRepository query shapes and for every sort in
+-- AppConstants.PRODUCT_SORT_FIELDS and CATEGORY_SORT_FIELDS. product_id is the trailing column because
+-- ProductServiceImpl appends it as tie-breaker to every product sort.
+
+-- findAll(Pageable) and findByProductNameLikeIgnoreCase ordered by each sort field (productId uses the primary key)
+create index idx_products_name on products (product_name, product_id);
+create index idx_products_price on products (price, product_id);
+create index idx_products_special_price on products (special_price, product_id);
+create index idx_products_discount on products (discount, product_id);
+
+-- findByCategory(Category, Pageable). Category pages sorted by price, specialPrice or discount are served by
+-- CategoryProductIndex, so only productId and productName get a composite index here.
+create index idx_products_category on products (category_id, product_id);
+create index idx_products_category_name on products (category_id, product_name, product_id);
+
+-- Product.user (seller) join
+create index idx_products_seller on products (seller_id);
+
+-- CategoryRepository.findByCategoryName and the categoryName sort
+create index idx_categories_name on categories (category_name, category_id);
+
+-- RoleRepository.findByRoleName
+create index idx_roles_name on roles (role_name);
@@ -0,0 +1,4 @@
+-- @Version columns for optimistic locking of admin edits, exposed as ETags. Existing rows and rows inserted
+-- through JDBC (seeders, data generator) start at version 0.
+alter table products add column version bigint default 0 not null;
+alter table categories add column version bigint default 0 not null;
@@ -0,0 +1,20 @@
+-- Discount campaigns reprice products with set-based updates. A product belongs to at most one running campaign,
+-- marked by products.campaign_id, so a campaign reverts exactly the products it repriced.
+create table discount_campaigns (
+    campaign_id bigint generated by default as identity,
+    name varchar(255),
+    scope varchar(20) check (scope in ('CATEGORY', 'SELLER')),
+    scope_id bigint,
+    discount_type varchar(20) check (discount_type in ('PERCENTAGE', 'ABSOLUTE')),
+    amount float(53) not null,
+    starts_at timestamp(6) with time zone,
+    ends_at timestamp(6) with time zone,
+    status varchar(20) check (status in ('SCHEDULED', 'APPLYING', 'ACTIVE', 'REVERTING', 'ENDED')),
+    products_repriced bigint not null,
+    primary key (campaign_id)
+);
+
+create index idx_discount_campaigns_status on discount_campaigns (status);
+
+alter table products add column campaign_id bigint;
+create index idx_products_campaign on products (campaign_id);
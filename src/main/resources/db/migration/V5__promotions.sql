@@ -0,0 +1,23 @@
+-- Promotions and coupons evaluated at quote time. A promotion without product, category or seller applies to every
+-- product; a coupon promotion only applies when its code is presented.
+create table promotions (
+    promotion_id bigint generated by default as identity,
+    name varchar(255),
+    coupon_code varchar(64),
+    product_id bigint,
+    category_id bigint,
+    seller_id bigint,
+    min_quantity integer not null,
+    discount_type varchar(20) check (discount_type in ('PERCENTAGE', 'ABSOLUTE')),
+    amount float(53) not null,
+    stackable boolean not null,
+    active boolean not null,
+    primary key (promotion_id)
+);
+
+create table promotion_exclusions (
+    promotion_id bigint not null,
+    product_id bigint not null,
+    primary key (promotion_id, product_id),
+    constraint fk_promotion_exclusions_promotion foreign key (promotion_id) references promotions on delete cascade
+);
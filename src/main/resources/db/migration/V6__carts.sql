@@ -0,0 +1,19 @@
+-- Carts live in memory and are written behind: every flush replaces the rows of the carts changed since the last one.
+-- An emptied cart keeps its carts row so its version is not reused.
+-- The tables are only read on startup to recover the carts.
+create table carts (
+    user_id bigint not null,
+    version bigint not null,
+    updated_at timestamp(6) with time zone,
+    primary key (user_id),
+    constraint fk_carts_user foreign key (user_id) references users
+);
+
+create table cart_items (
+    user_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    unit_price float(53) not null,
+    primary key (user_id, product_id),
+    constraint fk_cart_items_cart foreign key (user_id) references carts on delete cascade
+);
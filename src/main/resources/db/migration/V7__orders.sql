@@ -0,0 +1,28 @@
+-- Orders are written in micro-batches with JDBC, so ids come from a sequence handed out in blocks rather than from
+-- an identity column. (user_id, idempotency_key) is unique: a retried checkout finds the order it already placed.
+-- Order items keep the price paid and no foreign key to products, so deleting a product keeps the order history.
+create sequence orders_seq start with 1 increment by 100;
+
+create table orders (
+    order_id bigint not null,
+    user_id bigint not null,
+    address_id bigint not null,
+    idempotency_key varchar(255) not null,
+    request_hash varchar(64) not null,
+    status varchar(20) check (status in ('PLACED')),
+    total_amount float(53) not null,
+    created_at timestamp(6) with time zone,
+    primary key (order_id),
+    constraint uk_orders_idempotency_key unique (user_id, idempotency_key),
+    constraint fk_orders_user foreign key (user_id) references users,
+    constraint fk_orders_address foreign key (address_id) references addresses
+);
+
+create table order_items (
+    order_id bigint not null,
+    product_id bigint not null,
+    quantity integer not null,
+    ordered_price float(53) not null,
+    primary key (order_id, product_id),
+    constraint fk_order_items_order foreign key (order_id) references orders
+);
@@ -0,0 +1,5 @@
+-- Deleted categories are hidden at once and removed with their products by CategoryPurger
+alter table categories add column deleted_at timestamp(6);
+
+-- The purge checks whether another product still uses an image before removing the file
+create index idx_products_image on products (image);
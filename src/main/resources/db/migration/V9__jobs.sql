@@ -0,0 +1,28 @@
+-- Background jobs run by JobRunner. A job advances chunk by chunk; checkpoint is written in the transaction of the
+-- chunk it follows, so a job picked up again after a restart continues after its last committed chunk.
+create table jobs (
+    job_id bigint generated by default as identity,
+    type varchar(100) not null,
+    payload varchar(4000),
+    status varchar(20) not null check (status in ('QUEUED', 'RUNNING', 'SUCCEEDED', 'FAILED', 'CANCELLED')),
+    checkpoint varchar(255),
+    items_total bigint,
+    items_done bigint not null,
+    attempts integer not null,
+    last_error varchar(1000),
+    cancel_requested boolean not null,
+    next_attempt_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    started_at timestamp(6) with time zone,
+    finished_at timestamp(6) with time zone,
+    primary key (job_id)
+);
+
+-- Due jobs are claimed in order
+create index idx_jobs_status on jobs (status, next_attempt_at, job_id);
+create index idx_jobs_type_payload on jobs (type, payload);
+
+-- Categories deleted before purges ran as jobs
+insert into jobs (type, payload, status, items_done, attempts, cancel_requested, next_attempt_at, created_at)
+select 'category-purge', cast(category_id as varchar), 'QUEUED', 0, 0, false, current_timestamp, current_timestamp
+from categories where deleted_at is not null;
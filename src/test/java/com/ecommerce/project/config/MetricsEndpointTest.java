@@ -0,0 +1,46 @@
+package com.ecommerce.project.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpointExposesApplicationMetrics() throws Exception {
+        mockMvc.perform(post("/api/public/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryName\":\"Metrics\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/public/categories")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{application=\"sb-ecom\"")
+                .contains("uri=\"/api/public/categories\"")
+                .contains("spring_data_repository_invocations_seconds")
+                .contains("repository=\"CategoryRepository\"")
+                .contains("hibernate_query_executions_total")
+                .contains("hikaricp_connections_active")
+                .contains("jvm_gc_memory_allocated_bytes_total")
+                .contains("catalog_index_entries{application=\"sb-ecom\",index=\"facet\"");
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.project.config;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.service.CategoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two unrelated in-memory H2 databases stand in for primary and replica. Nothing replicates between them, so a
+ * read finding the category written to the primary proves it was routed to the primary.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "project.datasource.replica.url=jdbc:h2:mem:routing-replica",
+        "project.datasource.replica.username=sa",
+        "project.datasource.replica.password=",
+        "project.datasource.replica.migrate=true"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyMethodsReadFromReplica() {
+        categoryService.createCategory(new CategoryDTO(null, "Replica routing", null));
+        // As ReadYourWritesFilter does once the writing request completes
+        ReplicaRoutingContext.clear();
+
+        assertThatThrownBy(() -> categoryService.getAllCategories(0, 10, "categoryId", "asc"))
+                .isInstanceOf(APIException.class);
+    }
+
+    @Test
+    void readsAfterWriteInSameRequestStayOnPrimary() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        categoryService.createCategory(new CategoryDTO(null, "Read your writes", null));
+        CategoryResponse categories = categoryService.getAllCategories(0, 10, "categoryId", "asc");
+
+        assertThat(categories.getContent()).extracting(CategoryDTO::getCategoryName).contains("Read your writes");
+    }
+}
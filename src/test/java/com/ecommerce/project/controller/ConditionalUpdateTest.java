@@ -0,0 +1,87 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.jdbc.StatementCounter;
+import com.ecommerce.project.jdbc.StatementStats;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditional-update")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConditionalUpdateTest {
+
+    private static final String PRODUCT = "{\"productName\":\"Versioned product\",\"description\":\"d\","
+            + "\"quantity\":5,\"price\":100,\"discount\":10}";
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 3, 10);
+    }
+
+    @Test
+    void productUpdatesRequireTheCurrentETag() throws Exception {
+        mockMvc.perform(get("/api/public/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+        mockMvc.perform(get("/api/public/products/1").header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/admin/products/1").contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+                .andExpect(status().isPreconditionRequired());
+
+        mockMvc.perform(put("/api/admin/products/1").header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // A second editor still holding version 0 loses instead of overwriting
+        mockMvc.perform(put("/api/admin/products/1").header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void categoryRenameWritesOnlyTheChangedColumn() throws Exception {
+        StatementStats stats = StatementCounter.measure(() -> {
+            try {
+                mockMvc.perform(put("/api/public/categories/2").header("If-Match", "\"0\"")
+                                .contentType(MediaType.APPLICATION_JSON).content("{\"categoryName\":\"Renamed category\"}"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"1\""));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Load, versioned update and outbox event, no merge select of a detached copy
+        assertThat(stats.getCount()).isEqualTo(3);
+        assertThat(stats.getShapes()).containsKey(
+                "update categories set category_name=?,version=? where category_id=? and version=?");
+
+        mockMvc.perform(put("/api/public/categories/2").header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"categoryName\":\"Renamed again\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+}
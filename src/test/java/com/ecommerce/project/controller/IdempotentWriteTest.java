@@ -0,0 +1,143 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.support.CatalogSeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotent-write")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IdempotentWriteTest {
+
+    private static final String PRODUCT = "{\"productName\":\"Retried product\",\"description\":\"d\","
+            + "\"quantity\":5,\"price\":100,\"discount\":10}";
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 3, 10);
+    }
+
+    @Test
+    void retriedCreateIsReplayedInsteadOfFailingOnTheName() throws Exception {
+        String category = "{\"categoryName\":\"Retried category\"}";
+        MvcResult first = mockMvc.perform(post("/api/public/categories").header("Idempotency-Key", "category-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(category))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+
+        mockMvc.perform(post("/api/public/categories").header("Idempotency-Key", "category-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(category))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.categoryId").value(categoryId(first)));
+
+        // Without a key it is a second create
+        mockMvc.perform(post("/api/public/categories").contentType(MediaType.APPLICATION_JSON).content(category))
+                .andExpect(status().isNotFound());
+        // The key belongs to the first request
+        mockMvc.perform(post("/api/public/categories").header("Idempotency-Key", "category-1")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"categoryName\":\"Another category\"}"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(delete("/api/admin/categories/1").header("Idempotency-Key", "category-1"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        int before = products();
+        int attempts = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MvcResult>> results = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return mockMvc.perform(post("/api/admin/categories/1/product").header("Idempotency-Key", "product-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(PRODUCT)).andReturn();
+            }));
+        }
+        start.countDown();
+
+        Set<Object> productIds = new HashSet<>();
+        for (Future<MvcResult> result : results) {
+            MvcResult response = result.get();
+            assertThat(response.getResponse().getStatus()).isEqualTo(201);
+            productIds.add(objectMapper.readTree(response.getResponse().getContentAsString()).get("productId").asLong());
+        }
+        executor.shutdown();
+
+        assertThat(productIds).hasSize(1);
+        assertThat(products()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void failedWritesAreNotReplayed() throws Exception {
+        // Stale If-Match, the retry runs again and succeeds once the ETag is right
+        mockMvc.perform(put("/api/admin/products/2").header("Idempotency-Key", "update-1").header("If-Match", "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/admin/products/2").header("Idempotency-Key", "update-1").header("If-Match", "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/admin/products/2").header("Idempotency-Key", "update-2").header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+        // The retry of a committed update is not turned into a 412 by the version it bumped
+        mockMvc.perform(put("/api/admin/products/2").header("Idempotency-Key", "update-2").header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    private int products() {
+        return jdbcTemplate.queryForObject("select count(*) from products", Integer.class);
+    }
+
+    private long categoryId(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("categoryId").asLong();
+    }
+}
@@ -0,0 +1,253 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.feed.ProductChange;
+import com.ecommerce.project.feed.ProductChangeFeed;
+import com.ecommerce.project.model.CampaignScope;
+import com.ecommerce.project.model.DiscountType;
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.payload.DiscountCampaignDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.service.CategoryService;
+import com.ecommerce.project.service.DiscountCampaignServiceImpl;
+import com.ecommerce.project.service.ProductService;
+import com.ecommerce.project.support.CatalogSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-change-feed",
+        "project.feed.buffer-size=16",
+        "project.feed.coalesce-ms=300",
+        "project.campaign.poll-ms=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductChangeFeedTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DiscountCampaignServiceImpl discountCampaignService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    // Closed only after all tests: a stream dropped mid-test is noticed by a failing write on a sender thread, and
+    // the embedded Tomcat of this build can then break the next connection
+    private final List<Stream> streams = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 3, 50);
+    }
+
+    @AfterAll
+    void closeStreams() throws IOException {
+        for (Stream stream : streams) {
+            stream.close();
+        }
+    }
+
+    @Test
+    void burstOfUpdatesArrivesAsOneEventAndResumes() throws Exception {
+        Stream stream = open(null);
+        for (double price = 101; price <= 105; price++) {
+            update(1L, price);
+        }
+        // Five updates, coalesced into one event or two when the burst straddles a flush
+        Event event = stream.next();
+        JsonNode change = objectMapper.readTree(event.data());
+        if (change.get("price").asDouble() != 105) {
+            event = stream.next();
+            change = objectMapper.readTree(event.data());
+        }
+        assertThat(event.name()).isEqualTo("product");
+        assertThat(change.get("productId").asLong()).isEqualTo(1);
+        assertThat(change.get("price").asDouble()).isEqualTo(105);
+        assertThat(change.get("version").asLong()).isEqualTo(5);
+        assertThat(stream.poll(700)).isNull();
+
+        update(2L, 200);
+        assertThat(productId(stream.next())).isEqualTo(2);
+
+        // A client that only saw the first event catches up on reconnect
+        Event missed = open(event.id()).next();
+        assertThat(missed.name()).isEqualTo("product");
+        assertThat(productId(missed)).isEqualTo(2);
+    }
+
+    @Test
+    void subscribersTooFarBehindAreToldToReload() throws Exception {
+        Stream stream = open(null);
+        update(3L, 300);
+        String lastSeen = stream.next().id();
+
+        // More changes than the ring holds, each flushed as its own event
+        for (long productId = 10; productId < 30; productId++) {
+            productChangeFeed.publish(ProductChange.stock(productId, 1));
+            Thread.sleep(350);
+        }
+
+        assertThat(open(lastSeen).next().name()).isEqualTo("reset");
+        assertThat(open("otherepoch:3").next().name()).isEqualTo("reset");
+    }
+
+    @Test
+    void campaignPricesArriveProductByProduct() throws Exception {
+        Long categoryId = categoryService.createCategory(new CategoryDTO(null, "Campaign goods", null)).getCategoryId();
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            ProductDTO product = new ProductDTO();
+            product.setProductName("Campaign item " + i);
+            product.setDescription("Repriced by a campaign");
+            product.setQuantity(5);
+            product.setPrice(100.0);
+            product.setDiscount(0.0);
+            productIds.add(productService.addProduct(categoryId, product).getProductId());
+        }
+        Stream stream = open(null);
+
+        discountCampaignService.createCampaign(new DiscountCampaignDTO(null, "Feed sale", CampaignScope.CATEGORY,
+                categoryId, DiscountType.PERCENTAGE, 20.0, null, Instant.now().plus(1, ChronoUnit.DAYS),
+                null, null, null, null));
+        discountCampaignService.runDueTransitions();
+
+        // Events of the additions may come first, the campaign price follows for each product
+        Set<Long> repriced = new HashSet<>();
+        while (repriced.size() < productIds.size()) {
+            Event event = stream.next();
+            assertThat(event.name()).isEqualTo("product");
+            JsonNode change = objectMapper.readTree(event.data());
+            if (change.path("specialPrice").asDouble() == 80.0) {
+                repriced.add(change.get("productId").asLong());
+            }
+        }
+        assertThat(repriced).containsExactlyInAnyOrderElementsOf(productIds);
+    }
+
+    private void update(Long productId, double price) {
+        ProductDTO product = productService.getProduct(productId, null);
+        product.setPrice(price);
+        productService.updateProduct(product, productId, null);
+    }
+
+    private long productId(Event event) throws IOException {
+        return objectMapper.readTree(event.data()).get("productId").asLong();
+    }
+
+    private Stream open(String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/public/products/changes"));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        // Headers are sent once the subscriber is registered
+        assertThat(response.statusCode()).isEqualTo(200);
+        Stream stream = new Stream(response.body());
+        streams.add(stream);
+        return stream;
+    }
+
+    private record Event(String id, String name, String data) {
+    }
+
+    /**
+     * Parses the event stream on a reader thread.
+     */
+    private static final class Stream implements AutoCloseable {
+        private final InputStream body;
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+
+        Stream(InputStream body) {
+            this.body = body;
+            Thread reader = new Thread(this::read, "sse-test-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        Event next() throws InterruptedException {
+            Event event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("event within 5 seconds").isNotNull();
+            return event;
+        }
+
+        Event poll(long millis) throws InterruptedException {
+            return events.poll(millis, TimeUnit.MILLISECONDS);
+        }
+
+        private void read() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                String id = null;
+                String name = null;
+                List<String> data = new ArrayList<>();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (name != null) {
+                            events.add(new Event(id, name, String.join("\n", data)));
+                        }
+                        id = null;
+                        name = null;
+                        data.clear();
+                    } else if (line.startsWith("id:")) {
+                        id = line.substring(3);
+                    } else if (line.startsWith("event:")) {
+                        name = line.substring(6);
+                    } else if (line.startsWith("data:")) {
+                        data.add(line.substring(5));
+                    }
+                }
+            } catch (IOException e) {
+                // Closed by the test
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+}
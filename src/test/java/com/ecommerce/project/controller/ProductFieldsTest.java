@@ -0,0 +1,101 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.jdbc.StatementCounter;
+import com.ecommerce.project.jdbc.StatementStats;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:product-fields")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductFieldsTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 3, 30);
+    }
+
+    @Test
+    void productPageSelectsAndWritesOnlyTheRequestedFields() {
+        StatementStats stats = StatementCounter.measure(() -> {
+            try {
+                mockMvc.perform(get("/api/public/products")
+                                .param("fields", "productId,productName,specialPrice,image")
+                                .param("pageSize", "5"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content", hasSize(5)))
+                        .andExpect(jsonPath("$.content[0].*", hasSize(4)))
+                        .andExpect(jsonPath("$.content[0].productId").value(1))
+                        .andExpect(jsonPath("$.content[0].image").value("default.png"))
+                        .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                        .andExpect(jsonPath("$.totalElements").value(30));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // The page and its count, neither touching the other columns
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getShapes().keySet()).noneMatch(sql -> sql.contains("description") || sql.contains("quantity"));
+    }
+
+    @Test
+    void categoryKeywordAndFilterPagesTakeFields() throws Exception {
+        mockMvc.perform(get("/api/public/categories/1/products").param("fields", "productName,categoryName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].*", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].categoryName").value("Category 1"));
+
+        mockMvc.perform(get("/api/public/products/keyword/phone").param("fields", "productName"))
+                .andExpect(status().isFound())
+                .andExpect(jsonPath("$.content[0].*", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].productName").value(containsString("Phone")));
+
+        mockMvc.perform(get("/api/public/products/filter").param("fields", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].*", hasSize(1)))
+                .andExpect(jsonPath("$.facets").exists());
+    }
+
+    @Test
+    void singleProductKeepsItsETag() throws Exception {
+        mockMvc.perform(get("/api/public/products/1").param("fields", "productName"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.*", hasSize(1)))
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        mockMvc.perform(get("/api/public/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Seeded product 1"))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    @Test
+    void unknownFieldsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/public/products").param("fields", "productName,secret"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(containsString("secret")));
+    }
+}
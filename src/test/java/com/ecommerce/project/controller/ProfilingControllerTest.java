@@ -0,0 +1,78 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.service.ProfilingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:profiling-controller")
+@AutoConfigureMockMvc
+class ProfilingControllerTest {
+
+    // Every JFR file starts with this magic
+    private static final byte[] JFR_MAGIC = {'F', 'L', 'R', 0};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @Test
+    void recordingCanBeStartedDumpedAndStopped() throws Exception {
+        mockMvc.perform(post("/api/admin/profiling/recording/start").param("maxAgeSeconds", "60"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.settings").value("default"))
+                .andExpect(jsonPath("$.maxAgeSeconds").value(60));
+        mockMvc.perform(post("/api/admin/profiling/recording/start"))
+                .andExpect(status().isNotFound());
+
+        MvcResult dump = mockMvc.perform(get("/api/admin/profiling/recording/dump"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] content = mockMvc.perform(asyncDispatch(dump))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"sb-ecom.jfr\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(Arrays.copyOf(content, JFR_MAGIC.length)).isEqualTo(JFR_MAGIC);
+
+        mockMvc.perform(post("/api/admin/profiling/recording/stop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("STOPPED"));
+        mockMvc.perform(get("/api/admin/profiling/recording"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("STOPPED"));
+    }
+
+    @Test
+    void dumpsThatAreNeverDownloadedAreDeletedByTheNextOne() throws Exception {
+        profilingService.startRecording(null, null, "default");
+        try {
+            Path abandoned = profilingService.dumpRecording();
+            Path next = profilingService.dumpRecording();
+
+            assertThat(abandoned).doesNotExist();
+            assertThat(next).exists();
+            Files.deleteIfExists(next);
+        } finally {
+            profilingService.stopRecording();
+        }
+    }
+}
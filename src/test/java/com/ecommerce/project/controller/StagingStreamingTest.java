@@ -0,0 +1,150 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.feed.ProductChange;
+import com.ecommerce.project.feed.ProductChangeFeed;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The staging profile buffers response bodies to add X-SQL-* headers; streamed and async responses must still
+ * reach the client.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:staging-streaming")
+@ActiveProfiles("staging")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StagingStreamingTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 2, 20);
+    }
+
+    @Test
+    void bufferedResponsesCarryStatementHeaders() throws Exception {
+        HttpResponse<String> response = client.send(request("/api/public/products?pageSize=10").build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("X-SQL-Statements")).hasValue("2");
+        assertThat(response.body()).contains("\"productId\"");
+    }
+
+    @Test
+    void serverSentEventsAreNotBuffered() throws Exception {
+        HttpResponse<InputStream> response = client.send(request("/api/public/products/changes").build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            // The stream stays open, so the event only arrives if it is not held back in a buffer
+            productChangeFeed.publish(ProductChange.stock(1L, 3));
+            String eventLine = CompletableFuture.supplyAsync(() -> {
+                try {
+                    String line = reader.readLine();
+                    while (line != null && !line.startsWith("event:")) {
+                        line = reader.readLine();
+                    }
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).get(5, TimeUnit.SECONDS);
+            assertThat(eventLine).isEqualTo("event:product");
+        }
+    }
+
+    @Test
+    void streamingResponseBodiesAreComplete() throws Exception {
+        HttpResponse<String> started = client.send(request("/api/admin/profiling/recording/start")
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(started.statusCode()).isEqualTo(201);
+        try {
+            HttpResponse<byte[]> dump = client.send(request("/api/admin/profiling/recording/dump").build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+
+            assertThat(dump.statusCode()).isEqualTo(200);
+            assertThat(dump.body()).hasSize(Integer.parseInt(dump.headers().firstValue("Content-Length").orElseThrow()));
+            assertThat(Arrays.copyOf(dump.body(), 4)).isEqualTo(new byte[]{'F', 'L', 'R', 0});
+        } finally {
+            client.send(request("/api/admin/profiling/recording/stop").POST(HttpRequest.BodyPublishers.noBody()).build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    @Test
+    void asyncResultsAreWrittenByTheCompletingDispatch() throws Exception {
+        HttpResponse<String> response = client.send(request("/api/public/test/async-count").build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("{\"products\":20}");
+        assertThat(response.headers().firstValue("X-SQL-Statements")).isPresent();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(10));
+    }
+
+    @RestController
+    static class AsyncController {
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @GetMapping("/api/public/test/async-count")
+        CompletableFuture<Map<String, Integer>> count() {
+            return CompletableFuture.supplyAsync(() ->
+                    Map.of("products", jdbcTemplate.queryForObject("select count(*) from products", Integer.class)));
+        }
+    }
+
+    @TestConfiguration
+    static class AsyncEndpoint {
+        @Bean
+        AsyncController asyncController() {
+            return new AsyncController();
+        }
+    }
+}
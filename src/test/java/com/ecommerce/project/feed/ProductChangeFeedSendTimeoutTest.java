@@ -0,0 +1,84 @@
+package com.ecommerce.project.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringJUnitConfig(ProductChangeFeed.class)
+@TestPropertySource(properties = {
+        "project.feed.coalesce-ms=20",
+        "project.feed.sender-threads=1",
+        "project.feed.send-timeout-ms=200"
+})
+class ProductChangeFeedSendTimeoutTest {
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Test
+    void subscriberThatStopsReadingIsDroppedWithoutHoldingUpOthers() throws Exception {
+        StalledEmitter stalled = new StalledEmitter();
+        productChangeFeed.subscribe(stalled, null);
+        // The opening heartbeat blocks the only sender
+        assertThat(stalled.writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        RecordingEmitter reader = new RecordingEmitter();
+        productChangeFeed.subscribe(reader, null);
+        productChangeFeed.publish(ProductChange.stock(1L, 5));
+
+        String event = reader.events.poll(5, TimeUnit.SECONDS);
+        while (event != null && !event.contains("productId=1")) {
+            event = reader.events.poll(5, TimeUnit.SECONDS);
+        }
+        assertThat(event).as("product event within 5 seconds").isNotNull();
+
+        // Ended once the blocked write returns, so the client reconnects
+        stalled.release.countDown();
+        assertThat(stalled.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static String text(SseEmitter.SseEventBuilder builder) {
+        return builder.build().stream().map(data -> data.getData().toString()).collect(Collectors.joining());
+    }
+
+    private static final class StalledEmitter extends SseEmitter {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+            super.complete();
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(text(builder));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.project.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringJUnitConfig({ResponseReplayCache.class, ObjectMapper.class})
+@TestPropertySource(properties = "project.idempotency.max-entries=2")
+class ResponseReplayCacheTest {
+
+    @Autowired
+    private ResponseReplayCache replayCache;
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void runningWritesAreNeverEvicted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // One after the other, so "first" is the older entry
+        List<CompletableFuture<ResponseEntity<String>>> blocked = List.of(
+                blockedWrite("first", release), blockedWrite("second", release));
+
+        assertThatThrownBy(() -> replayCache.execute("third", "op", "third", () -> ResponseEntity.ok("third")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        release.countDown();
+        for (CompletableFuture<ResponseEntity<String>> write : blocked) {
+            write.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(replayCache.execute("third", "op", "third", () -> ResponseEntity.ok("third")).getBody())
+                .isEqualTo("third");
+        // The oldest completed entry made room, the other one is still replayed
+        assertThat(replayCache.execute("second", "op", "second", () -> ResponseEntity.ok("again")).getBody())
+                .isEqualTo("second");
+    }
+
+    @Test
+    void callersWithTheSameKeyDoNotShareResponses() {
+        signIn("alice");
+        assertThat(replayCache.execute("shared", "op", "request", () -> ResponseEntity.ok("alice")).getBody())
+                .isEqualTo("alice");
+        signIn("bob");
+        ResponseEntity<String> response = replayCache.execute("shared", "op", "request", () -> ResponseEntity.ok("bob"));
+
+        assertThat(response.getBody()).isEqualTo("bob");
+        assertThat(response.getHeaders().containsKey(ResponseReplayCache.REPLAYED)).isFalse();
+    }
+
+    private CompletableFuture<ResponseEntity<String>> blockedWrite(String key, CountDownLatch release)
+            throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<String>> write = CompletableFuture.supplyAsync(
+                () -> replayCache.execute(key, "op", key, () -> {
+                    running.countDown();
+                    await(release);
+                    return ResponseEntity.ok(key);
+                }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        return write;
+    }
+
+    private static void signIn(String name) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(name, null, List.of()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
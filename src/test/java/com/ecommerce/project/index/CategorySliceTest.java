@@ -0,0 +1,88 @@
+package com.ecommerce.project.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategorySliceTest {
+
+    private static final Map<ProductSortKey, ToDoubleFunction<ProductIndexRow>> VALUES = Map.of(
+            ProductSortKey.PRODUCT_ID, ProductIndexRow::getProductId,
+            ProductSortKey.PRICE, ProductIndexRow::getPrice,
+            ProductSortKey.SPECIAL_PRICE, ProductIndexRow::getSpecialPrice,
+            ProductSortKey.DISCOUNT, ProductIndexRow::getDiscount);
+
+    @Test
+    void randomWritesMatchAFullSort() {
+        Random random = new Random(42);
+        TreeMap<Long, ProductIndexRow> expected = new TreeMap<>();
+        for (long id = 1; id <= 2_000; id++) {
+            expected.put(id, row(id, random));
+        }
+        CategorySlice slice = CategorySlice.build(new ArrayList<>(expected.values()));
+
+        for (int step = 0; step < 3_000; step++) {
+            long id = 1 + random.nextInt(2_500);
+            int action = random.nextInt(10);
+            if (action < 3) {
+                expected.remove(id);
+                slice = slice.without(id);
+            } else if (action < 9) {
+                ProductIndexRow row = row(id, random);
+                expected.put(id, row);
+                slice = slice.with(row);
+            } else {
+                List<ProductIndexRow> batch = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    ProductIndexRow row = row(1 + random.nextInt(2_500), random);
+                    batch.add(row);
+                    expected.put(row.getProductId(), row);
+                }
+                slice = slice.withAll(batch);
+            }
+            if (step % 100 == 0) {
+                assertMatches(slice, expected, random);
+            }
+        }
+        assertMatches(slice, expected, random);
+    }
+
+    private static void assertMatches(CategorySlice slice, TreeMap<Long, ProductIndexRow> expected, Random random) {
+        assertThat(slice.size()).isEqualTo(expected.size());
+        for (ProductSortKey key : ProductSortKey.values()) {
+            List<Long> ordered = expected.values().stream()
+                    .sorted(Comparator.comparingDouble(VALUES.get(key)).thenComparing(ProductIndexRow::getProductId))
+                    .map(ProductIndexRow::getProductId)
+                    .toList();
+            assertThat(slice.page(key, true, 0, Integer.MAX_VALUE)).containsExactly(toArray(ordered));
+
+            int offset = random.nextInt(ordered.size());
+            int limit = 1 + random.nextInt(50);
+            List<Long> ascending = ordered.subList(offset, Math.min(ordered.size(), offset + limit));
+            assertThat(slice.page(key, true, offset, limit)).containsExactly(toArray(ascending));
+
+            List<Long> reversed = new ArrayList<>(ordered).reversed();
+            List<Long> descending = reversed.subList(offset, Math.min(reversed.size(), offset + limit));
+            assertThat(slice.page(key, false, offset, limit)).containsExactly(toArray(descending));
+        }
+    }
+
+    private static ProductIndexRow row(long id, Random random) {
+        // Few distinct values so ties on the value fall back to the product id
+        double price = 10 * (1 + random.nextInt(20));
+        double discount = 5 * random.nextInt(5);
+        return new ProductIndexRow(id, 1L, price, price * (1 - discount / 100), discount, 1);
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
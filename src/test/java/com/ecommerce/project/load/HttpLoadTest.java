@@ -0,0 +1,209 @@
+package com.ecommerce.project.load;
+
+import com.ecommerce.project.load.OpenLoopLoadGenerator.Operation;
+import com.ecommerce.project.support.CatalogSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Drives the real HTTP endpoints with a mixed open-loop workload and fails when an endpoint returns errors or its
+ * p99 latency is over budget. Everything can be tuned with system properties, e.g.
+ * {@code mvn -P load test -Dload.rate=200 -Dload.durationSeconds=60 -Dload.mix=browse=80,search=20}.
+ * <ul>
+ *     <li>{@code load.rate}, {@code load.warmupSeconds}, {@code load.durationSeconds}: arrival rate and phases</li>
+ *     <li>{@code load.mix}: relative weights of the browse, search, login and admin workloads</li>
+ *     <li>{@code load.p99Ms} and {@code load.p99Ms.<workload>}: p99 budgets in milliseconds</li>
+ *     <li>{@code load.baseline}: a summary.json from an earlier run; p99 may not grow more than {@code load.tolerance}</li>
+ * </ul>
+ * Percentile distributions (.hgrm) and summary.json are written to target/load-report.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.com.ecommerce.project=WARN",
+        "logging.level.com.ecommerce.project.load=INFO"
+})
+@Tag("load")
+class HttpLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpLoadTest.class);
+
+    private static final int CATEGORIES = 20;
+    private static final int PRODUCTS = 5000;
+
+    // Below this a p99 difference against the baseline is treated as noise
+    private static final double BASELINE_SLACK_MS = 2.0;
+
+    private static final Path REPORT_DIR = Paths.get("target", "load-report");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void endpointsStayWithinLatencyBudget() throws Exception {
+        CatalogSeeder.seed(context, CATEGORIES, PRODUCTS);
+
+        double rate = Double.parseDouble(System.getProperty("load.rate", "20"));
+        OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(operations(mix()));
+        generator.run(rate, Duration.ofSeconds(Long.getLong("load.warmupSeconds", 3)), 1);
+        generator.reset();
+        generator.run(rate, Duration.ofSeconds(Long.getLong("load.durationSeconds", 10)), 2);
+
+        Map<String, Map<String, Object>> summary = report(generator);
+        JsonNode baseline = baseline();
+        double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.25"));
+
+        SoftAssertions softly = new SoftAssertions();
+        summary.forEach((endpoint, stats) -> {
+            String workload = (String) stats.get("workload");
+            double p99 = (double) stats.get("p99Ms");
+            double budget = Double.parseDouble(System.getProperty("load.p99Ms." + workload,
+                    System.getProperty("load.p99Ms", "1000")));
+
+            softly.assertThat((long) stats.get("errors")).as("errors of %s", endpoint).isZero();
+            softly.assertThat(p99).as("p99 ms of %s", endpoint).isLessThanOrEqualTo(budget);
+            if (baseline != null && baseline.has(endpoint)) {
+                double limit = baseline.get(endpoint).get("p99Ms").asDouble() * (1 + tolerance) + BASELINE_SLACK_MS;
+                softly.assertThat(p99).as("p99 ms of %s against baseline", endpoint).isLessThanOrEqualTo(limit);
+            }
+        });
+        softly.assertAll();
+    }
+
+    private List<Operation> operations(Map<String, Integer> mix) {
+        int browse = mix.getOrDefault("browse", 0);
+        int search = mix.getOrDefault("search", 0);
+        int login = mix.getOrDefault("login", 0);
+        int admin = mix.getOrDefault("admin", 0);
+        String[] sorts = {"productId", "productName", "price"};
+
+        List<Operation> operations = new ArrayList<>();
+        operations.add(new Operation("browse", "GET /api/public/products", browse * 4, random ->
+                get("/api/public/products?pageNumber=" + random.nextInt(20) + "&pageSize=50&sortBy="
+                        + sorts[random.nextInt(sorts.length)])));
+        operations.add(new Operation("browse", "GET /api/public/categories/{id}/products", browse * 4, random ->
+                get("/api/public/categories/" + (1 + random.nextInt(CATEGORIES)) + "/products?pageNumber="
+                        + random.nextInt(5) + "&sortBy=" + sorts[random.nextInt(sorts.length)])));
+        operations.add(new Operation("browse", "GET /api/public/categories", browse * 2, random ->
+                get("/api/public/categories?pageSize=20")));
+
+        operations.add(new Operation("search", "GET /api/public/products/keyword/{keyword}", search * 3, random ->
+                get("/api/public/products/keyword/" + noun(random))));
+        operations.add(new Operation("search", "GET /api/public/products/filter", search * 3, random ->
+                get("/api/public/products/filter?categoryId=" + (1 + random.nextInt(CATEGORIES))
+                        + "&price=100-250&price=250-500&inStock=true")));
+        operations.add(new Operation("search", "GET /api/public/suggest", search * 4, random ->
+                get("/api/public/suggest?q=" + noun(random).substring(0, 3))));
+
+        operations.add(new Operation("login", "POST /api/auth/signin", login * 10, random ->
+                send("POST", "/api/auth/signin", "{\"username\":\"user1\",\"password\":\"password1\"}")));
+
+        operations.add(new Operation("admin", "PUT /api/admin/products/{id}", admin * 10, random -> {
+            double price = 5 + random.nextInt(2000);
+            return send("PUT", "/api/admin/products/" + (1 + random.nextInt(PRODUCTS)),
+                    "{\"productName\":\"Load tested product\",\"description\":\"Updated under load\","
+                            + "\"quantity\":" + random.nextInt(20) + ",\"price\":" + price + ",\"discount\":10}",
+                    // Blind overwrite, fetching the ETag first would make it a different workload
+                    "If-Match", "*");
+        }));
+        return operations;
+    }
+
+    private static Map<String, Integer> mix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : System.getProperty("load.mix", "browse=60,search=30,login=5,admin=5").split(",")) {
+            String[] weight = part.split("=");
+            mix.put(weight[0].trim(), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    private static String noun(Random random) {
+        return CatalogSeeder.NOUNS[random.nextInt(CatalogSeeder.NOUNS.length)].toLowerCase(Locale.ROOT);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String json, String... headers) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json));
+        if (headers.length > 0) {
+            builder.headers(headers);
+        }
+        return builder.build();
+    }
+
+    private Map<String, Map<String, Object>> report(OpenLoopLoadGenerator generator) throws IOException {
+        Files.createDirectories(REPORT_DIR);
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        for (Operation operation : generator.getOperations()) {
+            String endpoint = operation.getEndpoint();
+            Histogram histogram = generator.getLatencies().get(endpoint);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("workload", operation.getWorkload());
+            stats.put("count", histogram.getTotalCount());
+            stats.put("errors", generator.getErrors(endpoint));
+            stats.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+            stats.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+            stats.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+            stats.put("maxMs", millis(histogram.getMaxValue()));
+            summary.put(endpoint, stats);
+
+            String fileName = endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("_+$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(REPORT_DIR.resolve(fileName)))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+            logger.info(String.format(Locale.ROOT, "%-45s n=%-6d errors=%-4d p50=%8.2fms p99=%8.2fms p99.9=%8.2fms max=%8.2fms",
+                    endpoint, histogram.getTotalCount(), generator.getErrors(endpoint), stats.get("p50Ms"),
+                    stats.get("p99Ms"), stats.get("p999Ms"), stats.get("maxMs")));
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT_DIR.resolve("summary.json").toFile(), summary);
+        return summary;
+    }
+
+    private JsonNode baseline() throws IOException {
+        String baseline = System.getProperty("load.baseline");
+        return baseline == null ? null : objectMapper.readTree(Paths.get(baseline).toFile());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
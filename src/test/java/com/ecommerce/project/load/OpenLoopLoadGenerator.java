@@ -0,0 +1,155 @@
+package com.ecommerce.project.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Sends requests on a Poisson arrival schedule that does not wait for responses, like independent users would.
+ * Latency is measured from the time a request was scheduled, not from when it was actually sent, so a server that
+ * stalls is charged for the queue it builds up (no coordinated omission).
+ */
+public class OpenLoopLoadGenerator {
+
+    static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+    public OpenLoopLoadGenerator(List<Operation> operations) {
+        this.operations = operations.stream().filter(operation -> operation.getWeight() > 0).toList();
+        this.totalWeight = this.operations.stream().mapToInt(Operation::getWeight).sum();
+        for (Operation operation : this.operations) {
+            latencies.put(operation.getEndpoint(), new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3));
+            errors.put(operation.getEndpoint(), new LongAdder());
+        }
+    }
+
+    /**
+     * Runs the schedule for the given duration, then waits for the requests still in flight.
+     */
+    public void run(double requestsPerSecond, Duration duration, long seed) throws InterruptedException {
+        Random random = new Random(seed);
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long scheduled = start;
+        while (scheduled < end) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick(random);
+            inFlight.add(send(operation, operation.getRequest().apply(random), scheduled));
+            scheduled += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+        }
+
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Requests still in flight 30s after the schedule ended", e);
+        }
+    }
+
+    /**
+     * Drops everything recorded so far, used after the warmup run.
+     */
+    public void reset() {
+        latencies.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Latencies in microseconds per endpoint.
+     */
+    public Map<String, Histogram> getLatencies() {
+        return latencies;
+    }
+
+    public long getErrors(String endpoint) {
+        return errors.get(endpoint).sum();
+    }
+
+    private CompletableFuture<Void> send(Operation operation, HttpRequest request, long scheduled) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                    latencies.get(operation.getEndpoint()).recordValue(Math.min(latencyMicros, HIGHEST_LATENCY_MICROS));
+                    // The keyword search answers 302, so only 4xx and 5xx count as errors
+                    if (failure != null || response.statusCode() >= 400) {
+                        errors.get(operation.getEndpoint()).increment();
+                    }
+                    return null;
+                });
+    }
+
+    private Operation pick(Random random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.getWeight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("No operation to pick");
+    }
+
+    /**
+     * One endpoint of a workload, chosen with probability weight / total weight of all operations.
+     */
+    public static class Operation {
+        private final String workload;
+        private final String endpoint;
+        private final int weight;
+        private final Function<Random, HttpRequest> request;
+
+        public Operation(String workload, String endpoint, int weight, Function<Random, HttpRequest> request) {
+            this.workload = workload;
+            this.endpoint = endpoint;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        public String getWorkload() {
+            return workload;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public Function<Random, HttpRequest> getRequest() {
+            return request;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.project.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferAppenderTest {
+
+    private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    @Test
+    void deliversEventsInOrder() {
+        CollectingAppender target = new CollectingAppender(null);
+        RingBufferAppender appender = start(target, 1024);
+
+        for (int i = 0; i < 500; i++) {
+            appender.doAppend(event("message " + i));
+        }
+        appender.stop();
+
+        assertEquals(500, target.messages.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("message " + i, target.messages.get(i));
+        }
+    }
+
+    @Test
+    void dropsInsteadOfBlockingWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CollectingAppender target = new CollectingAppender(release);
+        RingBufferAppender appender = start(target, 4);
+        long droppedBefore = RingBufferAppender.droppedEvents();
+
+        for (int i = 0; i < 100; i++) {
+            appender.doAppend(event("message " + i));
+        }
+        long dropped = RingBufferAppender.droppedEvents() - droppedBefore;
+        // At most the buffer plus the one event the blocked worker holds get through
+        assertTrue(dropped >= 95, "dropped " + dropped);
+
+        release.countDown();
+        appender.stop();
+        assertEquals(100, target.messages.size() + dropped);
+    }
+
+    private RingBufferAppender start(CollectingAppender target, int bufferSize) {
+        target.setContext(context);
+        target.start();
+        RingBufferAppender appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("test");
+        appender.setBufferSize(bufferSize);
+        appender.addAppender(target);
+        appender.start();
+        return appender;
+    }
+
+    private ILoggingEvent event(String message) {
+        return new LoggingEvent(RingBufferAppenderTest.class.getName(), context.getLogger("test"), Level.INFO,
+                message, null, null);
+    }
+
+    private static class CollectingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        CollectingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            messages.add(event.getFormattedMessage());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.project.profiling;
+
+import com.ecommerce.project.security.jwt.JwtUtils;
+import com.ecommerce.project.service.ProductService;
+import com.ecommerce.project.support.CatalogSeeder;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:profiling-events")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProfilingEventsTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 2, 30);
+    }
+
+    @Test
+    void serviceCallsAreRecordedWithRowsAndFailures() throws Exception {
+        List<RecordedEvent> events = record(ServiceCallEvent.class, () -> {
+            productService.getAllProducts(0, 20, "productId", "asc", null);
+            assertThatThrownBy(() -> productService.getProduct(999_999L, null)).isInstanceOf(RuntimeException.class);
+        });
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getString("service")).isEqualTo("ProductServiceImpl");
+            assertThat(event.getString("operation")).isEqualTo("getAllProducts");
+            assertThat(event.getLong("rows")).isEqualTo(20);
+            assertThat(event.getBoolean("failed")).isFalse();
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getString("operation")).isEqualTo("getProduct");
+            assertThat(event.getBoolean("failed")).isTrue();
+        });
+    }
+
+    @Test
+    void securityOperationsAreRecorded() throws Exception {
+        List<RecordedEvent> passwordEvents = record(PasswordEncoderEvent.class, () -> {
+            String encoded = passwordEncoder.encode("secret");
+            assertThat(passwordEncoder.matches("secret", encoded)).isTrue();
+        });
+        assertThat(passwordEvents).extracting(event -> event.getString("operation")).containsExactly("encode", "matches");
+        assertThat(passwordEvents.get(1).getBoolean("matched")).isTrue();
+
+        List<RecordedEvent> jwtEvents = record(JwtEvent.class, () -> {
+            String token = jwtUtils.generateTokenFromUsername("user1");
+            assertThat(jwtUtils.validateJwtToken(token)).isTrue();
+            assertThat(jwtUtils.validateJwtToken("not-a-token")).isFalse();
+        });
+        assertThat(jwtEvents).extracting(event -> event.getString("operation") + "=" + event.getBoolean("valid"))
+                .containsExactly("generate=true", "validate=true", "validate=false");
+    }
+
+    // Runs the action under a recording of just this event type and returns what was recorded
+    private static List<RecordedEvent> record(Class<? extends Event> eventType, Runnable action) throws Exception {
+        Path file = Files.createTempFile("profiling-events-", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventType);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
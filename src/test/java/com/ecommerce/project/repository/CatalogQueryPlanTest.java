@@ -0,0 +1,98 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.jdbc.StatementCounter;
+import com.ecommerce.project.model.AppRole;
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.repositories.RoleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with H2's EXPLAIN that the catalog queries are answered from the indexes created in db/migration.
+ * The statements explained are the ones Hibernate generates for the repository calls, captured through
+ * {@link StatementCounter}, so entity restrictions and joins are part of the plan.
+ * H2 neither scans an index backwards nor sorts through the columns following an equality prefix, so only the
+ * ascending orderings are asserted as index sorted and the category queries as index lookups.
+ */
+@SpringBootTest
+class CatalogQueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @ParameterizedTest
+    @CsvSource({
+            "productId, PRIMARY_KEY",
+            "productName, IDX_PRODUCTS_NAME",
+            "price, IDX_PRODUCTS_PRICE",
+            "specialPrice, IDX_PRODUCTS_SPECIAL_PRICE",
+            "discount, IDX_PRODUCTS_DISCOUNT"
+    })
+    void productPagesAreReadInIndexOrder(String sortBy, String index) {
+        Sort sort = sortBy.equals("productId") ? Sort.by(sortBy) : Sort.by(sortBy).and(Sort.by("productId"));
+        String plan = plan(() -> productRepository.findAll(PageRequest.of(0, 50, sort)));
+
+        assertThat(plan).contains("PUBLIC." + index).contains("/* index sorted */").doesNotContain("NOT IN");
+    }
+
+    @Test
+    void categoryPagesAreIndexLookups() {
+        Category category = new Category();
+        category.setCategoryId(1L);
+        category.setVersion(0L);
+        String plan = plan(() -> productRepository.findByCategory(category,
+                PageRequest.of(0, 50, Sort.by("productName").and(Sort.by("productId")))));
+
+        assertThat(plan).doesNotContain("tableScan").doesNotContain("NOT IN").contains("CATEGORY_ID = ");
+    }
+
+    @Test
+    void categoryNameLookupUsesIndex() {
+        assertThat(plan(() -> categoryRepository.findByCategoryName("Electronics")))
+                .contains("PUBLIC.IDX_CATEGORIES_NAME: CATEGORY_NAME = ");
+    }
+
+    @Test
+    void categoryPagesByNameAreReadInIndexOrder() {
+        assertThat(plan(() -> categoryRepository.findAll(PageRequest.of(0, 50, Sort.by("categoryName")))))
+                .contains("PUBLIC.IDX_CATEGORIES_NAME").contains("/* index sorted */");
+    }
+
+    @Test
+    void roleLookupUsesIndex() {
+        assertThat(plan(() -> roleRepository.findByRoleName(AppRole.ROLE_USER)))
+                .contains("PUBLIC.IDX_ROLES_NAME: ROLE_NAME = ");
+    }
+
+    // Explains the query the call executed, leaving out the count query of a page
+    private String plan(Runnable call) {
+        List<String> queries = StatementCounter.measure(call).getShapes().keySet().stream()
+                .filter(sql -> sql.startsWith("select") && !sql.contains("count("))
+                .toList();
+        assertThat(queries).hasSize(1);
+        String sql = queries.get(0);
+        Object[] parameters = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        Arrays.fill(parameters, "1");
+        return jdbcTemplate.queryForObject("explain " + sql, String.class, parameters);
+    }
+}
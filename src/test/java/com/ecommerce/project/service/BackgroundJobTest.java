@@ -0,0 +1,174 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.job.JobChunk;
+import com.ecommerce.project.job.JobHandler;
+import com.ecommerce.project.job.JobRunner;
+import com.ecommerce.project.model.JobStatus;
+import com.ecommerce.project.payload.JobDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:background-jobs",
+        "project.job.workers=2",
+        "project.job.poll-ms=20",
+        "project.job.max-attempts=3",
+        "project.job.backoff-ms=50"
+})
+class BackgroundJobTest {
+
+    @Autowired
+    private JobRunner jobRunner;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CountingHandler countingHandler;
+
+    @Test
+    void chunkedJobReportsProgressAndFinishes() throws Exception {
+        Long jobId = jobRunner.submit(CountingHandler.TYPE, "count:25");
+
+        JobDTO job = await(jobId);
+        assertThat(job.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(job.getItemsTotal()).isEqualTo(25);
+        assertThat(job.getItemsDone()).isEqualTo(25);
+        assertThat(countingHandler.checkpoints("count:25")).containsExactly(null, "10", "20");
+    }
+
+    @Test
+    void failingChunksAreRetriedWithBackoff() throws Exception {
+        // Fails twice, the third attempt is allowed
+        Long recovered = jobRunner.submit(CountingHandler.TYPE, "flaky:2");
+        JobDTO job = await(recovered);
+        assertThat(job.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(job.getLastError()).isNull();
+
+        Long failed = jobRunner.submit(CountingHandler.TYPE, "flaky:3");
+        job = await(failed);
+        assertThat(job.getStatus()).isEqualTo(JobStatus.FAILED);
+        assertThat(job.getAttempts()).isEqualTo(3);
+        assertThat(job.getLastError()).contains("flaky chunk");
+        assertThat(job.getFinishedAt()).isAfterOrEqualTo(job.getStartedAt().plusMillis(150));
+    }
+
+    @Test
+    void cancelledJobStopsAtTheNextChunk() throws Exception {
+        Long jobId = jobRunner.submit(CountingHandler.TYPE, "slow:1000");
+        assertThat(countingHandler.slowStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(jobService.cancelJob(jobId).getCancelRequested()).isTrue();
+        countingHandler.slowGate.countDown();
+
+        JobDTO job = await(jobId);
+        assertThat(job.getStatus()).isEqualTo(JobStatus.CANCELLED);
+        // The chunk in flight when the cancel came in was rolled back
+        assertThat(job.getItemsDone()).isZero();
+    }
+
+    @Test
+    void interruptedJobResumesFromItsCheckpoint() throws Exception {
+        // As left behind by a process that stopped in the middle of the job
+        jdbcTemplate.update("insert into jobs (type, payload, status, checkpoint, items_total, items_done, attempts,"
+                + " cancel_requested, next_attempt_at, created_at, started_at) values (?, 'count:45', 'RUNNING', '30',"
+                + " 45, 30, 0, false, current_timestamp, current_timestamp, current_timestamp)", CountingHandler.TYPE);
+        Long jobId = jdbcTemplate.queryForObject("select max(job_id) from jobs", Long.class);
+
+        jobRunner.recover();
+
+        JobDTO job = await(jobId);
+        assertThat(job.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(job.getItemsDone()).isEqualTo(45);
+        assertThat(countingHandler.checkpoints("count:45")).containsExactly("30", "40");
+    }
+
+    private JobDTO await(Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        JobDTO job = jobService.getJob(jobId);
+        while (job.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = jobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Counts to the number in the payload, ten per chunk. {@code flaky:n} fails its first n attempts, {@code slow}
+     * blocks in its first chunk until the test lets it go.
+     */
+    static class CountingHandler implements JobHandler {
+
+        static final String TYPE = "test-count";
+
+        final CountDownLatch slowStarted = new CountDownLatch(1);
+        final CountDownLatch slowGate = new CountDownLatch(1);
+
+        private final Map<String, List<String>> checkpoints = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+        @Override
+        public String type() {
+            return TYPE;
+        }
+
+        @Override
+        public Long total(String payload) {
+            return Long.parseLong(payload.substring(payload.indexOf(':') + 1));
+        }
+
+        @Override
+        public JobChunk process(String payload, String checkpoint) {
+            String kind = payload.substring(0, payload.indexOf(':'));
+            if (kind.equals("flaky")) {
+                int failing = Integer.parseInt(payload.substring(payload.indexOf(':') + 1));
+                if (failures.computeIfAbsent(payload, key -> new AtomicInteger()).incrementAndGet() <= failing) {
+                    throw new IllegalStateException("flaky chunk");
+                }
+                return JobChunk.done(1);
+            }
+            if (kind.equals("slow")) {
+                slowStarted.countDown();
+                try {
+                    slowGate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            checkpoints.computeIfAbsent(payload, key -> new CopyOnWriteArrayList<>()).add(checkpoint);
+            long total = total(payload);
+            long from = checkpoint == null ? 0 : Long.parseLong(checkpoint);
+            long to = Math.min(total, from + 10);
+            return to == total ? JobChunk.done(to - from) : JobChunk.next(String.valueOf(to), to - from);
+        }
+
+        List<String> checkpoints(String payload) {
+            return checkpoints.getOrDefault(payload, List.of());
+        }
+    }
+
+    @TestConfiguration
+    static class Handlers {
+        @Bean
+        CountingHandler countingHandler() {
+            return new CountingHandler();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.cart.CartStore;
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.jdbc.StatementCounter;
+import com.ecommerce.project.jdbc.StatementStats;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.security.services.UserDetailsImpl;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cart-write-behind",
+        "project.cart.flush-interval-ms=3600000",
+        "project.cart.flush-batch-size=8",
+        "logging.level.org.springframework=INFO",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CartWriteBehindTest {
+
+    // Clear of the users the application creates on startup
+    private static final long FIRST_USER = 1001;
+    private static final long LAST_USER = 1020;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> stocked;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 4, 200);
+        for (long userId = FIRST_USER; userId <= LAST_USER; userId++) {
+            jdbcTemplate.update("insert into users (user_id, email, password, username) values (?, ?, ?, ?)",
+                    userId, "user" + userId + "@example.com", "secret", "user" + userId);
+        }
+        stocked = jdbcTemplate.queryForList(
+                "select product_id from products where quantity >= 10 order by product_id limit 5", Long.class);
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void changesAreValidatedInMemoryAndNeverQueryTheDatabase() {
+        signIn(FIRST_USER);
+        Long productId = stocked.get(0);
+        int stock = jdbcTemplate.queryForObject("select quantity from products where product_id = ?",
+                Integer.class, productId);
+
+        StatementStats stats = StatementCounter.measure(() -> {
+            cartService.addProduct(productId, 2);
+            cartService.addProduct(productId, 3);
+            cartService.updateProductQuantity(productId, 4);
+            cartService.addProduct(stocked.get(1), 1);
+            cartService.removeProduct(stocked.get(1));
+        });
+
+        assertThat(stats.getCount()).isZero();
+        CartDTO cart = cartService.getCart();
+        assertThat(cart.getItems()).singleElement().satisfies(item -> assertThat(item.getQuantity()).isEqualTo(4));
+        assertThatThrownBy(() -> cartService.addProduct(productId, stock)).isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> cartService.addProduct(10_000L, 1)).isInstanceOf(ResourceNotFoundException.class);
+
+        SecurityContextHolder.clearContext();
+        assertThatThrownBy(() -> cartService.getCart()).isInstanceOf(AuthenticationCredentialsNotFoundException.class);
+    }
+
+    @Test
+    void concurrentChangesAreCoalescedAndRecoveredAfterRestart() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> users = new ArrayList<>();
+        for (long userId = FIRST_USER + 1; userId <= LAST_USER; userId++) {
+            long user = userId;
+            users.add(executor.submit(() -> {
+                signIn(user);
+                try {
+                    for (int round = 0; round < 50; round++) {
+                        Long productId = stocked.get(round % stocked.size());
+                        cartService.addProduct(productId, 1);
+                        cartService.updateProductQuantity(productId, 1 + (int) (user % 3));
+                    }
+                    // Odd users end with an empty cart
+                    if (user % 2 == 1) {
+                        stocked.forEach(cartService::removeProduct);
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        for (Future<?> user : users) {
+            user.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Close to two thousand changes, three batched statements per eight carts
+        StatementStats stats = StatementCounter.measure(cartStore::flush);
+        assertThat(stats.getCount()).isEqualTo(9);
+        assertThat(cartStore.pending()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(distinct user_id) from cart_items where user_id > ?",
+                Integer.class, FIRST_USER)).isEqualTo(10);
+
+        Map<Long, CartDTO> before = carts();
+        cartStore.recover();
+        assertThat(carts()).isEqualTo(before);
+        signIn(1006L);
+        assertThat(cartService.getCart().getItems()).hasSize(stocked.size())
+                .allSatisfy(item -> assertThat(item.getQuantity()).isEqualTo(2));
+    }
+
+    @Test
+    void cartTheDatabaseRejectsDoesNotHoldUpTheOthers() {
+        // No users row, so its carts row breaks fk_carts_user
+        long unknownUser = 5000;
+        signIn(unknownUser);
+        cartService.addProduct(stocked.get(0), 1);
+        long knownUser = LAST_USER + 1;
+        jdbcTemplate.update("insert into users (user_id, email, password, username) values (?, ?, ?, ?)",
+                knownUser, "user" + knownUser + "@example.com", "secret", "user" + knownUser);
+        signIn(knownUser);
+        cartService.addProduct(stocked.get(2), 1);
+
+        cartStore.flush();
+
+        assertThat(cartStore.pending()).isZero();
+        assertThat(cartStore.quarantined()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cart_items where user_id = ? and product_id = ?",
+                Integer.class, knownUser, stocked.get(2))).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from carts where user_id = ?",
+                Integer.class, unknownUser)).isZero();
+    }
+
+    private Map<Long, CartDTO> carts() {
+        Map<Long, CartDTO> carts = new TreeMap<>();
+        for (long userId = FIRST_USER + 1; userId <= LAST_USER; userId++) {
+            signIn(userId);
+            carts.put(userId, cartService.getCart());
+        }
+        return carts;
+    }
+
+    private static void signIn(Long userId) {
+        UserDetailsImpl user = new UserDetailsImpl(userId, "user" + userId, "user" + userId + "@example.com",
+                "secret", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
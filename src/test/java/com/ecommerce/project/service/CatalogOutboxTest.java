@@ -0,0 +1,239 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.CampaignScope;
+import com.ecommerce.project.model.DiscountType;
+import com.ecommerce.project.outbox.OutboxEvent;
+import com.ecommerce.project.outbox.OutboxOperation;
+import com.ecommerce.project.outbox.OutboxSubscriber;
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.payload.DiscountCampaignDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductPatch;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog-outbox",
+        "project.outbox.poll-ms=20",
+        "project.outbox.batch-size=3",
+        "project.campaign.poll-ms=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CatalogOutboxTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private DiscountCampaignServiceImpl discountCampaignService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RecordingSubscriber recorder;
+
+    private Long categoryId;
+
+    @BeforeAll
+    void createCategory() {
+        categoryId = categoryService.createCategory(new CategoryDTO(null, "Outbox", null)).getCategoryId();
+    }
+
+    @Test
+    void productChangesAreDeliveredInCommitOrder() throws Exception {
+        ProductDTO created = productService.addProduct(categoryId, product("Lamp"));
+        Long productId = created.getProductId();
+        created.setPrice(80.0);
+        productService.updateProduct(created, productId, null);
+        productService.updateProducts(List.of(new ProductPatch(productId, null, null, 7, null, null, null)));
+        productService.deleteProduct(productId);
+
+        List<OutboxEvent> events = await(product(productId), 4);
+        assertThat(events).extracting(OutboxEvent::operation).containsExactly(OutboxOperation.CREATED,
+                OutboxOperation.UPDATED, OutboxOperation.UPDATED, OutboxOperation.DELETED);
+        assertThat(events).extracting(OutboxEvent::position).isSorted().doesNotHaveDuplicates();
+        assertThat(events.get(1).payload()).contains("\"price\":80.0");
+        assertThat(events.get(2).payload()).contains("\"quantity\":7");
+    }
+
+    @Test
+    void rolledBackWritesLeaveNoEvent() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.addProduct(categoryId, product("Ghost"));
+            status.setRollbackOnly();
+        });
+        Long productId = productService.addProduct(categoryId, product("Chair")).getProductId();
+
+        await(product(productId), 1);
+        assertThat(recorder.events).noneMatch(event -> event.payload().contains("Ghost"));
+    }
+
+    @Test
+    void failedBatchIsDeliveredAgain() throws Exception {
+        recorder.failures.set(1);
+        Long productId = productService.addProduct(categoryId, product("Desk")).getProductId();
+
+        await(product(productId), 1);
+        assertThat(recorder.rejected).anyMatch(product(productId));
+        // The error is cleared with the offset, right after the batch was handled
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (outboxService.getSubscribers().get(0).getLastError() != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(outboxService.getSubscribers().get(0).getLastError()).isNull();
+    }
+
+    @Test
+    void replayDeliversEventsAfterTheOffsetAgain() throws Exception {
+        CategoryDTO category = categoryService.createCategory(new CategoryDTO(null, "Replayed", null));
+        category.setCategoryName("Replayed again");
+        categoryService.updateCategory(category, category.getCategoryId(), null);
+        Predicate<OutboxEvent> replayed = event -> event.aggregateType().equals(OutboxEvent.CATEGORY)
+                && event.aggregateId() == category.getCategoryId();
+        List<OutboxEvent> events = await(replayed, 2);
+
+        outboxService.replay(RecordingSubscriber.NAME, events.get(0).position() - 1);
+        assertThat(await(replayed, 4)).extracting(OutboxEvent::operation).containsExactly(OutboxOperation.CREATED,
+                OutboxOperation.UPDATED, OutboxOperation.CREATED, OutboxOperation.UPDATED);
+
+        assertThatThrownBy(() -> outboxService.replay(RecordingSubscriber.NAME, 1_000_000L))
+                .isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> outboxService.replay("unknown", 0L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void purgedProductsAreDeletedInTheLog() throws Exception {
+        Long purged = categoryService.createCategory(new CategoryDTO(null, "Purged", null)).getCategoryId();
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            productIds.add(productService.addProduct(purged, product("Shelf " + i)).getProductId());
+        }
+
+        categoryService.deleteCategory(purged);
+
+        List<OutboxEvent> events = await(event -> event.aggregateType().equals(OutboxEvent.PRODUCT)
+                && event.operation() == OutboxOperation.DELETED && productIds.contains(event.aggregateId()), 3);
+        assertThat(events).extracting(OutboxEvent::aggregateId).containsExactlyElementsOf(productIds);
+        assertThat(events.get(0).payload()).contains("\"categoryId\":" + purged);
+    }
+
+    @Test
+    void stockChangesAreLoggedWithTheQuantityLeft() throws Exception {
+        Long productId = productService.addProduct(categoryId, product("Rug")).getProductId();
+
+        String reservationId = inventoryService.reserve(productId, 2).getReservationId();
+        inventoryService.release(reservationId);
+
+        List<OutboxEvent> events = await(product(productId), 3);
+        assertThat(events).extracting(OutboxEvent::operation).containsExactly(OutboxOperation.CREATED,
+                OutboxOperation.UPDATED, OutboxOperation.UPDATED);
+        assertThat(events.get(1).payload()).isEqualTo("{\"productId\":" + productId + ",\"quantity\":3}");
+        assertThat(events.get(2).payload()).isEqualTo("{\"productId\":" + productId + ",\"quantity\":5}");
+    }
+
+    @Test
+    void repricedRangesAreLoggedPerCampaign() throws Exception {
+        Long sale = categoryService.createCategory(new CategoryDTO(null, "Clearance", null)).getCategoryId();
+        productService.addProduct(sale, product("Sofa"));
+        productService.addProduct(sale, product("Stool"));
+        Long campaignId = discountCampaignService.createCampaign(new DiscountCampaignDTO(null, "Outbox sale",
+                CampaignScope.CATEGORY, sale, DiscountType.PERCENTAGE, 10.0, null,
+                Instant.now().plus(1, ChronoUnit.DAYS), null, null, null, null)).getCampaignId();
+
+        discountCampaignService.runDueTransitions();
+
+        OutboxEvent event = await(campaign -> campaign.aggregateType().equals(OutboxEvent.CAMPAIGN)
+                && campaign.aggregateId() == campaignId, 1).get(0);
+        assertThat(event.operation()).isEqualTo(OutboxOperation.UPDATED);
+        assertThat(event.payload()).contains("\"productsRepriced\":2", "\"applied\":true");
+    }
+
+    private static ProductDTO product(String name) {
+        ProductDTO product = new ProductDTO();
+        product.setProductName(name);
+        product.setDescription(name + " for the outbox");
+        product.setQuantity(5);
+        product.setPrice(100.0);
+        product.setDiscount(10.0);
+        return product;
+    }
+
+    private static Predicate<OutboxEvent> product(Long productId) {
+        return event -> event.aggregateType().equals(OutboxEvent.PRODUCT) && event.aggregateId() == productId;
+    }
+
+    private List<OutboxEvent> await(Predicate<OutboxEvent> filter, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        List<OutboxEvent> events = recorder.events.stream().filter(filter).toList();
+        while (events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            events = recorder.events.stream().filter(filter).toList();
+        }
+        assertThat(events).hasSize(count);
+        return events;
+    }
+
+    /**
+     * Records every event handled; throws for the next {@code failures} batches, which are recorded as rejected.
+     */
+    static class RecordingSubscriber implements OutboxSubscriber {
+
+        static final String NAME = "test-recorder";
+
+        final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+        final List<OutboxEvent> rejected = new CopyOnWriteArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public void handle(List<OutboxEvent> batch) {
+            if (failures.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+                rejected.addAll(batch);
+                throw new IllegalStateException("subscriber unavailable");
+            }
+            events.addAll(batch);
+        }
+    }
+
+    @TestConfiguration
+    static class Subscribers {
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.model.JobStatus;
+import com.ecommerce.project.payload.CategoryDTO;
+import com.ecommerce.project.payload.JobDTO;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:category-purge",
+        "project.image=target/category-purge-images",
+        "project.purge.chunk-size=100"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CategoryPurgeTest {
+
+    private static final Path IMAGES = Paths.get("target/category-purge-images");
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() throws Exception {
+        CatalogSeeder.seed(context, 3, 3000);
+        FileSystemUtils.deleteRecursively(IMAGES);
+        Files.createDirectories(IMAGES);
+        // Own images for the first products of category 1, one of them shared with a product of category 2
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select product_id from products where category_id = 1 order by product_id fetch first 20 rows only", Long.class);
+        for (Long id : ids) {
+            jdbcTemplate.update("update products set image = ? where product_id = ?", id + ".png", id);
+            Files.writeString(IMAGES.resolve(id + ".png"), "image");
+        }
+        Long other = jdbcTemplate.queryForObject(
+                "select min(product_id) from products where category_id = 2", Long.class);
+        jdbcTemplate.update("update products set image = ? where product_id = ?", ids.get(0) + ".png", other);
+        Files.writeString(IMAGES.resolve("default.png"), "image");
+    }
+
+    @Test
+    void deletedCategoryIsHiddenAtOnceAndPurgedInChunks() throws Exception {
+        Long product = jdbcTemplate.queryForObject(
+                "select min(product_id) from products where category_id = 1", Long.class);
+        long products = jdbcTemplate.queryForObject("select count(*) from products where category_id = 1", Long.class);
+        Long uncategorised = jdbcTemplate.queryForObject(
+                "select min(product_id) from products where category_id = 3", Long.class);
+        jdbcTemplate.update("update products set category_id = null where product_id = ?", uncategorised);
+
+        categoryService.deleteCategory(1L);
+
+        assertThatThrownBy(() -> categoryService.getCategory(1L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> productService.getProduct(product, null)).isInstanceOf(ResourceNotFoundException.class);
+        // Not in any category, so not in a deleted one either
+        assertThat(productService.getProduct(uncategorised, null).getProductId()).isEqualTo(uncategorised);
+        assertThat(categoryService.getAllCategories().getContent())
+                .extracting(CategoryDTO::getCategoryId).doesNotContain(1L);
+        // Cancelling would leave the category hidden for good
+        Long jobId = categoryService.getPurgeStatus(1L).getJobId();
+        assertThatThrownBy(() -> jobService.cancelJob(jobId)).isInstanceOf(APIException.class);
+        // The name is free again
+        categoryService.createCategory(new CategoryDTO(null, "Category 1", null));
+
+        JobDTO status = awaitPurge(1L);
+        assertThat(status.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(status.getItemsTotal()).isEqualTo(products);
+        assertThat(status.getItemsDone()).isEqualTo(products);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from products where category_id = 1", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from categories where category_id = 1", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from products", Long.class)).isEqualTo(3000 - products);
+        // Still used by category 2, and the shared default; the other 19 are gone
+        try (var files = Files.list(IMAGES)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder(product + ".png", "default.png");
+        }
+    }
+
+    private JobDTO awaitPurge(Long categoryId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        JobDTO status = categoryService.getPurgeStatus(categoryId);
+        while (status.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = categoryService.getPurgeStatus(categoryId);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.index.CategoryProductIndex;
+import com.ecommerce.project.index.ProductFacetIndex;
+import com.ecommerce.project.model.CampaignScope;
+import com.ecommerce.project.model.CampaignStatus;
+import com.ecommerce.project.model.DiscountCampaign;
+import com.ecommerce.project.model.DiscountType;
+import com.ecommerce.project.payload.DiscountCampaignDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.repository.DiscountCampaignRepository;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:discount-campaigns",
+        "project.campaign.chunk-size=1000",
+        "project.campaign.poll-ms=3600000",
+        "logging.level.org.springframework=INFO",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DiscountCampaignTest {
+
+    private static final int PRODUCTS = 20_000;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DiscountCampaignServiceImpl discountCampaignService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DiscountCampaignRepository campaignRepository;
+
+    @Autowired
+    private CategoryProductIndex categoryProductIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 4, PRODUCTS);
+    }
+
+    @Test
+    void campaignRepricesItsCategoryAndRestoresOwnPricesWhenItEnds() {
+        int inCategory = count("select count(*) from products where category_id = 1");
+        DiscountCampaignDTO campaign = discountCampaignService.createCampaign(new DiscountCampaignDTO(null, "Spring sale",
+                CampaignScope.CATEGORY, 1L, DiscountType.PERCENTAGE, 20.0, null,
+                Instant.now().plus(1, ChronoUnit.DAYS), null, null, null, null));
+        assertThat(campaign.getStatus()).isEqualTo(CampaignStatus.SCHEDULED);
+
+        discountCampaignService.runDueTransitions();
+
+        campaign = discountCampaignService.getCampaign(campaign.getCampaignId());
+        assertThat(campaign.getStatus()).isEqualTo(CampaignStatus.ACTIVE);
+        assertThat(campaign.getProductsRepriced()).isEqualTo(inCategory);
+        assertThat(campaign.getRangesTotal()).isEqualTo(PRODUCTS / 1000);
+        assertThat(campaign.getRangesDone()).isEqualTo(PRODUCTS / 1000);
+        assertThat(count("select count(*) from products where category_id = 1 and special_price = price * 0.8"))
+                .isEqualTo(inCategory);
+        assertThat(count("select count(*) from products where category_id <> 1 and campaign_id is not null"))
+                .isZero();
+        assertThat(cheapestIndexed()).isEqualTo(cheapest());
+        assertThat(productFacetIndex.offer(productId()).getSpecialPrice()).isEqualTo(specialPrice(productId()));
+
+        // A regular edit of a product in the campaign keeps the campaign price
+        Long productId = productId();
+        ProductDTO product = productService.getProduct(productId, null);
+        product.setPrice(100);
+        product.setDiscount(50);
+        assertThat(productService.updateProduct(product, productId, null).getSpecialPrice()).isEqualTo(80.0);
+
+        discountCampaignService.endCampaign(campaign.getCampaignId());
+        discountCampaignService.runDueTransitions();
+
+        assertThat(discountCampaignService.getCampaign(campaign.getCampaignId()).getStatus())
+                .isEqualTo(CampaignStatus.ENDED);
+        assertThat(count("select count(*) from products where campaign_id is not null")).isZero();
+        assertThat(count("select count(*) from products where special_price <> price - price * discount * 0.01"))
+                .isZero();
+        assertThat(productService.getProduct(productId, null).getSpecialPrice()).isEqualTo(50.0);
+        assertThat(cheapestIndexed()).isEqualTo(cheapest());
+        Long restored = jdbcTemplate.queryForObject("select max(product_id) from products where category_id = 1", Long.class);
+        assertThat(productFacetIndex.offer(restored).getSpecialPrice()).isEqualTo(specialPrice(restored));
+    }
+
+    @Test
+    void staleCampaignCopiesCannotOverwriteAStatusChange() {
+        DiscountCampaignDTO campaign = discountCampaignService.createCampaign(new DiscountCampaignDTO(null, "Flash sale",
+                CampaignScope.CATEGORY, 2L, DiscountType.ABSOLUTE, 5.0, null,
+                Instant.now().plus(1, ChronoUnit.DAYS), null, null, null, null));
+        DiscountCampaign stale = campaignRepository.findById(campaign.getCampaignId()).orElseThrow();
+
+        discountCampaignService.runDueTransitions();
+
+        // Saving the copy loaded while SCHEDULED would mark a repriced campaign ENDED and never revert it
+        stale.setStatus(CampaignStatus.ENDED);
+        assertThatThrownBy(() -> campaignRepository.save(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(discountCampaignService.getCampaign(campaign.getCampaignId()).getStatus())
+                .isEqualTo(CampaignStatus.ACTIVE);
+
+        discountCampaignService.endCampaign(campaign.getCampaignId());
+        discountCampaignService.runDueTransitions();
+        assertThat(count("select count(*) from products where campaign_id is not null")).isZero();
+    }
+
+    private Long productId() {
+        return jdbcTemplate.queryForObject("select min(product_id) from products where category_id = 1", Long.class);
+    }
+
+    private double specialPrice(Long productId) {
+        return jdbcTemplate.queryForObject("select special_price from products where product_id = ?", Double.class, productId);
+    }
+
+    private List<Long> cheapest() {
+        return jdbcTemplate.queryForList("select product_id from products where category_id = 1"
+                + " order by special_price, product_id limit 20", Long.class);
+    }
+
+    private List<Long> cheapestIndexed() {
+        return Arrays.stream(categoryProductIndex.page(1L, "specialPrice", true, 0, 20).getProductIds()).boxed().toList();
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
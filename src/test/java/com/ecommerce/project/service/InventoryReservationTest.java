@@ -0,0 +1,129 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.payload.ReservationDTO;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The flush is left to the test so promotion and demotion of the hot product happen at known points.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory",
+        "project.inventory.hot-threshold=200",
+        "project.inventory.lease-size=50",
+        "project.inventory.flush-interval-ms=3600000",
+        "logging.level.org.springframework=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.ecommerce.project=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InventoryReservationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 2, 10);
+    }
+
+    @Test
+    void parallelReservationsOfOneProductNeverOversell() throws InterruptedException {
+        setQuantity(1L, 5000);
+        ConcurrentLinkedQueue<ReservationDTO> reserved = new ConcurrentLinkedQueue<>();
+        AtomicInteger rejected = new AtomicInteger();
+
+        // The first 200 reservations go through the table, the rest through the in-memory counter
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    reserved.add(inventoryService.reserve(1L, 1));
+                } catch (APIException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(reserved).hasSize(5000);
+        assertThat(rejected).hasValue(5000);
+        assertThat(reserved.stream().map(ReservationDTO::getReservationId).distinct()).hasSize(5000);
+
+        // Half go back, half are sold; the table ends with exactly the released units once leases are returned
+        List<ReservationDTO> reservations = List.copyOf(reserved);
+        for (int i = 0; i < reservations.size(); i++) {
+            if (i % 2 == 0) {
+                inventoryService.release(reservations.get(i).getReservationId());
+            } else {
+                inventoryService.commit(reservations.get(i).getReservationId());
+            }
+        }
+        inventoryService.returnLeasedStock();
+        assertThat(quantity(1L)).isEqualTo(2500);
+    }
+
+    @Test
+    void releasedAndCommittedReservationsAreClosed() {
+        setQuantity(2L, 3);
+
+        ReservationDTO reservation = inventoryService.reserve(2L, 2);
+        assertThat(quantity(2L)).isEqualTo(1);
+        assertThatThrownBy(() -> inventoryService.reserve(2L, 2)).isInstanceOf(APIException.class);
+
+        inventoryService.release(reservation.getReservationId());
+        assertThat(quantity(2L)).isEqualTo(3);
+        assertThatThrownBy(() -> inventoryService.release(reservation.getReservationId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        ReservationDTO sold = inventoryService.reserve(2L, 3);
+        inventoryService.commit(sold.getReservationId());
+        assertThat(quantity(2L)).isZero();
+        assertThatThrownBy(() -> inventoryService.release(sold.getReservationId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void unknownProductIsNotFound() {
+        assertThatThrownBy(() -> inventoryService.reserve(999L, 1)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private void setQuantity(Long productId, int quantity) {
+        jdbcTemplate.update("update products set quantity = ? where product_id = ?", quantity, productId);
+    }
+
+    private int quantity(Long productId) {
+        return jdbcTemplate.queryForObject("select quantity from products where product_id = ?", Integer.class, productId);
+    }
+}
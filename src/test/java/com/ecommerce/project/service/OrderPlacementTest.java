@@ -0,0 +1,255 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.exceptions.IdempotencyKeyReusedException;
+import com.ecommerce.project.exceptions.ResourceNotFoundException;
+import com.ecommerce.project.order.OrderBatcher;
+import com.ecommerce.project.order.PendingOrder;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.payload.OrderRequest;
+import com.ecommerce.project.payload.ReservationDTO;
+import com.ecommerce.project.security.services.UserDetailsImpl;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-placement",
+        "project.order.idempotency-cache-size=8",
+        "logging.level.org.springframework=INFO",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderPlacementTest {
+
+    // Clear of the users the application creates on startup
+    private static final long FIRST_USER = 2001;
+    private static final int USERS = 16;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderBatcher orderBatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 4, 50);
+        jdbcTemplate.update("update products set quantity = 1000 where product_id <= 5");
+        jdbcTemplate.update("update products set quantity = 3 where product_id = 6");
+        for (long userId = FIRST_USER; userId < FIRST_USER + USERS; userId++) {
+            jdbcTemplate.update("insert into users (user_id, email, password, username) values (?, ?, ?, ?)",
+                    userId, "buyer" + userId + "@example.com", "secret", "buyer" + userId);
+            jdbcTemplate.update("insert into addresses (address_id, building, city, country, pincode, state, street)"
+                    + " values (?, 'Building', 'City', 'Country', '12345', 'State', 'Street')", userId);
+            jdbcTemplate.update("insert into user_address (user_id, address_id) values (?, ?)", userId, userId);
+        }
+        // The facet index backs cart validation
+        context.getBean(com.ecommerce.project.index.ProductFacetIndex.class).rebuild();
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentOrdersAreCommittedInBatches() throws Exception {
+        int before = stock(1L);
+        long batchesBefore = orderBatcher.batches();
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        List<Future<?>> buyers = new ArrayList<>();
+        for (long userId = FIRST_USER; userId < FIRST_USER + USERS; userId++) {
+            long buyer = userId;
+            buyers.add(executor.submit(() -> {
+                signIn(buyer);
+                try {
+                    for (int i = 0; i < 25; i++) {
+                        orderService.placeOrder("bulk-" + i, request(buyer, 1L, 1)).join();
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        for (Future<?> buyer : buyers) {
+            buyer.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        int orders = USERS * 25;
+        assertThat(stock(1L)).isEqualTo(before - orders);
+        // Each batch logs the stock it left, in its own transaction
+        assertThat(jdbcTemplate.queryForObject("select payload from catalog_outbox where aggregate_type = 'product'"
+                + " and aggregate_id = 1 order by event_id desc limit 1", String.class))
+                .isEqualTo("{\"productId\":1,\"quantity\":" + stock(1L) + "}");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from orders where idempotency_key like 'bulk-%'",
+                Integer.class)).isEqualTo(orders);
+        // Sixteen buyers waiting on their orders share most transactions
+        assertThat(orderBatcher.batches() - batchesBefore).isLessThan(orders / 2);
+    }
+
+    @Test
+    void retriesGetTheFirstOrderAndNeverDecrementTwice() {
+        signIn(FIRST_USER);
+        int before = stock(2L);
+        List<CompletableFuture<OrderDTO>> attempts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            attempts.add(orderService.placeOrder("retry-1", request(FIRST_USER, 2L, 2)));
+        }
+        Long orderId = attempts.get(0).join().getOrderId();
+        assertThat(attempts).allSatisfy(attempt -> assertThat(attempt.join().getOrderId()).isEqualTo(orderId));
+
+        // Push the key out of the in-memory map, the orders table still knows it
+        for (int i = 0; i < 10; i++) {
+            orderService.placeOrder("filler-" + i, request(FIRST_USER, 3L, 1)).join();
+        }
+        assertThat(orderService.placeOrder("retry-1", request(FIRST_USER, 2L, 2)).join().getOrderId())
+                .isEqualTo(orderId);
+        assertThat(stock(2L)).isEqualTo(before - 2);
+
+        assertThat(failure(() -> orderService.placeOrder("retry-1", request(FIRST_USER, 2L, 3))))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void rejectedOrdersLeaveStockAlone() {
+        signIn(FIRST_USER + 1);
+        assertThat(failure(() -> orderService.placeOrder("too-many", request(FIRST_USER + 1, 6L, 4))))
+                .isInstanceOf(APIException.class);
+        assertThat(stock(6L)).isEqualTo(3);
+
+        // Somebody else's address
+        assertThat(failure(() -> orderService.placeOrder("address", request(FIRST_USER, 6L, 1))))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        // A failed key may be retried once the problem is fixed
+        assertThat(orderService.placeOrder("too-many", request(FIRST_USER + 1, 6L, 3)).join().getTotalAmount())
+                .isPositive();
+        assertThat(stock(6L)).isZero();
+    }
+
+    @Test
+    void checkoutWithoutItemsOrdersTheCart() {
+        long buyer = FIRST_USER + 2;
+        signIn(buyer);
+        cartService.addProduct(4L, 2);
+        cartService.addProduct(5L, 1);
+
+        OrderDTO order = orderService.placeOrder("cart-1", new OrderRequest(buyer, List.of(), List.of())).join();
+
+        assertThat(order.getItems()).extracting(OrderItemDTO::getProductId).containsExactly(4L, 5L);
+        assertThat(cartService.getCart().getItems()).isEmpty();
+        assertThat(orderService.getOrder(order.getOrderId()).getTotalAmount()).isEqualTo(order.getTotalAmount());
+    }
+
+    @Test
+    void reservedUnitsAreCommittedNotTakenAgain() {
+        long buyer = FIRST_USER + 3;
+        signIn(buyer);
+        jdbcTemplate.update("update products set quantity = 10 where product_id = 7");
+        ReservationDTO reservation = inventoryService.reserve(7L, 2);
+        assertThat(stock(7L)).isEqualTo(8);
+
+        // More reserved than ordered, the reservation stays open
+        assertThat(failure(() -> orderService.placeOrder("reserved-1", new OrderRequest(buyer,
+                List.of(new OrderItemDTO(7L, 1, 0)), List.of(reservation.getReservationId())))))
+                .isInstanceOf(APIException.class);
+
+        OrderDTO order = orderService.placeOrder("reserved-2", new OrderRequest(buyer,
+                List.of(new OrderItemDTO(7L, 3, 0)), List.of(reservation.getReservationId()))).join();
+
+        assertThat(order.getItems().get(0).getQuantity()).isEqualTo(3);
+        assertThat(stock(7L)).isEqualTo(7);
+        assertThatThrownBy(() -> inventoryService.release(reservation.getReservationId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(failure(() -> orderService.placeOrder("reserved-3", new OrderRequest(buyer,
+                List.of(new OrderItemDTO(7L, 2, 0)), List.of(reservation.getReservationId())))))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(stock(7L)).isEqualTo(7);
+    }
+
+    @Test
+    void orderBreakingItsBatchFailsAlone() {
+        jdbcTemplate.update("update products set quantity = 100 where product_id = 8");
+        List<PendingOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            long buyer = FIRST_USER + 4 + i;
+            // Longer than the request_hash column, so inserting this order fails the whole batch transaction
+            String requestHash = i == 1 ? "x".repeat(65) : "batch-hash";
+            orders.add(new PendingOrder(buyer, buyer, "batch-" + i, requestHash, Map.of(8L, 1), List.of(),
+                    new CompletableFuture<>()));
+        }
+        orders.forEach(orderBatcher::submit);
+
+        assertThat(failure(() -> orders.get(1).result())).isNotNull();
+        for (int i : new int[]{0, 2, 3}) {
+            assertThat(orders.get(i).result().join().getItems()).hasSize(1);
+        }
+        assertThat(stock(8L)).isEqualTo(97);
+    }
+
+    private int stock(Long productId) {
+        return jdbcTemplate.queryForObject("select quantity from products where product_id = ?", Integer.class,
+                productId);
+    }
+
+    // Unwraps the error whether the service rejected the order up front or through the future
+    private static Throwable failure(Supplier<CompletableFuture<OrderDTO>> attempt) {
+        try {
+            attempt.get().join();
+        } catch (CompletionException e) {
+            return e.getCause();
+        } catch (RuntimeException e) {
+            return e;
+        }
+        return null;
+    }
+
+    private static OrderRequest request(long addressId, Long productId, int quantity) {
+        return new OrderRequest(addressId, List.of(new OrderItemDTO(productId, quantity, 0)), List.of());
+    }
+
+    private static void signIn(long userId) {
+        UserDetailsImpl user = new UserDetailsImpl(userId, "buyer" + userId, "buyer" + userId + "@example.com",
+                "secret", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
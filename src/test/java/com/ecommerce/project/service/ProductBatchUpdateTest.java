@@ -0,0 +1,112 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.index.CategoryProductIndex;
+import com.ecommerce.project.index.ProductFacetIndex;
+import com.ecommerce.project.index.ProductOffer;
+import com.ecommerce.project.jdbc.StatementCounter;
+import com.ecommerce.project.jdbc.StatementStats;
+import com.ecommerce.project.payload.ProductBatchResponse;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductPatch;
+import com.ecommerce.project.payload.ProductPatchResult;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-update",
+        "logging.level.org.springframework=INFO",
+        "logging.level.org.hibernate.SQL=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductBatchUpdateTest {
+
+    private static final int PRODUCTS = 10_000;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryProductIndex categoryProductIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 10, PRODUCTS);
+    }
+
+    @Test
+    void tenThousandUpdatesAreLoadedInChunksAndFlushedInBatches() {
+        List<ProductPatch> patches = new ArrayList<>();
+        for (long id = 1; id <= PRODUCTS - 3; id++) {
+            patches.add(new ProductPatch(id, null, null, null, 100.0, 20.0, null));
+        }
+        patches.add(new ProductPatch(PRODUCTS - 2L, null, null, -1, null, null, null));
+        patches.add(new ProductPatch(PRODUCTS * 2L, null, null, 5, null, null, null));
+        patches.add(new ProductPatch(PRODUCTS - 1L, "Stale edit", null, null, null, null, 7L));
+
+        AtomicReference<ProductBatchResponse> response = new AtomicReference<>();
+        StatementStats stats = StatementCounter.measure(() -> response.set(productService.updateProducts(patches)));
+
+        assertThat(response.get().getUpdated()).isEqualTo(PRODUCTS - 3);
+        assertThat(response.get().getFailed()).isEqualTo(3);
+        List<ProductPatchResult> results = response.get().getResults();
+        assertThat(results.get(0).getStatus()).isEqualTo(ProductPatchResult.UPDATED);
+        assertThat(results.get(0).getVersion()).isEqualTo(1L);
+        assertThat(results.subList(PRODUCTS - 3, PRODUCTS)).extracting(ProductPatchResult::getStatus)
+                .containsExactly(ProductPatchResult.INVALID, ProductPatchResult.NOT_FOUND, ProductPatchResult.CONFLICT);
+
+        // One IN query and one JDBC batch per chunk of 1000, then one batch of outbox events
+        assertThat(stats.getCount()).isEqualTo(21);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from products where special_price = 80 and version = 1", Integer.class))
+                .isEqualTo(PRODUCTS - 3);
+    }
+
+    @Test
+    void rolledBackWritesNeverReachTheIndexes() {
+        Long categoryId = jdbcTemplate.queryForObject("select category_id from products where product_id = 42", Long.class);
+        long listed = categoryProductIndex.page(categoryId, "productId", true, 0, 1).getTotalElements();
+        int faceted = productFacetIndex.size();
+        ProductOffer offer = productFacetIndex.offer(42L);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            ProductDTO product = new ProductDTO();
+            product.setProductName("Rolled back product");
+            product.setDescription("Never committed");
+            product.setQuantity(5);
+            product.setPrice(100.0);
+            product.setDiscount(10.0);
+            productService.addProduct(categoryId, product);
+            productService.updateProducts(List.of(new ProductPatch(42L, null, null, 0, 1_000_000.0, null, null)));
+            status.setRollbackOnly();
+        });
+
+        assertThat(categoryProductIndex.page(categoryId, "productId", true, 0, 1).getTotalElements()).isEqualTo(listed);
+        assertThat(productFacetIndex.size()).isEqualTo(faceted);
+        assertThat(productFacetIndex.offer(42L)).usingRecursiveComparison().isEqualTo(offer);
+    }
+}
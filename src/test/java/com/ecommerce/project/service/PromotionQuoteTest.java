@@ -0,0 +1,108 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.DiscountType;
+import com.ecommerce.project.payload.PromotionDTO;
+import com.ecommerce.project.payload.QuoteItem;
+import com.ecommerce.project.payload.QuoteLine;
+import com.ecommerce.project.payload.QuoteRequest;
+import com.ecommerce.project.payload.QuoteResponse;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:promotion-quote",
+        "logging.level.org.springframework=INFO"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PromotionQuoteTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private PromotionService promotionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long inCategory;
+    private long excluded;
+    private long elsewhere;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 4, 100);
+        List<Long> categoryOne = jdbcTemplate.queryForList(
+                "select product_id from products where category_id = 1 order by product_id", Long.class);
+        inCategory = categoryOne.get(0);
+        excluded = categoryOne.get(1);
+        elsewhere = jdbcTemplate.queryForObject(
+                "select min(product_id) from products where category_id = 2", Long.class);
+        jdbcTemplate.update("update products set special_price = 100 where product_id in (?, ?, ?)",
+                inCategory, excluded, elsewhere);
+
+        promotionService.createPromotion(promotion("Category 1 sale", null, 1L, 1, DiscountType.PERCENTAGE, 10, true,
+                Set.of(excluded)));
+        promotionService.createPromotion(promotion("Five off", null, null, 1, DiscountType.ABSOLUTE, 5, true, Set.of()));
+        promotionService.createPromotion(promotion("Bulk coupon", "save30", null, 3, DiscountType.PERCENTAGE, 30, false,
+                Set.of()));
+    }
+
+    @Test
+    void stackablePromotionsAddUpAndExclusionsApply() {
+        QuoteResponse quote = promotionService.quote(new QuoteRequest(List.of(
+                new QuoteItem(inCategory, 1), new QuoteItem(excluded, 1), new QuoteItem(elsewhere, 2)), null));
+
+        assertThat(quote.getLines()).extracting(QuoteLine::getUnitDiscount).containsExactly(15.0, 5.0, 5.0);
+        assertThat(quote.getLines().get(0).getPromotionIds()).hasSize(2);
+        assertThat(quote.getSubtotal()).isEqualTo(400.0);
+        assertThat(quote.getTotal()).isCloseTo(370.0, within(1e-9));
+    }
+
+    @Test
+    void nonStackableCouponWinsOnlyWhenPresentedAndLarger() {
+        QuoteResponse quote = promotionService.quote(new QuoteRequest(List.of(
+                new QuoteItem(inCategory, 3), new QuoteItem(elsewhere, 2)), " SAVE30 "));
+
+        // 30 beats 10 + 5 at three units; below minQuantity the stackable promotions still apply
+        assertThat(quote.getLines()).extracting(QuoteLine::getUnitDiscount).containsExactly(30.0, 5.0);
+        assertThat(quote.getLines().get(0).getPromotionIds()).hasSize(1);
+    }
+
+    @Test
+    void changedPromotionsAreSwappedInAfterCommit() {
+        PromotionDTO flash = promotionService.createPromotion(promotion("Flash", null, null, 1, DiscountType.ABSOLUTE,
+                500, false, Set.of()));
+        assertThat(quote(elsewhere)).isEqualTo(100.0);
+
+        flash.setActive(false);
+        promotionService.updatePromotion(flash, flash.getPromotionId());
+        assertThat(quote(elsewhere)).isEqualTo(5.0);
+
+        promotionService.deletePromotion(flash.getPromotionId());
+        assertThat(promotionService.getPromotions()).hasSize(3);
+    }
+
+    private double quote(long productId) {
+        return promotionService.quote(new QuoteRequest(List.of(new QuoteItem(productId, 1)), null))
+                .getLines().get(0).getUnitDiscount();
+    }
+
+    private static PromotionDTO promotion(String name, String coupon, Long categoryId, int minQuantity,
+                                          DiscountType type, double amount, boolean stackable, Set<Long> excluded) {
+        return new PromotionDTO(null, name, coupon, null, categoryId, null, minQuantity, type, amount, stackable, true,
+                excluded);
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exceptions.APIException;
+import com.ecommerce.project.jdbc.StatementCounter;
+import com.ecommerce.project.jdbc.StatementStats;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFilter;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+
+/**
+ * Statement budgets of the service methods. Each page of products spans several categories, so loading the
+ * category per product would show up here as extra statements.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-budget",
+        "project.sql.guard.request-budget=1",
+        "project.sql.guard.response-headers=true"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementBudgetTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 5, 100);
+    }
+
+    @Test
+    void productPageFetchesCategoriesWithTheProducts() {
+        StatementStats stats = StatementCounter.measure(() -> productService.getAllProducts(0, 50, "productId", "asc", null));
+
+        // Page and count
+        assertThat(stats.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void keywordSearchFetchesCategoriesWithTheProducts() {
+        // The last page is short, so Spring Data skips the count
+        StatementStats stats = StatementCounter.measure(() ->
+                productService.searchProductByKeyword("phone", 0, 50, "productId", "asc", null));
+
+        assertThat(stats.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void indexedCategoryPageLoadsOnlyThePage() {
+        StatementStats stats = StatementCounter.measure(() ->
+                productService.searchByCategory(1L, 0, 10, "price", "asc", null));
+
+        // Category and the page's products by id
+        assertThat(stats.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void filteredPageFetchesCategoriesWithTheProducts() {
+        StatementStats stats = StatementCounter.measure(() ->
+                productService.filterProducts(new ProductFilter(), 0, 50, null));
+
+        // Facets and ordering come from the index, the page's products and categories are one select
+        assertThat(stats.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidPagesAreRejected() {
+        assertThatThrownBy(() -> productService.filterProducts(new ProductFilter(), 0, 0, null))
+                .isInstanceOf(APIException.class);
+        assertThatThrownBy(() -> productService.searchByCategory(1L, -1, 10, "price", "asc", null))
+                .isInstanceOf(APIException.class);
+    }
+
+    @Test
+    void categoryPageIsOneStatement() {
+        StatementStats stats = StatementCounter.measure(() -> categoryService.getAllCategories(0, 50, "categoryId", "asc"));
+
+        assertThat(stats.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void addProductChecksDuplicatesWithoutLoadingTheCategory() {
+        ProductDTO productDTO = new ProductDTO(null, "Budget product", null, "Statement budget", 3, 10, 0, 0, null, null, null);
+
+        StatementStats stats = StatementCounter.measure(() -> productService.addProduct(2L, productDTO));
+
+        // Category, duplicate check, products_seq block, insert and outbox event
+        assertThat(stats.getCount()).isEqualTo(5);
+    }
+
+    @Test
+    void repeatedShapesAreReportedAsNPlusOne() {
+        StatementStats stats = StatementCounter.measure(() -> {
+            for (long categoryId = 1; categoryId <= 5; categoryId++) {
+                jdbcTemplate.queryForList("select * from categories where category_id = " + categoryId);
+            }
+        });
+
+        assertThat(stats.getRepeatedShapes(5))
+                .containsEntry("select * from categories where category_id = ?", 5);
+    }
+
+    @Test
+    void requestsOverBudgetAreFlaggedInHeaders() throws Exception {
+        mockMvc.perform(get("/api/public/products?pageSize=50"))
+                .andExpect(header().string("X-SQL-Statements", "2"))
+                .andExpect(header().string("X-SQL-Budget-Exceeded", "2 > 1"));
+    }
+}
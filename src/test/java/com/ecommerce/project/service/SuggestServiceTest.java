@@ -0,0 +1,93 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.index.SearchPopularity;
+import com.ecommerce.project.index.SuggestIndex;
+import com.ecommerce.project.jdbc.StatementCounter;
+import com.ecommerce.project.jdbc.StatementStats;
+import com.ecommerce.project.payload.SuggestionDTO;
+import com.ecommerce.project.support.CatalogSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:suggest",
+        "project.suggest.refresh-ms=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SuggestServiceTest {
+
+    private static final int PRODUCTS = 20_000;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private SuggestService suggestService;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private SearchPopularity searchPopularity;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        CatalogSeeder.seed(context, 10, PRODUCTS);
+        // Clears the pending catalog change
+        suggestIndex.refresh();
+    }
+
+    @Test
+    void popularityIsMergedWithoutReadingTheCatalog() {
+        // The longest id, so without hits the name loses every tie against shorter ones
+        Long popular = jdbcTemplate.queryForObject("select max(product_id) from products "
+                + "where product_name like 'Wireless Phone %'", Long.class);
+        assertThat(suggestService.suggest("wireless phone", 10)).extracting(SuggestionDTO::getId).doesNotContain(popular);
+
+        searchPopularity.record(List.of(popular));
+        StatementStats stats = StatementCounter.measure(() -> suggestIndex.refresh());
+
+        assertThat(stats.getCount()).isZero();
+        assertThat(suggestService.suggest("wireless phone", 10).get(0).getId()).isEqualTo(popular);
+    }
+
+    @Test
+    void lookupsStayUnderAMillisecondAtP99() {
+        Random random = new Random(7);
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String adjective = CatalogSeeder.ADJECTIVES[random.nextInt(CatalogSeeder.ADJECTIVES.length)].toLowerCase();
+            String noun = CatalogSeeder.NOUNS[random.nextInt(CatalogSeeder.NOUNS.length)].toLowerCase();
+            String full = adjective + " " + noun + " " + random.nextInt(PRODUCTS);
+            queries.add(full.substring(0, 1 + random.nextInt(full.length())));
+        }
+        for (int round = 0; round < 10; round++) {
+            queries.forEach(query -> suggestService.suggest(query, 10));
+        }
+
+        long[] nanos = new long[queries.size() * 5];
+        for (int i = 0; i < nanos.length; i++) {
+            long start = System.nanoTime();
+            suggestService.suggest(queries.get(i % queries.size()), 10);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        assertThat(nanos[(int) (nanos.length * 0.99)]).isLessThan(1_000_000L);
+    }
+}
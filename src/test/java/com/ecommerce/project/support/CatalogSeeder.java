@@ -0,0 +1,56 @@
+package com.ecommerce.project.support;
+
+import com.ecommerce.project.index.CategoryProductIndex;
+import com.ecommerce.project.index.ProductFacetIndex;
+import com.ecommerce.project.index.SuggestIndex;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills an empty database with a reproducible catalog for benchmarks and load tests. Ids are assigned explicitly
+ * (categories 1..categories, products 1..products) and the generators are moved past them, so the application
+ * can keep inserting afterwards.
+ */
+public final class CatalogSeeder {
+
+    public static final String[] ADJECTIVES = {"Wireless", "Smart", "Compact", "Premium", "Classic", "Portable", "Ultra", "Eco"};
+    public static final String[] NOUNS = {"Phone", "Speaker", "Kettle", "Backpack", "Lamp", "Watch", "Blender", "Headphones"};
+
+    private CatalogSeeder() {
+    }
+
+    public static void seed(ApplicationContext context, int categories, int products) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Object[]> categoryRows = new ArrayList<>();
+        for (long id = 1; id <= categories; id++) {
+            categoryRows.add(new Object[]{id, "Category " + id});
+        }
+        jdbcTemplate.batchUpdate("insert into categories (category_id, category_name) values (?, ?)", categoryRows);
+
+        Random random = new Random(42);
+        List<Object[]> productRows = new ArrayList<>();
+        for (long id = 1; id <= products; id++) {
+            double price = 5 + random.nextInt(2000);
+            double discount = random.nextInt(6) * 5;
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + id;
+            productRows.add(new Object[]{id, name, "Seeded product " + id, "default.png", random.nextInt(20),
+                    price, discount, price - discount * 0.01 * price, 1 + random.nextInt(categories)});
+        }
+        jdbcTemplate.batchUpdate("insert into products (product_id, product_name, description, image, quantity, "
+                + "price, discount, special_price, category_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", productRows);
+
+        jdbcTemplate.execute("alter table categories alter column category_id restart with " + (categories + 1));
+        // products_seq hands out blocks of 50 ending at the returned value
+        jdbcTemplate.execute("alter sequence products_seq restart with " + (products + 100));
+
+        // The indexes loaded on ApplicationReadyEvent, before the catalog existed
+        context.getBean(CategoryProductIndex.class).rebuild();
+        context.getBean(ProductFacetIndex.class).rebuild();
+        context.getBean(SuggestIndex.class).rebuild();
+    }
+}